@@ -19,4 +19,7 @@ module org.example.arabicsearchengine {
     exports org.example.arabicsearchengine.models;
     exports org.example.arabicsearchengine.repositories;
     exports org.example.arabicsearchengine.datastructures.tree;
+    exports org.example.arabicsearchengine.datastructures.hashtable;
+    exports org.example.arabicsearchengine.datastructures.sketch;
+    exports org.example.arabicsearchengine.utils;
 }
\ No newline at end of file
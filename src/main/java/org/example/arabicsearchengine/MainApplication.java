@@ -5,15 +5,19 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.example.arabicsearchengine.controllers.MainController;
 
 import java.io.IOException;
 
 public class MainApplication extends Application {
+    private MainController mainController;
+
     @Override
     public void start(Stage stage) throws IOException {
         // Load main view
         FXMLLoader loader = new FXMLLoader(getClass().getResource("views/MainView.fxml"));
         Parent root = loader.load();
+        mainController = loader.getController();
 
         // Create scene with CSS
         Scene scene = new Scene(root, 1000, 700);
@@ -28,4 +32,12 @@ public class MainApplication extends Application {
         // Show
         stage.show();
     }
+
+    @Override
+    public void stop() {
+        // Keep the dictionary and word frequencies for the next start
+        if (mainController != null) {
+            mainController.closeDictionary();
+        }
+    }
 }
@@ -4,12 +4,18 @@ import org.example.arabicsearchengine.models.DerivedWord;
 import org.example.arabicsearchengine.models.Pattern;
 import org.example.arabicsearchengine.models.Root;
 import org.example.arabicsearchengine.models.ValidationResult;
+import org.example.arabicsearchengine.repositories.DerivationIndex;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
 import org.example.arabicsearchengine.repositories.PatternRepository;
 import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.repositories.WriteAheadLog;
+import org.example.arabicsearchengine.services.FrequencyAnalyticsService;
 import org.example.arabicsearchengine.services.MorphologyService;
 import org.example.arabicsearchengine.services.PatternService;
+import org.example.arabicsearchengine.services.PersistenceService;
 import org.example.arabicsearchengine.services.RootService;
 import org.example.arabicsearchengine.services.ValidationService;
+import org.example.arabicsearchengine.utils.ChunkedRootLoader;
 
 import java.io.IOException;
 import java.util.List;
@@ -17,11 +23,14 @@ import java.util.Scanner;
 
 /**Command-Line Interface Controller for the Arabic Morphological Search Engine.*/
 public class CLIController {
+    private static final int TOP_ENTRIES = 10;
+
     private final Scanner scanner;
     private final RootService rootService;
     private final PatternService patternService;
     private final MorphologyService morphologyService;
     private final ValidationService validationService;
+    private final PersistenceService persistenceService;
     private final OutputFormatter formatter;
     private boolean running;
 
@@ -34,12 +43,51 @@ public class CLIController {
 
         this.rootService = new RootService(rootRepo);
         this.patternService = new PatternService(patternRepo);
-        this.morphologyService = new MorphologyService();
+        this.morphologyService = new MorphologyService(new DerivedWordStore(), new FrequencyAnalyticsService());
+        this.morphologyService.trackDeletedRoots(rootRepo);
         this.validationService = new ValidationService(rootRepo, patternRepo, morphologyService);
+        this.persistenceService = new PersistenceService(rootService, patternService, morphologyService,
+                PersistenceService.DEFAULT_DIRECTORY);
         this.formatter = new OutputFormatter();
         this.running = true;
 
-        patternService.initializeDefaultPatterns();
+        if (!loadDictionary()) {
+            patternService.initializeDefaultPatterns();
+        }
+    }
+
+    /**
+     * Restores the dictionary saved at the last exit plus the changes logged
+     * since, then logs every change; returns false if there was nothing to restore.
+     */
+    private boolean loadDictionary() {
+        try {
+            boolean restored = persistenceService.start();
+            if (restored) {
+                WriteAheadLog.ReplayResult replay = persistenceService.getLastReplay();
+                formatter.printSuccess(String.format("تم تحميل القاموس المحفوظ (Dictionary restored): %d جذر، %d وزن، %d تغيير من السجل في %.1f ms",
+                        rootService.getRootCount(), patternService.getPatternCount(), replay.getRecords(),
+                        persistenceService.getStartNanos() / 1_000_000.0));
+                if (replay.getDiscardedBytes() > 0) {
+                    formatter.printWarning("تم تجاهل نهاية سجل غير مكتملة (Torn log tail discarded): "
+                            + replay.getDiscardedBytes() + " bytes");
+                }
+            }
+            return restored;
+        } catch (IOException | RuntimeException e) {
+            // A damaged snapshot or log falls back to the default patterns
+            formatter.printWarning("تعذر تحميل القاموس المحفوظ (Dictionary not restored): " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void closeDictionary() {
+        try {
+            persistenceService.close();
+            formatter.printSuccess("تم حفظ القاموس (Dictionary saved): " + PersistenceService.DEFAULT_DIRECTORY);
+        } catch (IOException e) {
+            formatter.printError("تعذر حفظ القاموس (Dictionary not saved): " + e.getMessage());
+        }
     }
 
     /**Main entry point*/
@@ -52,6 +100,7 @@ public class CLIController {
             handleMainMenuChoice(choice);
         }
 
+        closeDictionary();
         formatter.printGoodbye();
         scanner.close();
     }
@@ -115,7 +164,13 @@ public class CLIController {
         String path = scanner.nextLine().trim();
         try {
             int count = rootService.loadRootsFromFile(path);
+            ChunkedRootLoader.Result load = rootService.getLastLoad();
             formatter.printSuccess("تم تحميل " + count + " جذر بنجاح");
+            System.out.printf("  %d سطر، %d جذر مختلف، %.1f MB/s (%d chunks, %.1f ms)%n", load.getLines(),
+                    load.getRoots().size(), load.getMegabytesPerSecond(), load.getChunks(), load.getNanos() / 1e6);
+            if (load.getSkippedLines() > 0) {
+                formatter.printWarning("أسطر غير صالحة تم تجاهلها (Invalid lines skipped): " + load.getSkippedLines());
+            }
         } catch (IOException e) {
             formatter.printError("خطأ في قراءة الملف: " + e.getMessage());
         }
@@ -138,21 +193,19 @@ public class CLIController {
         Root root = rootService.searchRoot(letters);
         if (root != null) {
             formatter.printSuccess("تم العثور على الجذر!");
-            formatter.printRoot(root);
+            formatter.printRoot(root, morphologyService.getDerivedWords(root).size());
         } else {
             formatter.printError("الجذر غير موجود: " + letters);
         }
     }
 
     private void displayAllRoots() {
-        List<Root> roots = rootService.getAllRoots();
-        if (roots.isEmpty()) {
+        int count = rootService.getRootCount();
+        if (count == 0) {
             formatter.printWarning("لا توجد جذور محفوظة");
         } else {
-            formatter.printHeader("جميع الجذور (" + roots.size() + ")");
-            for (Root root : roots) {
-                System.out.println("  • " + root.getRootLetters());
-            }
+            formatter.printHeader("جميع الجذور (" + count + ")");
+            rootService.streamRoots().forEach(root -> System.out.println("  • " + root.getRootLetters()));
         }
     }
 
@@ -354,6 +407,8 @@ public class CLIController {
             formatter.printHeader("التحقق الصرفي - Morphological Validation");
             System.out.println("1. التحقق من كلمة مقابل جذر (Validate word against root)");
             System.out.println("2. تحديد جذر ووزن كلمة (Identify root and pattern of word)");
+            System.out.println("3. تغيير طريقة التحديد (Change identification method) - الحالية: "
+                    + validationService.getIdentificationStrategy());
             System.out.println("0. رجوع (Back)");
             formatter.printSeparator();
             System.out.print("اختر (Choose): ");
@@ -364,6 +419,7 @@ public class CLIController {
             switch (choice) {
                 case 1 -> validateWordAgainstRoot();
                 case 2 -> identifyWord();
+                case 3 -> changeIdentificationStrategy();
                 default -> formatter.printError("خيار غير صالح");
             }
         }
@@ -391,6 +447,21 @@ public class CLIController {
         System.out.println(result);
     }
 
+    private void changeIdentificationStrategy() {
+        ValidationService.IdentificationStrategy[] strategies = ValidationService.IdentificationStrategy.values();
+        for (int i = 0; i < strategies.length; i++) {
+            System.out.println((i + 1) + ". " + strategies[i]);
+        }
+        System.out.print("اختر (Choose): ");
+        int choice = readIntChoice();
+        if (choice < 1 || choice > strategies.length) {
+            formatter.printError("خيار غير صالح");
+            return;
+        }
+        validationService.setIdentificationStrategy(strategies[choice - 1]);
+        formatter.printSuccess("طريقة التحديد: " + strategies[choice - 1]);
+    }
+
     //STATISTICS
 
     private void handleStatistics() {
@@ -400,6 +471,33 @@ public class CLIController {
         System.out.println("  ارتفاع شجرة AVL (AVL Tree height): " +
                 rootService.getRepository().getTreeHeight());
 
+        DerivationIndex index = validationService.getDerivationIndex();
+        if (index != null) {
+            System.out.println("  فهرس الاشتقاق العكسي (Reverse derivation index): " +
+                    index.getWordCount() + " كلمة، " + index.getEntryCount() + " مدخل، ~" +
+                    (index.estimateMemoryBytes() / 1024) + " KB");
+        } else {
+            System.out.println("  فهرس الاشتقاق العكسي (Reverse derivation index): غير مفعّل ("
+                    + validationService.getIdentificationStrategy() + ")");
+        }
+
+        FrequencyAnalyticsService analytics = morphologyService.getFrequencyAnalytics();
+        if (analytics != null) {
+            System.out.println();
+            System.out.println("الأكثر تكراراً (Most frequent, " + analytics.getTotal() + " occurrences):");
+            formatter.printTopEntries("الكلمات (Words)", analytics.getTopWords(TOP_ENTRIES));
+            formatter.printTopEntries("الجذور (Roots)", analytics.getTopRoots(TOP_ENTRIES));
+            formatter.printTopEntries("الأوزان (Patterns)", analytics.getTopPatterns(TOP_ENTRIES));
+            System.out.println("  الكلمات الرائجة (Trending, last hour vs daily average):");
+            List<FrequencyAnalyticsService.TrendingWord> trending = analytics.getTrendingWords(TOP_ENTRIES);
+            if (trending.isEmpty()) {
+                System.out.println("    (لا توجد بيانات)");
+            }
+            for (FrequencyAnalyticsService.TrendingWord word : trending) {
+                System.out.printf("    %-15s %d/ساعة، %d/يوم%n", word.getWord(), word.getLastHour(), word.getLastDay());
+            }
+        }
+
         System.out.println();
         System.out.println("إحصائيات جدول التجزئة:");
         patternService.getRepository().printStats();
@@ -1,8 +1,11 @@
 package org.example.arabicsearchengine.cli;
 
+import org.example.arabicsearchengine.datastructures.sketch.SpaceSaving;
 import org.example.arabicsearchengine.models.Pattern;
 import org.example.arabicsearchengine.models.Root;
 
+import java.util.List;
+
 /**
  * Utility class for formatting CLI output.
  * Handles Arabic text display and console styling.
@@ -87,11 +90,11 @@ public class OutputFormatter {
         }
     }
 
-    public void printRoot(Root root) {
+    public void printRoot(Root root, int derivedWordCount) {
         System.out.println("  ┌─────────────────────────────");
         System.out.println("  │ الجذر (Root): " + root.getRootLetters());
         System.out.println("  │ R1: " + root.getR1() + ", R2: " + root.getR2() + ", R3: " + root.getR3());
-        System.out.println("  │ المشتقات (Derivatives): " + root.getDerivedWords().size());
+        System.out.println("  │ المشتقات (Derivatives): " + derivedWordCount);
         System.out.println("  └─────────────────────────────");
     }
 
@@ -103,6 +106,20 @@ public class OutputFormatter {
         System.out.println("  └─────────────────────────────");
     }
 
+    /**Prints a ranked list of heavy hitters, marking counts that may be overestimated.*/
+    public void printTopEntries(String title, List<SpaceSaving.Entry<String>> entries) {
+        System.out.println("  " + title + ":");
+        if (entries.isEmpty()) {
+            System.out.println("    (لا توجد بيانات)");
+            return;
+        }
+        int rank = 1;
+        for (SpaceSaving.Entry<String> entry : entries) {
+            System.out.printf("    %2d. %-15s %d%s%n", rank++, entry.getKey(), entry.getCount(),
+                    entry.getError() > 0 ? " (±" + entry.getError() + ")" : "");
+        }
+    }
+
     /**Formats Arabic text for RTL display.*/
     public String formatArabic(String text) {
         // Add RTL mark for proper display
@@ -0,0 +1,87 @@
+package org.example.arabicsearchengine.controllers;
+
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.stage.FileChooser;
+import org.example.arabicsearchengine.services.ExportService;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Drives an export button: the first click asks for a file and starts a
+ * background export, the button then shows the progress, and a second click
+ * cancels. Shared by the derivation views.
+ */
+final class ExportRunner {
+
+    /** Starts the export itself, e.g. ExportService::start. */
+    @FunctionalInterface
+    interface Starter {
+        ExportService.ExportJob start(Path target, ExportService.Format format,
+                                      Consumer<ExportService.ExportJob> progress);
+    }
+
+    private final Button button;
+    private final String idleText;
+    private ExportService.ExportJob running;
+
+    ExportRunner(Button button) {
+        this.button = button;
+        this.idleText = button.getText();
+    }
+
+    void exportOrCancel(String initialName, Starter starter) {
+        if (running != null) {
+            running.cancel();
+            button.setText("جارٍ الإلغاء...");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("حفظ النتائج");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"),
+                new FileChooser.ExtensionFilter("Binary", "*.bin")
+        );
+        fileChooser.setInitialFileName(initialName + ".csv");
+        File file = fileChooser.showSaveDialog(button.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        ExportService.Format format = ExportService.Format.forFile(file.toPath());
+        ExportService.ExportJob job = starter.start(file.toPath(), format, progress ->
+                Platform.runLater(() -> {
+                    if (running == progress && !progress.isCancelled()) {
+                        button.setText(String.format("إلغاء التصدير (%.0f%%)", progress.getProgress() * 100));
+                    }
+                }));
+        running = job;
+        button.setText("إلغاء التصدير");
+        job.getCompletion().whenComplete((done, error) -> Platform.runLater(() -> {
+            running = null;
+            button.setText(idleText);
+            if (error == null) {
+                show(Alert.AlertType.INFORMATION, "معلومة", String.format("تم تصدير %d كلمة إلى %s (%.1f ms)",
+                        done.getRows(), file.getName(), done.getNanos() / 1e6));
+            } else if (error instanceof CancellationException) {
+                show(Alert.AlertType.INFORMATION, "معلومة", "تم إلغاء التصدير");
+            } else {
+                show(Alert.AlertType.ERROR, "خطأ", "خطأ في الحفظ: " + error.getMessage());
+            }
+        }));
+    }
+
+    private static void show(Alert.AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.arabicsearchengine.controllers;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -7,10 +8,14 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
 import org.example.arabicsearchengine.repositories.PatternRepository;
 import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.services.DataReloadService;
+import org.example.arabicsearchengine.services.FrequencyAnalyticsService;
 import org.example.arabicsearchengine.services.MorphologyService;
 import org.example.arabicsearchengine.services.PatternService;
+import org.example.arabicsearchengine.services.PersistenceService;
 import org.example.arabicsearchengine.services.RootService;
 import org.example.arabicsearchengine.services.ValidationService;
 
@@ -28,19 +33,30 @@ public class MainController {
     private PatternService patternService;
     private MorphologyService morphologyService;
     private ValidationService validationService;
+    private PersistenceService persistenceService;
+    private DataReloadService dataReloadService;
 
     @FXML
     public void initialize() {
         rootRepository = new RootRepository();
-        patternRepository = new PatternRepository();
+        // Patterns are read by the views and written by background imports
+        patternRepository = new PatternRepository(PatternRepository.StorageType.CONCURRENT_HASH_TABLE);
 
         rootService = new RootService(rootRepository);
         patternService = new PatternService(patternRepository);
-        morphologyService = new MorphologyService();
+        morphologyService = new MorphologyService(new DerivedWordStore(), new FrequencyAnalyticsService());
+        morphologyService.trackDeletedRoots(rootRepository);
         validationService = new ValidationService(rootRepository, patternRepository, morphologyService);
-
-        // Initialize with default patterns
-        patternService.initializeDefaultPatterns();
+        persistenceService = new PersistenceService(rootService, patternService, morphologyService,
+                PersistenceService.DEFAULT_DIRECTORY);
+        // Files are parsed on the watcher thread; only the diff is applied on the FX thread
+        dataReloadService = new DataReloadService(rootService, patternService, Platform::runLater);
+        dataReloadService.addChangeListener(this::onDataReloaded);
+
+        // Restore the last session, or start from the default patterns
+        if (!loadDictionary()) {
+            patternService.initializeDefaultPatterns();
+        }
 
         updateStatusBar();
     }
@@ -49,7 +65,7 @@ public class MainController {
     private void showRootManagement() {
         loadView("/org/example/arabicsearchengine/views/RootView.fxml", controller -> {
             if (controller instanceof RootManagementController rmc) {
-                rmc.setServices(rootService, patternService, this::updateStatusBar);
+                rmc.setServices(rootService, patternService, dataReloadService, this::updateStatusBar);
             }
         });
         setActiveButton(btnRoots);
@@ -104,7 +120,7 @@ public class MainController {
     private void showStatistics() {
         loadView("/org/example/arabicsearchengine/views/StatisticsView.fxml", controller -> {
             if (controller instanceof StatisticsController sc) {
-                sc.setServices(rootService);
+                sc.setServices(rootService, patternService, morphologyService.getFrequencyAnalytics());
             }
         });
         setActiveButton(btnStats);
@@ -153,6 +169,40 @@ public class MainController {
         }
     }
 
+    private boolean loadDictionary() {
+        try {
+            return persistenceService.start();
+        } catch (IOException | RuntimeException e) {
+            // A damaged snapshot or log must not keep the window from opening
+            System.err.println("Warning: Could not restore the dictionary. " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void onDataReloaded(DataReloadService.ChangeEvent event) {
+        updateStatusBar();
+        String what = event.getKind() == DataReloadService.ChangeEvent.Kind.ROOTS ? "الجذور" : "الأوزان";
+        lblStatus.setText(String.format("أعيد تحميل %s من %s: +%d -%d ~%d", what, event.getFile().getFileName(),
+                event.getAdded().size(), event.getRemoved().size(), event.getUpdated().size()));
+    }
+
+    /**
+     * Stops watching data files and compacts the change log into a snapshot for
+     * the next start; called when the window closes.
+     */
+    public void closeDictionary() {
+        try {
+            dataReloadService.close();
+        } catch (IOException e) {
+            System.err.println("Warning: Could not stop watching data files. " + e.getMessage());
+        }
+        try {
+            persistenceService.close();
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save the dictionary. " + e.getMessage());
+        }
+    }
+
     public void updateStatusBar() {
         lblRootCount.setText("الجذور: " + rootService.getRootCount());
         lblPatternCount.setText("الأوزان: " + patternService.getPatternCount());
@@ -163,6 +213,8 @@ public class MainController {
     public PatternService getPatternService() { return patternService; }
     public MorphologyService getMorphologyService() { return morphologyService; }
     public ValidationService getValidationService() { return validationService; }
+    public PersistenceService getPersistenceService() { return persistenceService; }
+    public DataReloadService getDataReloadService() { return dataReloadService; }
 
     @FunctionalInterface
     interface ControllerInitializer {
@@ -8,16 +8,11 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import org.example.arabicsearchengine.models.DerivedWord;
 import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.services.ExportService;
 import org.example.arabicsearchengine.services.MorphologyService;
 import org.example.arabicsearchengine.services.PatternService;
 import org.example.arabicsearchengine.services.RootService;
 
-import javafx.stage.FileChooser;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
-import java.util.List;
-
 /**
  * Controller for the RootDerivation view.
  * Displays all roots alongside their derived words in a single searchable table.
@@ -32,10 +27,13 @@ public class RootDerivationController {
     @FXML private TableColumn<RootDerivationRow, String> colPattern;
     @FXML private TableColumn<RootDerivationRow, String> colDescription;
     @FXML private TableColumn<RootDerivationRow, Integer> colFrequency;
+    @FXML private Button btnExport;
 
     private RootService rootService;
     private PatternService patternService;
     private MorphologyService morphologyService;
+    private ExportService exportService;
+    private ExportRunner exportRunner;
     private ObservableList<RootDerivationRow> tableItems;
 
     @FXML
@@ -63,6 +61,8 @@ public class RootDerivationController {
         this.rootService = rootService;
         this.patternService = patternService;
         this.morphologyService = morphologyService;
+        this.exportService = new ExportService(rootService, morphologyService);
+        this.exportRunner = new ExportRunner(btnExport);
 
         loadAllRootDerivations();
     }
@@ -78,22 +78,8 @@ public class RootDerivationController {
             return;
         }
 
-        List<Root> allRoots = rootService.getAllRoots();
-
-        for (Root root : allRoots) {
-            // First check if the root already has derived words
-            if (root.getDerivedWords() != null && !root.getDerivedWords().isEmpty()) {
-                for (DerivedWord dw : root.getDerivedWords()) {
-                    tableItems.add(new RootDerivationRow(
-                            root.getRootLetters(),
-                            dw.getWord(),
-                            dw.getPattern() != null ? dw.getPattern().getPatternId() : "",
-                            dw.getPattern() != null ? dw.getPattern().getDescription() : "",
-                            dw.getFrequency()
-                    ));
-                }
-            }
-        }
+        // Stream the roots straight from the repository instead of copying them first
+        rootService.streamRoots().forEach(this::addDerivationRows);
 
         updateResultCount();
     }
@@ -122,64 +108,34 @@ public class RootDerivationController {
 
         tableItems.clear();
 
-        List<Root> allRoots = rootService.getAllRoots();
-
-        for (Root root : allRoots) {
-            if (root.getRootLetters().contains(filter)) {
-                // Check for existing derived words first
-                if (root.getDerivedWords() != null && !root.getDerivedWords().isEmpty()) {
-                    for (DerivedWord dw : root.getDerivedWords()) {
-                        tableItems.add(new RootDerivationRow(
-                                root.getRootLetters(),
-                                dw.getWord(),
-                                dw.getPattern() != null ? dw.getPattern().getPatternId() : "",
-                                dw.getPattern() != null ? dw.getPattern().getDescription() : "",
-                                dw.getFrequency()
-                        ));
-                    }
-                }
-            }
-        }
+        // Roots sharing the typed prefix form one contiguous range of the sorted storage
+        int matching = rootService.countRootsByPrefix(filter);
+        rootService.findRootsByPrefix(filter, 0, matching).forEach(this::addDerivationRows);
 
         updateResultCount();
     }
 
+    /** Adds one table row per derived word of the given root. */
+    private void addDerivationRows(Root root) {
+        for (DerivedWord dw : morphologyService.getDerivedWords(root)) {
+            tableItems.add(new RootDerivationRow(
+                    root.getRootLetters(),
+                    dw.getWord(),
+                    dw.getPattern() != null ? dw.getPattern().getPatternId() : "",
+                    dw.getPattern() != null ? dw.getPattern().getDescription() : "",
+                    dw.getFrequency()
+            ));
+        }
+    }
+
     @FXML
     private void exportResults() {
-        if (tableItems.isEmpty()) {
+        if (rootService.getRootCount() == 0) {
             showError("لا توجد نتائج للتصدير");
             return;
         }
-
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("حفظ النتائج");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("Text Files", "*.txt")
-        );
-        fileChooser.setInitialFileName("root_derivations.txt");
-
-        File file = fileChooser.showSaveDialog(rootDerivationTable.getScene().getWindow());
-        if (file != null) {
-            try (PrintWriter writer = new PrintWriter(new FileWriter(file, java.nio.charset.StandardCharsets.UTF_8))) {
-                writer.println("جدول الجذور والمشتقات");
-                writer.println("=".repeat(50));
-
-                String currentRoot = "";
-                for (RootDerivationRow row : tableItems) {
-                    if (!row.getRootLetters().equals(currentRoot)) {
-                        currentRoot = row.getRootLetters();
-                        writer.println();
-                        writer.println("── الجذر: " + currentRoot + " ──");
-                    }
-                    writer.println("  " + row.getPatternId() + " → " + row.getDerivedWord()
-                            + " (" + row.getDescription() + ")");
-                }
-
-                showInfo("تم حفظ النتائج بنجاح");
-            } catch (Exception e) {
-                showError("خطأ في الحفظ: " + e.getMessage());
-            }
-        }
+        // Every root and derived word, streamed from the repositories rather than the table
+        exportRunner.exportOrCancel("root_derivations", exportService::start);
     }
 
     private void updateResultCount() {
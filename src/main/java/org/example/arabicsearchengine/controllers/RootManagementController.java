@@ -7,8 +7,10 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.services.DataReloadService;
 import org.example.arabicsearchengine.services.PatternService;
 import org.example.arabicsearchengine.services.RootService;
+import org.example.arabicsearchengine.utils.ChunkedRootLoader;
 
 import java.io.File;
 
@@ -19,9 +21,16 @@ public class RootManagementController {
     @FXML private ListView<String> rootListView;
     @FXML private VBox rootInfoPane;
     @FXML private Label lblRootInfo;
+    @FXML private Label lblPageInfo;
+    @FXML private Button btnLoadMore;
+
+    // Roots are listed one page at a time, filtered by letter prefix
+    private static final int PAGE_SIZE = 100;
+    private String currentPrefix = "";
 
     private RootService rootService;
     private PatternService patternService;
+    private DataReloadService dataReloadService;
     private Runnable statusUpdater;
     private ObservableList<String> rootItems;
 
@@ -33,9 +42,11 @@ public class RootManagementController {
         txtSearchRoot.textProperty().addListener((obs, old, newVal) -> filterRoots(newVal));
     }
 
-    public void setServices(RootService rootService, PatternService patternService, Runnable statusUpdater) {
+    public void setServices(RootService rootService, PatternService patternService,
+                            DataReloadService dataReloadService, Runnable statusUpdater) {
         this.rootService = rootService;
         this.patternService = patternService;
+        this.dataReloadService = dataReloadService;
         this.statusUpdater = statusUpdater;
         refreshRootList();
     }
@@ -52,7 +63,13 @@ public class RootManagementController {
         if (file != null) {
             try {
                 int count = rootService.loadRootsFromFile(file.getAbsolutePath());
-                showInfo("تم تحميل " + count + " جذر بنجاح");
+                ChunkedRootLoader.Result load = rootService.getLastLoad();
+                String skipped = load.getSkippedLines() > 0
+                        ? "\nأسطر غير صالحة: " + load.getSkippedLines() : "";
+                // Later edits to the file are applied without importing it again
+                dataReloadService.watchRoots(file.toPath(), load.getRoots());
+                showInfo(String.format("تم تحميل %d جذر بنجاح (%.1f MB/s)%s\nسيتم تطبيق تعديلات الملف تلقائياً", count,
+                        load.getMegabytesPerSecond(), skipped));
                 refreshRootList();
                 statusUpdater.run();
             } catch (Exception e) {
@@ -141,25 +158,30 @@ public class RootManagementController {
 
     private void refreshRootList() {
         rootItems.clear();
-        if (rootService != null) {
-            for (Root root : rootService.getAllRoots()) {
-                rootItems.add(root.getRootLetters());
-            }
-        }
+        loadNextPage();
     }
 
     private void filterRoots(String filter) {
-        if (filter == null || filter.isEmpty()) {
-            refreshRootList();
+        currentPrefix = filter == null ? "" : filter.trim();
+        refreshRootList();
+    }
+
+    /** Appends the next page of roots matching the current prefix. */
+    @FXML
+    private void loadMoreRoots() {
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        if (rootService == null) {
             return;
         }
-
-        rootItems.clear();
-        for (Root root : rootService.getAllRoots()) {
-            if (root.getRootLetters().contains(filter)) {
-                rootItems.add(root.getRootLetters());
-            }
+        for (Root root : rootService.findRootsByPrefix(currentPrefix, rootItems.size(), PAGE_SIZE)) {
+            rootItems.add(root.getRootLetters());
         }
+        int total = rootService.countRootsByPrefix(currentPrefix);
+        lblPageInfo.setText("عرض " + rootItems.size() + " من " + total);
+        btnLoadMore.setDisable(rootItems.size() >= total);
     }
 
     private void showRootDetails(Root root) {
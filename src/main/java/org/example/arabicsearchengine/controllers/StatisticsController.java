@@ -1,7 +1,10 @@
 package org.example.arabicsearchengine.controllers;
 
 import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
@@ -10,14 +13,23 @@ import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
+import org.example.arabicsearchengine.datastructures.hashtable.HashTableStats;
+import org.example.arabicsearchengine.datastructures.sketch.SpaceSaving;
 import org.example.arabicsearchengine.datastructures.tree.AVLNode;
 import org.example.arabicsearchengine.datastructures.tree.AVLTree;
 import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.services.FrequencyAnalyticsService;
+import org.example.arabicsearchengine.services.PatternService;
 import org.example.arabicsearchengine.services.RootService;
 
+import java.util.List;
+
 /**
  * Controller for the Statistics view.
- * Visualises the AVL tree that stores the Arabic roots.
+ * Visualises the AVL tree that stores the Arabic roots, shows the health
+ * metrics of the hash table that stores the patterns, and lists the most
+ * frequent words, roots and patterns.
  */
 public class StatisticsController {
 
@@ -27,7 +39,27 @@ public class StatisticsController {
     @FXML private ScrollPane treeScrollPane;
     @FXML private Pane treeCanvas;
 
+    // Pattern hash table metrics
+    @FXML private Label lblHashStorage;
+    @FXML private Label lblHashSize;
+    @FXML private Label lblHashLoad;
+    @FXML private Label lblHashMaxChain;
+    @FXML private Label lblHashProbe;
+    @FXML private Label lblHashResizes;
+    @FXML private Label lblHashCollisions;
+    @FXML private BarChart<String, Number> chainChart;
+
+    // Most frequent words, roots and patterns
+    @FXML private Label lblTopTotal;
+    @FXML private ListView<String> lvTopWords;
+    @FXML private ListView<String> lvTopRoots;
+    @FXML private ListView<String> lvTopPatterns;
+
     private RootService rootService;
+    private PatternService patternService;
+    private FrequencyAnalyticsService frequencyAnalytics;
+
+    private static final int TOP_ENTRIES = 50;
 
     // Drawing constants
     private static final double NODE_RADIUS = 28;
@@ -38,17 +70,72 @@ public class StatisticsController {
     private static final Color LINE_COLOR = Color.web("#B8936A");
     private static final Color TEXT_COLOR = Color.WHITE;
 
-    public void setServices(RootService rootService) {
+    public void setServices(RootService rootService, PatternService patternService,
+                            FrequencyAnalyticsService frequencyAnalytics) {
         this.rootService = rootService;
+        this.patternService = patternService;
+        this.frequencyAnalytics = frequencyAnalytics;
         drawTree();
+        showHashStats();
+        showTopFrequencies();
     }
 
     /**
-     * Redraws the tree visualisation from scratch.
+     * Redraws the tree visualisation from scratch and reloads the hash table
+     * metrics and the frequency rankings.
      */
     @FXML
     private void refreshTree() {
         drawTree();
+        showHashStats();
+        showTopFrequencies();
+    }
+
+    private void showTopFrequencies() {
+        if (frequencyAnalytics == null) {
+            lblTopTotal.setText("غير مفعّل");
+            return;
+        }
+        lblTopTotal.setText("(" + frequencyAnalytics.getTotal() + " تكرار)");
+        lvTopWords.getItems().setAll(format(frequencyAnalytics.getTopWords(TOP_ENTRIES)));
+        lvTopRoots.getItems().setAll(format(frequencyAnalytics.getTopRoots(TOP_ENTRIES)));
+        lvTopPatterns.getItems().setAll(format(frequencyAnalytics.getTopPatterns(TOP_ENTRIES)));
+    }
+
+    private static List<String> format(List<SpaceSaving.Entry<String>> entries) {
+        return entries.stream()
+                .map(entry -> entry.getKey() + "  —  " + entry.getCount()
+                        + (entry.getError() > 0 ? " (±" + entry.getError() + ")" : ""))
+                .toList();
+    }
+
+    private void showHashStats() {
+        if (patternService == null) {
+            return;
+        }
+        PatternRepository repository = patternService.getRepository();
+        HashTableStats stats = repository.getStats();
+
+        lblHashStorage.setText(repository.getStorageType()
+                + (repository.isFrozen() ? " — مجمّد (تجزئة مثالية)" : ""));
+        lblHashSize.setText(stats.getSize() + " / " + stats.getCapacity());
+        lblHashLoad.setText(String.format("%.2f", stats.getLoadFactor()));
+        lblHashMaxChain.setText(String.valueOf(stats.getMaxChainLength()));
+        lblHashProbe.setText(String.format("%.2f", stats.getAverageProbeLength()));
+        lblHashResizes.setText(stats.getResizeCount()
+                + String.format(" (%.2f ms)", stats.getResizeNanos() / 1_000_000.0));
+        lblHashCollisions.setText(String.format("%.2f / %.2f / %.2f",
+                stats.getPuts().getCollisionsPerOperation(),
+                stats.getGets().getCollisionsPerOperation(),
+                stats.getRemoves().getCollisionsPerOperation()));
+
+        // One bar per chain length: how many buckets have that many entries
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        int[] chainLengths = stats.getChainLengths();
+        for (int length = 0; length < chainLengths.length; length++) {
+            series.getData().add(new XYChart.Data<>(String.valueOf(length), chainLengths[length]));
+        }
+        chainChart.getData().setAll(List.of(series));
     }
 
     private void drawTree() {
@@ -61,6 +148,15 @@ public class StatisticsController {
 
         AVLTree<Root> tree = rootService.getRepository().getTree();
 
+        if (tree == null && !rootService.getRepository().isEmpty()) {
+            int height = rootService.getRepository().getTreeHeight();
+            lblTreeHeight.setText(height > 0 ? String.valueOf(height) : "-");
+            lblNodeCount.setText(String.valueOf(rootService.getRootCount()));
+            lblStatus.setText("نوع التخزين الحالي (" + rootService.getRepository().getStorageType()
+                    + ") لا يدعم رسم الشجرة");
+            return;
+        }
+
         if (tree == null || tree.isEmpty()) {
             lblTreeHeight.setText("0");
             lblNodeCount.setText("0");
@@ -6,17 +6,14 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
-import javafx.stage.FileChooser;
 import org.example.arabicsearchengine.models.DerivedWord;
 import org.example.arabicsearchengine.models.Pattern;
 import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.services.ExportService;
 import org.example.arabicsearchengine.services.MorphologyService;
 import org.example.arabicsearchengine.services.PatternService;
 import org.example.arabicsearchengine.services.RootService;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
 import java.util.List;
 
 public class WordGenerationController {
@@ -31,10 +28,13 @@ public class WordGenerationController {
     @FXML private TableColumn<DerivedWord, String> colPattern;
     @FXML private TableColumn<DerivedWord, String> colDerivedWord;
     @FXML private TableColumn<DerivedWord, String> colPatternDesc;
+    @FXML private Button btnExport;
 
     private RootService rootService;
     private PatternService patternService;
     private MorphologyService morphologyService;
+    private ExportService exportService;
+    private ExportRunner exportRunner;
     private ObservableList<DerivedWord> derivativeItems;
 
     @FXML
@@ -54,6 +54,8 @@ public class WordGenerationController {
         this.rootService = rootService;
         this.patternService = patternService;
         this.morphologyService = morphologyService;
+        this.exportService = new ExportService(rootService, morphologyService);
+        this.exportRunner = new ExportRunner(btnExport);
 
         // Populate pattern dropdown
         ObservableList<String> patternIds = FXCollections.observableArrayList();
@@ -168,29 +170,9 @@ public class WordGenerationController {
             showError("لا توجد نتائج للتصدير");
             return;
         }
-
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("حفظ النتائج");
-        fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("Text Files", "*.txt")
-        );
-        fileChooser.setInitialFileName("derivatives.txt");
-
-        File file = fileChooser.showSaveDialog(derivativesTable.getScene().getWindow());
-        if (file != null) {
-            try (PrintWriter writer = new PrintWriter(new FileWriter(file, java.nio.charset.StandardCharsets.UTF_8))) {
-                writer.println("العائلة الصرفية للجذر: " + txtRoot.getText());
-                writer.println("=".repeat(40));
-
-                for (DerivedWord word : derivativeItems) {
-                    writer.println(word.getPattern().getPatternId() + " → " + word.getWord());
-                }
-
-                showInfo("تم حفظ النتائج بنجاح");
-            } catch (Exception e) {
-                showError("خطأ في الحفظ: " + e.getMessage());
-            }
-        }
+        Root root = derivativeItems.get(0).getRoot();
+        exportRunner.exportOrCancel("derivatives_" + root.getRootLetters(),
+                (target, format, progress) -> exportService.start(target, format, List.of(root), 1, progress));
     }
 
     private void showInfo(String message) {
@@ -0,0 +1,278 @@
+package org.example.arabicsearchengine.datastructures.direct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Direct-address table: values are stored in a flat array indexed by a small int key.
+ * Suited to bounded key spaces such as packed triliteral root codes.
+ * get, put and remove are single array accesses; an occupancy bitmap gives
+ * fast iteration in ascending key order, and per-block counts of the bitmap
+ * answer rank and select queries in at most a few hundred word operations.
+ *
+ * @param <V> Value type
+ */
+public class DirectAddressTable<V> implements Iterable<V> {
+
+    // Keys per counted block: 4096 keys = 64 bitmap words
+    private static final int BLOCK_SHIFT = 12;
+    private static final int WORDS_PER_BLOCK = 1 << (BLOCK_SHIFT - 6);
+
+    private final Object[] slots;
+    private final long[] occupied;
+    private final int[] blockCounts;
+    private int size;
+
+    /**
+     * @param capacity Size of the key space; keys must be in [0, capacity)
+     */
+    public DirectAddressTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slots = new Object[capacity];
+        this.occupied = new long[(capacity + 63) >>> 6];
+        this.blockCounts = new int[(capacity + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT];
+        this.size = 0;
+    }
+
+    //  ---- Getters ----
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    //  ---- Core Operations ----
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key < 0 || key >= slots.length) {
+            return null;
+        }
+        return (V) slots[key];
+    }
+
+    public boolean contains(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores value under key, replacing any previous value.
+     *
+     * @return true if the key was not present before
+     */
+    public boolean put(int key, V value) {
+        if (key < 0 || key >= slots.length) {
+            throw new IllegalArgumentException("Key out of range: " + key);
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        boolean added = slots[key] == null;
+        slots[key] = value;
+        if (added) {
+            occupied[key >>> 6] |= 1L << key;
+            blockCounts[key >>> BLOCK_SHIFT]++;
+            size++;
+        }
+        return added;
+    }
+
+    /** Removes and returns the value stored under key, or null. */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key < 0 || key >= slots.length || slots[key] == null) {
+            return null;
+        }
+        V old = (V) slots[key];
+        slots[key] = null;
+        occupied[key >>> 6] &= ~(1L << key);
+        blockCounts[key >>> BLOCK_SHIFT]--;
+        size--;
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, null);
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(blockCounts, 0);
+        size = 0;
+    }
+
+    /**
+     * Returns the smallest occupied key greater than or equal to from, or -1.
+     */
+    public int nextKey(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= slots.length) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == occupied.length) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+    }
+
+    //  ---- Rank / select ----
+
+    /** Returns the number of occupied keys strictly less than key. */
+    public int rank(int key) {
+        if (key <= 0) {
+            return 0;
+        }
+        if (key >= slots.length) {
+            return size;
+        }
+        int block = key >>> BLOCK_SHIFT;
+        int rank = 0;
+        for (int b = 0; b < block; b++) {
+            rank += blockCounts[b];
+        }
+        int word = key >>> 6;
+        for (int w = block * WORDS_PER_BLOCK; w < word; w++) {
+            rank += Long.bitCount(occupied[w]);
+        }
+        return rank + Long.bitCount(occupied[word] & ((1L << key) - 1));
+    }
+
+    /**
+     * Returns the k-th smallest occupied key (0-based).
+     *
+     * @throws IndexOutOfBoundsException if k is not in [0, size)
+     */
+    public int selectKey(int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of range for size " + size);
+        }
+        int block = 0;
+        while (k >= blockCounts[block]) {
+            k -= blockCounts[block++];
+        }
+        int word = block * WORDS_PER_BLOCK;
+        while (k >= Long.bitCount(occupied[word])) {
+            k -= Long.bitCount(occupied[word++]);
+        }
+        long bits = occupied[word];
+        for (; k > 0; k--) {
+            bits &= bits - 1;   // Clear the lowest set bit
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    //  ---- Iteration (ascending key order) ----
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            private int next = nextKey(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public V next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                V value = get(next);
+                next = nextKey(next + 1);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator in ascending key order that splits the key range in halves.
+     * Sizes stay exact across splits thanks to rank().
+     */
+    @Override
+    public Spliterator<V> spliterator() {
+        return new RangeSpliterator(0, slots.length, size);
+    }
+
+    private final class RangeSpliterator implements Spliterator<V> {
+        private int from;
+        private final int to;
+        private long remaining;
+
+        RangeSpliterator(int from, int to, long remaining) {
+            this.from = from;
+            this.to = to;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            int mid = (from + to) >>> 1;
+            if (to - from < 128) {
+                return null;
+            }
+            int prefixCount = rank(mid) - rank(from);
+            Spliterator<V> prefix = new RangeSpliterator(from, mid, prefixCount);
+            from = mid;
+            remaining -= prefixCount;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            int key = nextKey(from);
+            if (key < 0 || key >= to) {
+                from = to;
+                return false;
+            }
+            from = key + 1;
+            remaining--;
+            action.accept(get(key));
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | SIZED | SUBSIZED;
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<? super V> action) {
+        for (int key = nextKey(0); key >= 0; key = nextKey(key + 1)) {
+            action.accept(get(key));
+        }
+    }
+
+    /** Returns all values in ascending key order. */
+    public List<V> values() {
+        List<V> list = new ArrayList<>(size);
+        forEach(list::add);
+        return list;
+    }
+}
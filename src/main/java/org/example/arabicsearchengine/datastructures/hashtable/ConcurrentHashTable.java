@@ -0,0 +1,407 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe chained hash table.
+ * Writers lock one stripe, which guards every bucket whose index is equal modulo
+ * the stripe count. Readers take no lock: bucket heads are read through an
+ * AtomicReferenceArray, and node links and values are volatile, so a get sees
+ * fully built nodes.
+ * Resizing is cooperative. The thread that crosses the load threshold allocates
+ * a doubled table. Any thread that later writes to the table claims ranges of old
+ * buckets and copies them over. A moved bucket is replaced by a forwarding node
+ * that sends readers and writers to the new table.
+ * Capacities are powers of two, never smaller than the stripe count, so old
+ * bucket i and its new buckets i and i + n share a stripe lock.
+ *
+ * @param <K> Key type (typically String for pattern IDs)
+ * @param <V> Value type (typically Pattern objects)
+ */
+public class ConcurrentHashTable<K, V> implements SymbolTable<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_STRIPES = 32;
+    private static final double LOAD_FACTOR_THRESHOLD = 0.75;
+    // Buckets claimed at a time by a thread helping a resize
+    private static final int TRANSFER_STRIDE = 16;
+    private static final int MOVED = -1;
+
+    /** Chain node; key and hash are fixed, value and link are published through volatile writes. */
+    private static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** Head of a bucket that has been moved to the next table. */
+    private static final class ForwardingNode<K, V> extends Node<K, V> {
+        final AtomicReferenceArray<Node<K, V>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * Current table plus the resize in progress, swapped as one value so a resize
+     * can never be started against a table that has already been replaced.
+     */
+    private static final class State<K, V> {
+        final AtomicReferenceArray<Node<K, V>> table;
+        final Resize<K, V> resize;
+
+        State(AtomicReferenceArray<Node<K, V>> table, Resize<K, V> resize) {
+            this.table = table;
+            this.resize = resize;
+        }
+    }
+
+    /** State of one resize, shared by all threads helping with it. */
+    private static final class Resize<K, V> {
+        final AtomicReferenceArray<Node<K, V>> from;
+        final AtomicReferenceArray<Node<K, V>> to;
+        final AtomicInteger transferIndex;   // Buckets [0, transferIndex) are not claimed yet
+        final AtomicInteger moved = new AtomicInteger();
+
+        Resize(AtomicReferenceArray<Node<K, V>> from) {
+            this.from = from;
+            this.to = new AtomicReferenceArray<>(from.length() * 2);
+            this.transferIndex = new AtomicInteger(from.length());
+        }
+    }
+
+    private final AtomicReference<State<K, V>> state;
+    private final Object[] locks;
+    private final LongAdder size = new LongAdder();
+    // Counters reported by getStats; operations are not counted, to keep writers uncontended
+    private final LongAdder resizes = new LongAdder();
+    private final LongAdder resizeNanos = new LongAdder();
+
+    public ConcurrentHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity Rounded up to the next power of two
+     */
+    public ConcurrentHashTable(int initialCapacity) {
+        int capacity = Math.max(2, Integer.highestOneBit(Math.max(1, initialCapacity) * 2 - 1));
+        this.state = new AtomicReference<>(new State<>(new AtomicReferenceArray<>(capacity), null));
+        this.locks = new Object[Math.min(MAX_STRIPES, capacity)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private Object lockFor(int index) {
+        return locks[index & (locks.length - 1)];
+    }
+
+    //  ---- Getters ----
+
+    public int getSize() {
+        return (int) size.sum();
+    }
+
+    public int getCapacity() {
+        return state.get().table.length();
+    }
+
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    //  ---- Core Operations ----
+
+    /** Lock-free lookup; follows forwarding nodes into newer tables. */
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = HashFunction.hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = state.get().table;
+        while (true) {
+            Node<K, V> node = tab.get(HashFunction.indexFor(hash, tab.length()));
+            if (node instanceof ForwardingNode<K, V> forwarding) {
+                tab = forwarding.nextTable;
+                continue;
+            }
+            for (; node != null; node = node.next) {
+                if (node.hash == hash && key.equals(node.key)) {
+                    return node.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        int hash = HashFunction.hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = state.get().table;
+        boolean collided = false;
+        while (true) {
+            int index = HashFunction.indexFor(hash, tab.length());
+            AtomicReferenceArray<Node<K, V>> forwardedTo = null;
+            synchronized (lockFor(index)) {
+                Node<K, V> head = tab.get(index);
+                if (head instanceof ForwardingNode<K, V> forwarding) {
+                    forwardedTo = forwarding.nextTable;
+                } else {
+                    for (Node<K, V> node = head; node != null; node = node.next) {
+                        if (node.hash == hash && key.equals(node.key)) {
+                            node.value = value;
+                            return;
+                        }
+                    }
+                    // Fully built before the volatile store makes it reachable
+                    tab.set(index, new Node<>(hash, key, value, head));
+                    collided = head != null;
+                }
+            }
+            if (forwardedTo == null) {
+                break;
+            }
+            helpResize();
+            tab = forwardedTo;
+        }
+        size.increment();
+        // Collisions become common as the load grows, so they are a cheap trigger to check it
+        if (collided || state.get().resize != null) {
+            maybeResize();
+        }
+    }
+
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = HashFunction.hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = state.get().table;
+        while (true) {
+            int index = HashFunction.indexFor(hash, tab.length());
+            AtomicReferenceArray<Node<K, V>> forwardedTo = null;
+            synchronized (lockFor(index)) {
+                Node<K, V> head = tab.get(index);
+                if (head instanceof ForwardingNode<K, V> forwarding) {
+                    forwardedTo = forwarding.nextTable;
+                } else {
+                    Node<K, V> prev = null;
+                    for (Node<K, V> node = head; node != null; prev = node, node = node.next) {
+                        if (node.hash == hash && key.equals(node.key)) {
+                            // Readers already on node still reach the rest of the chain
+                            if (prev == null) {
+                                tab.set(index, node.next);
+                            } else {
+                                prev.next = node.next;
+                            }
+                            size.decrement();
+                            return node.value;
+                        }
+                    }
+                    return null;
+                }
+            }
+            helpResize();
+            tab = forwardedTo;
+        }
+    }
+
+    public boolean contains(K key) {
+        return get(key) != null;
+    }
+
+    //  ---- Cooperative resize ----
+
+    private void maybeResize() {
+        State<K, V> current = state.get();
+        if (current.resize == null && size.sum() >= current.table.length() * LOAD_FACTOR_THRESHOLD) {
+            // Only one thread wins; the others just help below
+            if (state.compareAndSet(current, new State<>(current.table, new Resize<>(current.table)))) {
+                resizes.increment();
+            }
+        }
+        helpResize();
+    }
+
+    /** Moves unclaimed bucket ranges of the running resize, if any. */
+    private void helpResize() {
+        Resize<K, V> resize = state.get().resize;
+        if (resize == null) {
+            return;
+        }
+        int oldCapacity = resize.from.length();
+        while (true) {
+            int end = resize.transferIndex.get();
+            if (end <= 0) {
+                return;
+            }
+            int start = Math.max(0, end - TRANSFER_STRIDE);
+            if (!resize.transferIndex.compareAndSet(end, start)) {
+                continue;
+            }
+            long started = System.nanoTime();
+            for (int i = start; i < end; i++) {
+                transferBucket(resize, i);
+            }
+            resizeNanos.add(System.nanoTime() - started);
+            if (resize.moved.addAndGet(end - start) == oldCapacity) {
+                // Last range moved: publish the new table and allow the next resize
+                state.set(new State<>(resize.to, null));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Copies old bucket i into new buckets i and i + n under the shared stripe lock.
+     * Nodes are copied rather than relinked, so readers still walking the old
+     * chain see it intact.
+     */
+    private void transferBucket(Resize<K, V> resize, int i) {
+        int oldCapacity = resize.from.length();
+        synchronized (lockFor(i)) {
+            Node<K, V> lo = null;
+            Node<K, V> hi = null;
+            for (Node<K, V> node = resize.from.get(i); node != null; node = node.next) {
+                if ((node.hash & oldCapacity) == 0) {
+                    lo = new Node<>(node.hash, node.key, node.value, lo);
+                } else {
+                    hi = new Node<>(node.hash, node.key, node.value, hi);
+                }
+            }
+            resize.to.set(i, lo);
+            resize.to.set(i + oldCapacity, hi);
+            resize.from.set(i, new ForwardingNode<>(resize.to));
+        }
+    }
+
+    /** Removes all entries; waits for any running resize to finish first. */
+    public void clear() {
+        while (state.get().resize != null) {
+            helpResize();
+            Thread.onSpinWait();
+        }
+        AtomicReferenceArray<Node<K, V>> tab = state.get().table;
+        for (int i = 0; i < tab.length(); i++) {
+            synchronized (lockFor(i)) {
+                for (Node<K, V> node = tab.get(i); node != null && !(node instanceof ForwardingNode); node = node.next) {
+                    size.decrement();
+                }
+                if (!(tab.get(i) instanceof ForwardingNode)) {
+                    tab.set(i, null);
+                }
+            }
+        }
+    }
+
+    //  -- Utility Functions
+
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    public double getLoadFactor() {
+        return (double) getSize() / getCapacity();
+    }
+
+    /** Visits every entry; weakly consistent with concurrent writes, never blocks them. */
+    private void forEachNode(Consumer<Node<K, V>> action) {
+        AtomicReferenceArray<Node<K, V>> tab = state.get().table;
+        for (int i = 0; i < tab.length(); i++) {
+            visitBucket(tab, i, action);
+        }
+    }
+
+    private void visitBucket(AtomicReferenceArray<Node<K, V>> tab, int i, Consumer<Node<K, V>> action) {
+        visitChains(tab, i, (head, length) -> {
+            for (Node<K, V> node = head; node != null; node = node.next) {
+                action.accept(node);
+            }
+        });
+    }
+
+    /** Passes each chain reached from bucket i, with its head, to action. */
+    private void visitChains(AtomicReferenceArray<Node<K, V>> tab, int i, BiConsumer<Node<K, V>, Integer> action) {
+        Node<K, V> head = tab.get(i);
+        if (head instanceof ForwardingNode<K, V> forwarding) {
+            visitChains(forwarding.nextTable, i, action);
+            visitChains(forwarding.nextTable, i + tab.length(), action);
+            return;
+        }
+        int length = 0;
+        for (Node<K, V> node = head; node != null; node = node.next) {
+            length++;
+        }
+        action.accept(head, length);
+    }
+
+    /**
+     * Chain lengths are read without locks, so they are approximate under
+     * concurrent writes. Resize time is the time threads spent moving buckets.
+     */
+    public HashTableStats getStats() {
+        int[][] chainLengths = {new int[8]};
+        long[] probes = {0};
+        AtomicReferenceArray<Node<K, V>> tab = state.get().table;
+        for (int i = 0; i < tab.length(); i++) {
+            visitChains(tab, i, (head, length) -> {
+                probes[0] += (long) length * (length + 1) / 2;
+                chainLengths[0] = HashTableStats.count(chainLengths[0], length);
+            });
+        }
+        int entries = getSize();
+        return new HashTableStats(entries, getCapacity(), HashTableStats.trim(chainLengths[0]),
+                entries == 0 ? 0.0 : (double) probes[0] / entries, resizes.intValue(), resizeNanos.sum(),
+                HashTableStats.UNTRACKED, HashTableStats.UNTRACKED, HashTableStats.UNTRACKED);
+    }
+
+    /**
+     * Prints table statistics for debugging.
+     */
+    public void printStats() {
+        System.out.println("=== Concurrent Hash Table Statistics ===");
+        System.out.println("Size: " + getSize());
+        System.out.println("Capacity: " + getCapacity());
+        System.out.println("Lock Stripes: " + locks.length);
+        System.out.println("Load Factor: " + String.format("%.2f", getLoadFactor()));
+        System.out.println("Resizing: " + (state.get().resize != null));
+    }
+
+    /**
+     * Returns all keys in the table.
+     */
+    public List<K> keys() {
+        List<K> keyList = new ArrayList<>();
+        forEachNode(node -> keyList.add(node.key));
+        return keyList;
+    }
+
+    /**
+     * Returns all values in the table.
+     */
+    public List<V> values() {
+        List<V> valueList = new ArrayList<>();
+        forEachNode(node -> valueList.add(node.value));
+        return valueList;
+    }
+}
@@ -3,11 +3,62 @@ package org.example.arabicsearchengine.datastructures.hashtable;
 /**
  * Custom hash function optimized for Arabic text.
  * Handles Unicode characters in the Arabic Unicode block (U+0600 to U+06FF).
+ * hash(key, tableSize) and hash2 reduce modulo a (prime) table size for double hashing;
+ * hash(key) and mix give a full 32-bit hash for power-of-two tables, where the
+ * index is taken with a bit mask.
  */
 public class HashFunction {
 
     private static final int PRIME = 31;
 
+    /**
+     * Full 32-bit polynomial hash (base 31, no modulo), spread with mix.
+     * Strings use their cached String.hashCode, which is the same polynomial;
+     * other keys use their own hashCode.
+     */
+    public static int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        if (key instanceof String || !(key instanceof CharSequence chars)) {
+            return mix(key.hashCode());
+        }
+        int hash = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            hash = hash * PRIME + chars.charAt(i);
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Avalanches all 32 bits (MurmurHash3 finaliser), so the low bits used as a
+     * power-of-two index depend on every character. Arabic letters share their
+     * high byte (U+06xx), which otherwise leaves the low bits poorly spread.
+     */
+    public static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /** 64-bit counterpart of mix (MurmurHash3 fmix64), for hashes that need more than 32 bits. */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** Returns the bucket of a mixed hash in a table of power-of-two capacity. */
+    public static int indexFor(int hash, int capacity) {
+        return hash & (capacity - 1);
+    }
+
     public static int hash(String key,int tableSize){
         if( key == null || key.isEmpty()){
             return 0;
@@ -6,16 +6,26 @@ package org.example.arabicsearchengine.datastructures.hashtable;
  * @param <V> Value type
  */
 public class HashNode<K, V> {
+    final int hash;     // Cached HashFunction.hash(key), reused on lookup and resize
     final K key;
     private V value;
     private HashNode<K, V> next;
 
     public HashNode(K key, V value) {
+        this(HashFunction.hash(key), key, value);
+    }
+
+    public HashNode(int hash, K key, V value) {
+        this.hash = hash;
         this.key = key;
         this.value = value;
         this.next = null;
     }
 
+    public int getHash() {
+        return hash;
+    }
+
     public K getKey() {
         return key;
     }
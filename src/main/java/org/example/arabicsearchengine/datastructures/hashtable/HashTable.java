@@ -1,34 +1,85 @@
 package org.example.arabicsearchengine.datastructures.hashtable;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Custom Hash Table implementation for storing Arabic morphological patterns.
- * Uses chaining for collision resolution.
+ * Uses chaining for collision resolution. Capacities are powers of two: a bucket
+ * is the mixed 32-bit hash masked to the table size, and every node caches its
+ * hash so lookups compare hashes before keys and resizing never rehashes a key.
+ * In incremental resize mode, growing only allocates the new bucket array; the
+ * old buckets are then moved a few at a time by later puts and removes, so no
+ * single put pays for the whole table.
+ * get and contains never modify the table, so any number of threads may read
+ * at once; puts, removes and walks need external synchronization against them.
+ * Values can be walked in place with iterator, forEach and spliterator; unlike
+ * keys() and values() these copy nothing.
  * 
  * @param <K> Key type (typically String for pattern IDs)
  * @param <V> Value type (typically Pattern objects)
  */
-public class HashTable<K, V> {
+public class HashTable<K, V> implements SymbolTable<K, V>, Iterable<V> {
 
     private static final int DEFAULT_CAPACITY = 16;
     private static final double LOAD_FACTOR_THRESHOLD = 0.75;
+    // Old buckets moved per put or remove while an incremental resize is running.
+    // The table is at most 3/8 full after doubling, so migration always ends
+    // well before the next resize is due.
+    private static final int MIGRATION_STEP = 4;
 
     private HashNode<K, V>[] buckets;
     private int size;
     private int capacity;
+    private final boolean incrementalResize;
+    private HashNode<K, V>[] migrating;    // Previous bucket array during an incremental resize
+    private int migrated;                   // Buckets of migrating already moved
+    private int modCount;                   // Entries added or removed, or a resize; checked by iterators
+
+    // Counters reported by getStats
+    private int resizeCount;
+    private long resizeNanos;
+    private final OperationCounter puts = new OperationCounter();
+    private final LongAdder gets = new LongAdder();            // Updated by concurrent readers
+    private final LongAdder getCollisions = new LongAdder();
+    private final OperationCounter removes = new OperationCounter();
 
     public HashTable() {
-        this.capacity = DEFAULT_CAPACITY;
-        this.buckets = new HashNode[capacity];
-        this.size = 0;
+        this(DEFAULT_CAPACITY, false);
     }
 
+    /**
+     * @param initialCapacity Rounded up to the next power of two
+     */
     public HashTable(int initialCapacity) {
-        this.capacity = initialCapacity;
+        this(initialCapacity, false);
+    }
+
+    /**
+     * @param initialCapacity   Rounded up to the next power of two
+     * @param incrementalResize Spread each resize over later operations instead of one put
+     */
+    public HashTable(int initialCapacity, boolean incrementalResize) {
+        this.capacity = tableSizeFor(initialCapacity);
         this.buckets = new HashNode[capacity];
         this.size = 0;
+        this.incrementalResize = incrementalResize;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        if (capacity <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
     }
     //  ---- Getters and setters ----
 
@@ -48,10 +99,29 @@ public class HashTable<K, V> {
         this.capacity = capacity;
     }
 
+    public boolean isIncrementalResize() {
+        return incrementalResize;
+    }
+
+    /** Checks if an incremental resize is still moving buckets. */
+    public boolean isResizing() {
+        return migrating != null;
+    }
+
     //  ---- Core Operations ----
     public int getIndex(K key) {
-        String keyStr = key.toString();
-        return HashFunction.hash(keyStr,capacity);
+        return HashFunction.indexFor(HashFunction.hash(key), buckets.length);
+    }
+
+    /**
+     * Returns the bucket array holding hash. Each key lives in exactly one place:
+     * the old array while its old bucket has not been moved yet, the new one after.
+     */
+    private HashNode<K, V>[] tableFor(int hash) {
+        if (migrating != null && HashFunction.indexFor(hash, migrating.length) >= migrated) {
+            return migrating;
+        }
+        return buckets;
     }
 
     public void put(K key,V value){
@@ -59,26 +129,32 @@ public class HashTable<K, V> {
             throw new IllegalArgumentException("Key cannot be null");
         }
 
+        migrateStep();
         if(getLoadFactor() >= LOAD_FACTOR_THRESHOLD) {
             resize();
         }
 
-        int index = getIndex(key);
-        HashNode<K, V> head = buckets[index];
+        int hash = HashFunction.hash(key);
+        HashNode<K, V>[] table = tableFor(hash);
+        int index = HashFunction.indexFor(hash, table.length);
+        HashNode<K, V> head = table[index];
         HashNode<K, V> node = head;
 
+        puts.count++;
         while(node != null){
-            if(key.equals(node.getKey())){
+            if(node.hash == hash && key.equals(node.getKey())){
                 node.setValue(value);
                 return;
             }
+            puts.collisions++;
             node = node.getNext();
         }
 
-        HashNode<K,V> newNode = new HashNode<>(key, value);
+        HashNode<K,V> newNode = new HashNode<>(hash, key, value);
         newNode.setNext(head);
-        buckets[index] = newNode;
+        table[index] = newNode;
         size++;
+        modCount++;
     }
 
     public V get(K key){
@@ -86,15 +162,23 @@ public class HashTable<K, V> {
             return null;
         }
 
-        int index = getIndex(key);
-        HashNode<K, V> node = buckets[index];
+        // A pure read: a pending resize is left to puts and removes
+        int hash = HashFunction.hash(key);
+        HashNode<K, V>[] table = tableFor(hash);
+        HashNode<K, V> node = table[HashFunction.indexFor(hash, table.length)];
+        gets.increment();
+        int collisions = 0;
         while(node != null){
-            if(node.getKey().equals(key)){
-                return node.getValue();
+            if(node.hash == hash && node.getKey().equals(key)){
+                break;
             }
+            collisions++;
             node = node.getNext();
         }
-        return null;
+        if (collisions > 0) {
+            getCollisions.add(collisions);
+        }
+        return node == null ? null : node.getValue();
     }
 
     public V remove(K key){
@@ -102,20 +186,26 @@ public class HashTable<K, V> {
             return null;
         }
 
-        int index = getIndex(key);
-        HashNode<K, V> current = buckets[index];
+        migrateStep();
+        int hash = HashFunction.hash(key);
+        HashNode<K, V>[] table = tableFor(hash);
+        int index = HashFunction.indexFor(hash, table.length);
+        HashNode<K, V> current = table[index];
         HashNode<K, V> prev = null;
 
+        removes.count++;
         while(current != null){
-            if(current.getKey().equals(key)){
+            if(current.hash == hash && current.getKey().equals(key)){
                 if(prev == null){
-                    buckets[index] = current.getNext();
+                    table[index] = current.getNext();
                 }else{
                     prev.setNext(current.getNext());
                 }
                 size--;
+                modCount++;
                 return current.getValue();
             }
+            removes.collisions++;
             prev = current;
             current = current.getNext();
         }
@@ -127,27 +217,100 @@ public class HashTable<K, V> {
         return get(key) != null;
     }
 
+    /**
+     * Doubles the table. In incremental mode only the new array is allocated here
+     * and the buckets are moved by later puts and removes; otherwise all are moved now.
+     */
     private void resize() {
-        int newCapacity = capacity * 2;
-        HashNode<K, V>[] oldBuckets = buckets;
+        long start = System.nanoTime();
+        if (migrating != null) {
+            migrateBuckets(Integer.MAX_VALUE);
+        }
+        migrating = buckets;
+        migrated = 0;
+        modCount++;
+        resizeCount++;
+        buckets = new HashNode[migrating.length * 2];
+        capacity = buckets.length;
+        if (!incrementalResize) {
+            migrateBuckets(Integer.MAX_VALUE);
+        }
+        resizeNanos += System.nanoTime() - start;
+    }
 
-        buckets = new HashNode[newCapacity];
-        capacity = newCapacity;
-        size = 0;
+    private void migrateStep() {
+        if (migrating != null) {
+            long start = System.nanoTime();
+            migrateBuckets(MIGRATION_STEP);
+            resizeNanos += System.nanoTime() - start;
+        }
+    }
 
-        // Rehash all existing entries
-        for (HashNode<K, V> head : oldBuckets) {
-            HashNode<K, V> current = head;
-            while (current != null) {
-                put(current.key, current.getValue());
-                current = current.getNext();
+    /**
+     * Moves every remaining old bucket. Walks call this first, so they only
+     * have to cover the new bucket array.
+     */
+    private void finishMigration() {
+        if (migrating != null) {
+            long start = System.nanoTime();
+            migrateBuckets(Integer.MAX_VALUE);
+            resizeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /** Moves up to limit old buckets into the new array, in index order. */
+    private void migrateBuckets(int limit) {
+        int oldCapacity = migrating.length;
+        for (int moved = 0; moved < limit && migrated < oldCapacity; moved++, migrated++) {
+            HashNode<K, V> head = migrating[migrated];
+            if (head != null) {
+                migrating[migrated] = null;
+                splitBucket(head, migrated, oldCapacity);
+            }
+        }
+        if (migrated == oldCapacity) {
+            migrating = null;
+        }
+    }
+
+    /**
+     * With power-of-two capacities, a node of old bucket i moves to either i or
+     * i + oldCapacity, decided by one bit of its cached hash, so each chain is
+     * split in place without rehashing keys or allocating nodes.
+     */
+    private void splitBucket(HashNode<K, V> head, int i, int oldCapacity) {
+        HashNode<K, V> loHead = null, loTail = null;
+        HashNode<K, V> hiHead = null, hiTail = null;
+        for (HashNode<K, V> current = head; current != null; ) {
+            HashNode<K, V> next = current.getNext();
+            current.setNext(null);
+            if ((current.hash & oldCapacity) == 0) {
+                if (loTail == null) {
+                    loHead = current;
+                } else {
+                    loTail.setNext(current);
+                }
+                loTail = current;
+            } else {
+                if (hiTail == null) {
+                    hiHead = current;
+                } else {
+                    hiTail.setNext(current);
+                }
+                hiTail = current;
             }
+            current = next;
         }
+        // Both targets are still empty: keys of an unmoved bucket are always added to the old array
+        buckets[i] = loHead;
+        buckets[i + oldCapacity] = hiHead;
     }
 
     public void clear(){
-        buckets = new HashNode[capacity];
+        buckets = new HashNode[buckets.length];
+        migrating = null;
         size = 0;
+        modCount++;
     }
 
     //  -- Utility Functions
@@ -160,32 +323,185 @@ public class HashTable<K, V> {
         return (double) getSize() / getCapacity();
     }
 
+    /**
+     * Returns chain-length, probe, resize and collision metrics. Buckets not yet
+     * moved by an incremental resize are counted where they sit in the old array.
+     */
+    public HashTableStats getStats() {
+        int[] chainLengths = new int[8];
+        long probes = 0;
+        for (HashNode<K, V>[] table : bucketArrays()) {
+            // Old buckets below migrated have already been moved
+            for (int i = table == migrating ? migrated : 0; i < table.length; i++) {
+                int chainLength = 0;
+                for (HashNode<K, V> node = table[i]; node != null; node = node.getNext()) {
+                    chainLength++;
+                }
+                // The i-th node of a chain is found after i comparisons
+                probes += (long) chainLength * (chainLength + 1) / 2;
+                chainLengths = HashTableStats.count(chainLengths, chainLength);
+            }
+        }
+        return new HashTableStats(size, capacity, HashTableStats.trim(chainLengths),
+                size == 0 ? 0.0 : (double) probes / size, resizeCount, resizeNanos,
+                puts.snapshot(), new HashTableStats.OperationStats(gets.sum(), getCollisions.sum()),
+                removes.snapshot());
+    }
+
     /**
      * Prints table statistics for debugging.
      */
     public void printStats() {
         System.out.println("=== Hash Table Statistics ===");
-        System.out.println("Size: " + size);
-        System.out.println("Capacity: " + capacity);
-        System.out.println("Load Factor: " + String.format("%.2f", getLoadFactor()));
+        if (migrating != null) {
+            System.out.println("Resizing: " + migrated + "/" + migrating.length + " old buckets moved");
+        }
+        System.out.println(getStats());
+    }
 
-        int maxChain = 0;
-        int emptyBuckets = 0;
+    //  ---- In-place iteration ----
+
+    /**
+     * Calls action for every entry without copying. Finishes any incremental
+     * resize first; adding or removing entries from action fails fast.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        finishMigration();
+        int expectedModCount = modCount;
         for (HashNode<K, V> head : buckets) {
-            if (head == null) {
-                emptyBuckets++;
-            } else {
-                int chainLength = 0;
-                HashNode<K, V> current = head;
-                while (current != null) {
-                    chainLength++;
-                    current = current.getNext();
-                }
-                maxChain = Math.max(maxChain, chainLength);
+            for (HashNode<K, V> node = head; node != null; node = node.getNext()) {
+                action.accept(node.key, node.getValue());
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /** Returns an iterator over the values, walking the buckets in place. */
+    @Override
+    public Iterator<V> iterator() {
+        finishMigration();
+        return new ValueIterator();
+    }
+
+    /** Returns a spliterator over the values that splits on bucket ranges. */
+    @Override
+    public Spliterator<V> spliterator() {
+        finishMigration();
+        return new BucketSpliterator(0, buckets.length, size);
+    }
+
+    /** Returns a sequential stream of the values. */
+    public Stream<V> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /** Walks the chains of the bucket array in index order. */
+    private final class ValueIterator implements Iterator<V> {
+        private final HashNode<K, V>[] table = buckets;
+        private final int expectedModCount = modCount;
+        private int nextBucket;
+        private HashNode<K, V> next;
+
+        ValueIterator() {
+            advance();
+        }
+
+        /** Moves next to the head of the next non-empty bucket. */
+        private void advance() {
+            while (next == null && nextBucket < table.length) {
+                next = table[nextBucket++];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public V next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            HashNode<K, V> node = next;
+            next = node.getNext();
+            advance();
+            return node.getValue();
+        }
+    }
+
+    /**
+     * Covers buckets [index, end). Splitting halves the bucket range; the
+     * entry count is only known exactly before the first split.
+     */
+    private final class BucketSpliterator implements Spliterator<V> {
+        private final HashNode<K, V>[] table = buckets;
+        private final int expectedModCount = modCount;
+        private int index;
+        private final int end;
+        private HashNode<K, V> current;     // Next node of a bucket being walked
+        private long estimate;
+        private boolean exact;
+
+        BucketSpliterator(int index, int end, long estimate) {
+            this.index = index;
+            this.end = end;
+            this.estimate = estimate;
+            this.exact = index == 0 && end == table.length;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (current != null || mid <= index) {
+                return null;
             }
+            estimate >>>= 1;
+            exact = false;
+            BucketSpliterator prefix = new BucketSpliterator(index, mid, estimate);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            while (current == null && index < end) {
+                current = table[index++];
+            }
+            if (current == null) {
+                return false;
+            }
+            V value = current.getValue();
+            current = current.getNext();
+            if (exact) {
+                estimate--;
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
         }
-        System.out.println("Empty Buckets: " + emptyBuckets);
-        System.out.println("Max Chain Length: " + maxChain);
+
+        @Override
+        public int characteristics() {
+            return exact ? SIZED : 0;
+        }
+    }
+
+    /** Returns the current bucket array, plus the old one while a resize is running. */
+    private List<HashNode<K, V>[]> bucketArrays() {
+        return migrating == null ? List.<HashNode<K, V>[]>of(buckets) : List.of(buckets, migrating);
     }
 
     /**
@@ -193,11 +509,13 @@ public class HashTable<K, V> {
      */
     public List<K> keys() {
         List<K> keyList = new ArrayList<>();
-        for (HashNode<K, V> head : buckets) {
-            HashNode<K, V> current = head;
-            while (current != null) {
-                keyList.add(current.key);
-                current = current.getNext();
+        for (HashNode<K, V>[] table : bucketArrays()) {
+            for (HashNode<K, V> head : table) {
+                HashNode<K, V> current = head;
+                while (current != null) {
+                    keyList.add(current.key);
+                    current = current.getNext();
+                }
             }
         }
         return keyList;
@@ -208,11 +526,13 @@ public class HashTable<K, V> {
      */
     public List<V> values() {
         List<V> valueList = new ArrayList<>();
-        for (HashNode<K, V> head : buckets) {
-            HashNode<K, V> current = head;
-            while (current != null) {
-                valueList.add(current.getValue());
-                current = current.getNext();
+        for (HashNode<K, V>[] table : bucketArrays()) {
+            for (HashNode<K, V> head : table) {
+                HashNode<K, V> current = head;
+                while (current != null) {
+                    valueList.add(current.getValue());
+                    current = current.getNext();
+                }
             }
         }
         return valueList;
@@ -0,0 +1,157 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import java.util.Arrays;
+
+/**
+ * Point-in-time health metrics of a hash table, returned by SymbolLookup.getStats()
+ * so callers can display or check them instead of parsing printStats output.
+ * For chained tables the histogram counts buckets by chain length; for open
+ * addressing it counts entries by the number of probes needed to find them.
+ */
+public final class HashTableStats {
+
+    /** Number of operations of one kind and how many other entries they stepped over. */
+    public static final class OperationStats {
+        private final long count;
+        private final long collisions;
+
+        public OperationStats(long count, long collisions) {
+            this.count = count;
+            this.collisions = collisions;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getCollisions() {
+            return collisions;
+        }
+
+        public double getCollisionsPerOperation() {
+            return count == 0 ? 0.0 : (double) collisions / count;
+        }
+
+        @Override
+        public String toString() {
+            return count + " ops, " + collisions + " collisions ("
+                    + String.format("%.3f", getCollisionsPerOperation()) + "/op)";
+        }
+    }
+
+    /** Counters of a table that does not track operations. */
+    static final OperationStats UNTRACKED = new OperationStats(0, 0);
+
+    private final int size;
+    private final int capacity;
+    private final int[] chainLengths;
+    private final double averageProbeLength;
+    private final int resizeCount;
+    private final long resizeNanos;
+    private final OperationStats puts;
+    private final OperationStats gets;
+    private final OperationStats removes;
+
+    public HashTableStats(int size, int capacity, int[] chainLengths, double averageProbeLength,
+                          int resizeCount, long resizeNanos,
+                          OperationStats puts, OperationStats gets, OperationStats removes) {
+        this.size = size;
+        this.capacity = capacity;
+        this.chainLengths = chainLengths.clone();
+        this.averageProbeLength = averageProbeLength;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+        this.puts = puts;
+        this.gets = gets;
+        this.removes = removes;
+    }
+
+    /** Adds one chain (or probe sequence) of the given length to a histogram, growing it if needed. */
+    static int[] count(int[] histogram, int length) {
+        if (length >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, Math.max(length + 1, histogram.length * 2));
+        }
+        histogram[length]++;
+        return histogram;
+    }
+
+    /** Drops the unused tail of a histogram built with count. */
+    static int[] trim(int[] histogram) {
+        int length = histogram.length;
+        while (length > 1 && histogram[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(histogram, length);
+    }
+
+    //  ---- Getters ----
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getLoadFactor() {
+        return capacity == 0 ? 0.0 : (double) size / capacity;
+    }
+
+    /** Element i is the number of buckets with a chain of length i. */
+    public int[] getChainLengths() {
+        return chainLengths.clone();
+    }
+
+    public int getMaxChainLength() {
+        return chainLengths.length - 1;
+    }
+
+    public int getEmptyBuckets() {
+        return chainLengths[0];
+    }
+
+    /** Average entries compared to find a stored key. */
+    public double getAverageProbeLength() {
+        return averageProbeLength;
+    }
+
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    /** Total time spent resizing, including incremental bucket moves. */
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    public OperationStats getPuts() {
+        return puts;
+    }
+
+    public OperationStats getGets() {
+        return gets;
+    }
+
+    public OperationStats getRemoves() {
+        return removes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Size: ").append(size).append('\n');
+        sb.append("Capacity: ").append(capacity).append('\n');
+        sb.append("Load Factor: ").append(String.format("%.2f", getLoadFactor())).append('\n');
+        sb.append("Empty Buckets: ").append(getEmptyBuckets()).append('\n');
+        sb.append("Max Chain Length: ").append(getMaxChainLength()).append('\n');
+        sb.append("Chain Lengths: ").append(Arrays.toString(chainLengths)).append('\n');
+        sb.append("Average Probe Length: ").append(String.format("%.2f", averageProbeLength)).append('\n');
+        sb.append("Resizes: ").append(resizeCount)
+                .append(String.format(" (%.3f ms)", resizeNanos / 1_000_000.0)).append('\n');
+        sb.append("Puts: ").append(puts).append('\n');
+        sb.append("Gets: ").append(gets).append('\n');
+        sb.append("Removes: ").append(removes);
+        return sb.toString();
+    }
+}
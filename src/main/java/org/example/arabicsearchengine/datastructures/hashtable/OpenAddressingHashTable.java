@@ -0,0 +1,308 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash table using open addressing with double hashing.
+ * Keys and values live in two parallel arrays, so there is no node object per
+ * entry and a probe touches only array slots. The probe sequence starts at
+ * HashFunction.hash and advances by HashFunction.hash2; the capacity is kept
+ * prime so every step size visits every slot.
+ * Deleted slots become tombstones, which lookups skip and inserts reuse;
+ * they are purged when the table is rehashed.
+ *
+ * @param <K> Key type (typically String for pattern IDs)
+ * @param <V> Value type (typically Pattern objects)
+ */
+public class OpenAddressingHashTable<K, V> implements SymbolTable<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 17;
+    // Live entries plus tombstones; double hashing stays short below one half
+    private static final double LOAD_FACTOR_THRESHOLD = 0.5;
+    private static final Object TOMBSTONE = new Object();
+
+    private Object[] keys;
+    private Object[] values;
+    private int size;
+    private int tombstones;
+    private int capacity;
+
+    // Counters reported by getStats
+    private int resizeCount;
+    private long resizeNanos;
+    private final OperationCounter puts = new OperationCounter();
+    private final OperationCounter gets = new OperationCounter();
+    private final OperationCounter removes = new OperationCounter();
+
+    public OpenAddressingHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OpenAddressingHashTable(int initialCapacity) {
+        this.capacity = nextPrime(Math.max(3, initialCapacity));
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.size = 0;
+        this.tombstones = 0;
+    }
+
+    //  ---- Getters ----
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getTombstones() {
+        return tombstones;
+    }
+
+    //  ---- Core Operations ----
+
+    /**
+     * Returns the slot holding key, or -1 if absent.
+     */
+    private int findSlot(K key, OperationCounter counter) {
+        String keyStr = key.toString();
+        int index = HashFunction.hash(keyStr, capacity);
+        int step = 0;
+        counter.count++;
+        for (int probes = 0; probes < capacity; probes++) {
+            Object slotKey = keys[index];
+            if (slotKey == null) {
+                return -1;
+            }
+            if (slotKey != TOMBSTONE && slotKey.equals(key)) {
+                return index;
+            }
+            counter.collisions++;
+            if (step == 0) {
+                // Most lookups end at the first slot; only collisions pay for hash2
+                step = HashFunction.hash2(keyStr, capacity);
+            }
+            index += step;
+            if (index >= capacity) {
+                index -= capacity;
+            }
+        }
+        return -1;
+    }
+
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        if ((double) (size + tombstones + 1) / capacity > LOAD_FACTOR_THRESHOLD) {
+            resize();
+        }
+
+        String keyStr = key.toString();
+        int index = HashFunction.hash(keyStr, capacity);
+        int step = 0;
+        int firstTombstone = -1;
+        puts.count++;
+        while (true) {
+            Object slotKey = keys[index];
+            if (slotKey == null) {
+                break;
+            }
+            if (slotKey == TOMBSTONE) {
+                if (firstTombstone < 0) {
+                    firstTombstone = index;
+                }
+            } else if (slotKey.equals(key)) {
+                values[index] = value;
+                return;
+            }
+            puts.collisions++;
+            if (step == 0) {
+                step = HashFunction.hash2(keyStr, capacity);
+            }
+            index += step;
+            if (index >= capacity) {
+                index -= capacity;
+            }
+        }
+
+        // Key absent: reuse the first tombstone on the probe path if there was one
+        if (firstTombstone >= 0) {
+            index = firstTombstone;
+            tombstones--;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int index = findSlot(key, gets);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        int index = findSlot(key, removes);
+        if (index < 0) {
+            return null;
+        }
+        V old = (V) values[index];
+        keys[index] = TOMBSTONE;
+        values[index] = null;
+        size--;
+        tombstones++;
+        return old;
+    }
+
+    public boolean contains(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Rehashes into a table sized for the live entries, dropping tombstones.
+     * The capacity only grows when live entries (not tombstones) need the room.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        long start = System.nanoTime();
+        long putCount = puts.count;
+        long putCollisions = puts.collisions;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        // Mostly tombstones: rehash in place; otherwise double
+        boolean grow = size + 1 > capacity * LOAD_FACTOR_THRESHOLD / 2;
+        int newCapacity = grow ? nextPrime(capacity * 2) : capacity;
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        capacity = newCapacity;
+        size = 0;
+        tombstones = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE) {
+                put((K) oldKeys[i], (V) oldValues[i]);
+            }
+        }
+        // Re-inserted entries are not client puts
+        puts.count = putCount;
+        puts.collisions = putCollisions;
+        resizeCount++;
+        resizeNanos += System.nanoTime() - start;
+    }
+
+    public void clear() {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        size = 0;
+        tombstones = 0;
+    }
+
+    private static int nextPrime(int n) {
+        int candidate = n | 1;
+        while (!isPrime(candidate)) {
+            candidate += 2;
+        }
+        return candidate;
+    }
+
+    private static boolean isPrime(int n) {
+        if (n < 2) {
+            return false;
+        }
+        for (int d = 3; (long) d * d <= n; d += 2) {
+            if (n % d == 0) {
+                return false;
+            }
+        }
+        return n == 2 || n % 2 != 0;
+    }
+
+    //  -- Utility Functions
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getLoadFactor() {
+        return (double) getSize() / getCapacity();
+    }
+
+    /** The histogram counts entries by the number of probes needed to find them. */
+    public HashTableStats getStats() {
+        int[] probeLengths = new int[8];
+        long totalProbes = 0;
+        for (Object key : keys) {
+            if (key != null && key != TOMBSTONE) {
+                int probes = probeLength(key.toString(), key);
+                totalProbes += probes;
+                probeLengths = HashTableStats.count(probeLengths, probes);
+            }
+        }
+        // No entry needs zero probes; report free slots there, as empty buckets
+        probeLengths[0] = capacity - size - tombstones;
+        return new HashTableStats(size, capacity, HashTableStats.trim(probeLengths),
+                size == 0 ? 0.0 : (double) totalProbes / size, resizeCount, resizeNanos,
+                puts.snapshot(), gets.snapshot(), removes.snapshot());
+    }
+
+    /**
+     * Prints table statistics for debugging.
+     */
+    public void printStats() {
+        System.out.println("=== Open Addressing Hash Table Statistics ===");
+        System.out.println("Tombstones: " + tombstones);
+        System.out.println(getStats());
+    }
+
+    /** Number of slots visited to find a stored key. */
+    private int probeLength(String keyStr, Object key) {
+        int index = HashFunction.hash(keyStr, capacity);
+        int step = HashFunction.hash2(keyStr, capacity);
+        int probes = 1;
+        while (keys[index] != key) {
+            index = (index + step) % capacity;
+            probes++;
+        }
+        return probes;
+    }
+
+    /**
+     * Returns all keys in the table.
+     */
+    @SuppressWarnings("unchecked")
+    public List<K> keys() {
+        List<K> keyList = new ArrayList<>(size);
+        for (Object key : keys) {
+            if (key != null && key != TOMBSTONE) {
+                keyList.add((K) key);
+            }
+        }
+        return keyList;
+    }
+
+    /**
+     * Returns all values in the table.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> valueList = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && keys[i] != TOMBSTONE) {
+                valueList.add((V) values[i]);
+            }
+        }
+        return valueList;
+    }
+}
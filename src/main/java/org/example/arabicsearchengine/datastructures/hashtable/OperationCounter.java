@@ -0,0 +1,14 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+/**
+ * Running count of one kind of table operation and of the other entries those
+ * operations stepped over (chain nodes or probed slots). Not thread-safe.
+ */
+final class OperationCounter {
+    long count;
+    long collisions;
+
+    HashTableStats.OperationStats snapshot() {
+        return new HashTableStats.OperationStats(count, collisions);
+    }
+}
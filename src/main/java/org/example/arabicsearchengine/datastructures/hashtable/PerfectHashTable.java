@@ -0,0 +1,304 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only hash table over a fixed key set, built with a minimal perfect hash
+ * (CHD: compress, hash and displace).
+ * Keys are first hashed into small buckets, about KEYS_PER_BUCKET keys each.
+ * Buckets are then placed largest first: for each one, displacements d = 0, 1, 2...
+ * are tried until every key of the bucket lands on a free slot of
+ * (f1 + d * f2) scaled onto [0, n). Only the chosen d is stored, one int per
+ * bucket, so n keys fill exactly n slots and a lookup is one hash, one
+ * displacement read and one slot check, with no chains or probing.
+ * Each slot keeps 32 bits of its key's hash, so a lookup for an absent key
+ * is usually rejected without touching the stored key.
+ * The table cannot be modified; rebuild it from the updated entries instead.
+ *
+ * @param <K> Key type (typically String for pattern IDs)
+ * @param <V> Value type (typically Pattern objects)
+ */
+public class PerfectHashTable<K, V> implements SymbolLookup<K, V> {
+
+    // Average keys per bucket; larger buckets use fewer displacements but take longer to place
+    private static final int KEYS_PER_BUCKET = 4;
+    // Displacements tried per bucket before the build starts over with a new seed
+    private static final int MAX_DISPLACEMENT = 1 << 20;
+    private static final int MAX_ATTEMPTS = 32;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Object[] entries;      // Key of slot i at 2i, its value at 2i + 1
+    private final int[] fingerprints;    // Low 32 bits of each slot's key hash
+    private final int[] displacements;
+    private final int size;
+    // Hash every character when two keys share a hashCode, which no seed could separate
+    private final boolean charHash;
+    private long seed;
+    private int attempts;
+    private final long buildNanos;
+
+    /**
+     * Builds the table; keys must be distinct and non-null.
+     *
+     * @param keyList   Keys to index
+     * @param valueList Values, in the same order as keyList
+     */
+    public PerfectHashTable(List<K> keyList, List<V> valueList) {
+        if (keyList.size() != valueList.size()) {
+            throw new IllegalArgumentException("Keys and values must have the same length");
+        }
+        long start = System.nanoTime();
+        this.size = keyList.size();
+        this.entries = new Object[2 * size];
+        this.fingerprints = new int[size];
+        this.displacements = new int[Math.max(1, (size + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET)];
+        this.charHash = hasSharedHashCodes(keyList);
+
+        while (!tryBuild(keyList, valueList)) {
+            if (++attempts == MAX_ATTEMPTS) {
+                throw new IllegalArgumentException("Could not build a perfect hash; are the keys distinct?");
+            }
+            seed = HashFunction.mix64(seed + 0x9e3779b97f4a7c15L);
+        }
+        attempts++;
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    /** Builds a perfect hash table holding the current entries of source. */
+    public static <K, V> PerfectHashTable<K, V> of(SymbolLookup<K, V> source) {
+        List<K> keyList = source.keys();
+        List<V> valueList = new ArrayList<>(keyList.size());
+        for (K key : keyList) {
+            valueList.add(source.get(key));
+        }
+        return new PerfectHashTable<>(keyList, valueList);
+    }
+
+    private static boolean hasSharedHashCodes(List<?> keyList) {
+        Set<Integer> seen = new HashSet<>();
+        for (Object key : keyList) {
+            if (!seen.add(key.hashCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //  ---- Getters ----
+
+    public int getSize() {
+        return size;
+    }
+
+    /** The table is minimal: one slot per key. */
+    public int getCapacity() {
+        return size;
+    }
+
+    public int getBucketCount() {
+        return displacements.length;
+    }
+
+    /** Number of seeds tried before every bucket could be placed. */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getBuildTimeNanos() {
+        return buildNanos;
+    }
+
+    /** Bits of the hash function itself (the displacement array) per key. */
+    public double getBitsPerKey() {
+        return size == 0 ? 0.0 : (double) displacements.length * Integer.SIZE / size;
+    }
+
+    //  ---- Hashing ----
+
+    private long hash64(Object key) {
+        long h = seed;
+        if (charHash && key instanceof CharSequence chars) {
+            for (int i = 0; i < chars.length(); i++) {
+                h = (h ^ chars.charAt(i)) * FNV_PRIME;
+            }
+        } else {
+            h ^= key.hashCode();
+        }
+        return HashFunction.mix64(h);
+    }
+
+    /** Maps a 32-bit value onto [0, n) with a multiply instead of a division. */
+    private static int reduce(int x, int n) {
+        return (int) (((x & 0xffffffffL) * n) >>> 32);
+    }
+
+    private int bucketOf(long hash) {
+        return reduce((int) (hash >>> 32), displacements.length);
+    }
+
+    /**
+     * Slot of a key for a displacement, from mix64 of its hash. The step is odd, so successive
+     * displacements give distinct 32-bit values before the reduction.
+     */
+    private int slotOf(long mixed, int displacement) {
+        int f1 = (int) mixed;
+        int f2 = (int) (mixed >>> 32) | 1;
+        return reduce(f1 + displacement * f2, size);
+    }
+
+    /** Places every bucket for the current seed; returns false if one could not be placed. */
+    private boolean tryBuild(List<K> keyList, List<V> valueList) {
+        int bucketCount = displacements.length;
+        long[] hashes = new long[size];
+        long[] mixed = new long[size];
+        int[] bucketSizes = new int[bucketCount];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = hash64(keyList.get(i));
+            mixed[i] = HashFunction.mix64(hashes[i]);
+            bucketSizes[bucketOf(hashes[i])]++;
+        }
+
+        // Group key indexes by bucket: members[starts[b], starts[b + 1]) belong to bucket b
+        int[] starts = new int[bucketCount + 1];
+        int largest = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            starts[b + 1] = starts[b] + bucketSizes[b];
+            largest = Math.max(largest, bucketSizes[b]);
+        }
+        int[] members = new int[size];
+        int[] cursor = Arrays.copyOf(starts, bucketCount);
+        for (int i = 0; i < size; i++) {
+            members[cursor[bucketOf(hashes[i])]++] = i;
+        }
+
+        boolean[] taken = new boolean[size];
+        int[] slots = new int[largest];
+        // Largest buckets first, while most slots are still free
+        for (int bucketSize = largest; bucketSize > 0; bucketSize--) {
+            for (int b = 0; b < bucketCount; b++) {
+                if (bucketSizes[b] != bucketSize) {
+                    continue;
+                }
+                int displacement = findDisplacement(mixed, members, starts[b], bucketSize, taken, slots);
+                if (displacement < 0) {
+                    Arrays.fill(entries, null);
+                    return false;
+                }
+                displacements[b] = displacement;
+                for (int j = 0; j < bucketSize; j++) {
+                    int i = members[starts[b] + j];
+                    taken[slots[j]] = true;
+                    fingerprints[slots[j]] = (int) hashes[i];
+                    entries[2 * slots[j]] = keyList.get(i);
+                    entries[2 * slots[j] + 1] = valueList.get(i);
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Returns the first displacement sending every key of a bucket to a distinct free slot, or -1. */
+    private int findDisplacement(long[] mixed, int[] members, int from, int count,
+                                 boolean[] taken, int[] slots) {
+        for (int d = 0; d < MAX_DISPLACEMENT; d++) {
+            int placed = 0;
+            while (placed < count) {
+                int slot = slotOf(mixed[members[from + placed]], d);
+                if (taken[slot] || isUsed(slots, placed, slot)) {
+                    break;
+                }
+                slots[placed++] = slot;
+            }
+            if (placed == count) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isUsed(int[] slots, int count, int slot) {
+        for (int i = 0; i < count; i++) {
+            if (slots[i] == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //  ---- Core Operations ----
+
+    /** One probe: the slot of key holds either key itself or a different key. */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null || size == 0) {
+            return null;
+        }
+        long hash = hash64(key);
+        int slot = slotOf(HashFunction.mix64(hash), displacements[bucketOf(hash)]);
+        if (fingerprints[slot] != (int) hash || !key.equals(entries[2 * slot])) {
+            return null;
+        }
+        return (V) entries[2 * slot + 1];
+    }
+
+    public boolean contains(K key) {
+        return get(key) != null;
+    }
+
+    //  -- Utility Functions
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getLoadFactor() {
+        return size == 0 ? 0.0 : 1.0;
+    }
+
+    /** Every slot holds exactly one key; the build time is reported separately. */
+    public HashTableStats getStats() {
+        int[] chainLengths = size == 0 ? new int[]{0} : new int[]{0, size};
+        return new HashTableStats(size, size, chainLengths, size == 0 ? 0.0 : 1.0, 0, 0,
+                HashTableStats.UNTRACKED, HashTableStats.UNTRACKED, HashTableStats.UNTRACKED);
+    }
+
+    /**
+     * Prints table statistics for debugging.
+     */
+    public void printStats() {
+        System.out.println("=== Perfect Hash Table Statistics ===");
+        System.out.println("Size: " + size);
+        System.out.println("Buckets: " + displacements.length);
+        System.out.println("Seeds Tried: " + attempts);
+        System.out.println("Build Time: " + String.format("%.3f ms", buildNanos / 1_000_000.0));
+        System.out.println("Bits per Key: " + String.format("%.2f", getBitsPerKey()));
+    }
+
+    /**
+     * Returns all keys in the table.
+     */
+    @SuppressWarnings("unchecked")
+    public List<K> keys() {
+        List<K> keyList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            keyList.add((K) entries[2 * i]);
+        }
+        return keyList;
+    }
+
+    /**
+     * Returns all values in the table.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> valueList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            valueList.add((V) entries[2 * i + 1]);
+        }
+        return valueList;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import java.util.List;
+
+/**
+ * Read operations shared by every hash table, including the read-only
+ * PerfectHashTable. Mutable tables implement SymbolTable.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public interface SymbolLookup<K, V> {
+
+    /** Returns the value stored under key, or null. */
+    V get(K key);
+
+    boolean contains(K key);
+
+    int getSize();
+
+    int getCapacity();
+
+    boolean isEmpty();
+
+    double getLoadFactor();
+
+    /** Returns all keys in the table. */
+    List<K> keys();
+
+    /** Returns all values in the table. */
+    List<V> values();
+
+    /** Returns chain-length, probe, resize and collision metrics. */
+    HashTableStats getStats();
+
+    /** Prints table statistics for debugging. */
+    void printStats();
+}
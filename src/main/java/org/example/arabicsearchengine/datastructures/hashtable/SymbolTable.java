@@ -0,0 +1,19 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+/**
+ * Common operations of the mutable hash table implementations, so callers such
+ * as PatternRepository can pick the collision strategy at construction time.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public interface SymbolTable<K, V> extends SymbolLookup<K, V> {
+
+    /** Stores value under key, replacing any previous value. */
+    void put(K key, V value);
+
+    /** Removes and returns the value stored under key, or null. */
+    V remove(K key);
+
+    void clear();
+}
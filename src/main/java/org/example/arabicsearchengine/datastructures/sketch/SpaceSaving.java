@@ -0,0 +1,234 @@
+package org.example.arabicsearchengine.datastructures.sketch;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded heavy-hitters counter (Space-Saving, Metwally et al.).
+ * At most capacity keys are monitored. When an unmonitored key arrives and the
+ * table is full, it takes over the counter with the smallest count and inherits
+ * that count as its error, so a reported count never underestimates and
+ * overestimates by at most total / capacity.
+ * Counters are kept in a "stream summary": buckets of equal count, linked in
+ * ascending order, each holding a linked list of its counters. An increment
+ * moves a counter to the neighbouring bucket in O(1), and the top n is read by
+ * walking down from the largest bucket in O(n).
+ * All methods are synchronized.
+ *
+ * @param <K> Key type (typically the word, root letters or pattern ID)
+ */
+public class SpaceSaving<K> {
+
+    /** Snapshot of one monitored key. */
+    public static final class Entry<K> {
+        private final K key;
+        private final long count;
+        private final long error;
+
+        Entry(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        /** Upper bound of the key's true count. */
+        public long getCount() {
+            return count;
+        }
+
+        /** Maximum overestimation of getCount. */
+        public long getError() {
+            return error;
+        }
+
+        /** Lower bound of the key's true count. */
+        public long getGuaranteedCount() {
+            return count - error;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + count + (error > 0 ? " (±" + error + ")" : "");
+        }
+    }
+
+    private static final class Counter<K> {
+        K key;
+        long count;
+        long error;
+        Bucket<K> bucket;
+        Counter<K> previous;
+        Counter<K> next;
+    }
+
+    private static final class Bucket<K> {
+        final long count;
+        Counter<K> head;
+        Bucket<K> lower;
+        Bucket<K> higher;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    private final int capacity;
+    private final HashTable<K, Counter<K>> counters;
+    private Bucket<K> smallest;
+    private Bucket<K> largest;
+    private long total;
+
+    /**
+     * @param capacity Number of monitored keys; counts are exact while fewer
+     *                 distinct keys were seen
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashTable<>(capacity * 2);
+    }
+
+    //  ---- Core Operations ----
+
+    /** Counts one occurrence of key. */
+    public synchronized void offer(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        total++;
+        Counter<K> counter = counters.get(key);
+        if (counter == null) {
+            if (counters.getSize() < capacity) {
+                counter = new Counter<>();
+            } else {
+                // Evict a key with the smallest count; the newcomer inherits it as error
+                counter = smallest.head;
+                counters.remove(counter.key);
+                counter.error = counter.count;
+            }
+            counter.key = key;
+            counters.put(key, counter);
+        }
+        increment(counter);
+    }
+
+    private void increment(Counter<K> counter) {
+        Bucket<K> from = counter.bucket;
+        Bucket<K> to = from == null ? smallest : from.higher;
+        counter.count++;
+        if (to == null || to.count != counter.count) {
+            to = new Bucket<>(counter.count);
+            linkAfter(from, to);
+        }
+        if (from != null) {
+            detach(counter);
+        }
+        attach(counter, to);
+    }
+
+    /** Inserts bucket right above lower, or as the smallest bucket when lower is null. */
+    private void linkAfter(Bucket<K> lower, Bucket<K> bucket) {
+        bucket.lower = lower;
+        bucket.higher = lower == null ? smallest : lower.higher;
+        if (bucket.higher != null) {
+            bucket.higher.lower = bucket;
+        } else {
+            largest = bucket;
+        }
+        if (lower != null) {
+            lower.higher = bucket;
+        } else {
+            smallest = bucket;
+        }
+    }
+
+    private void attach(Counter<K> counter, Bucket<K> bucket) {
+        counter.bucket = bucket;
+        counter.previous = null;
+        counter.next = bucket.head;
+        if (bucket.head != null) {
+            bucket.head.previous = counter;
+        }
+        bucket.head = counter;
+    }
+
+    /** Removes counter from its bucket, unlinking the bucket when it becomes empty. */
+    private void detach(Counter<K> counter) {
+        Bucket<K> bucket = counter.bucket;
+        if (counter.previous != null) {
+            counter.previous.next = counter.next;
+        } else {
+            bucket.head = counter.next;
+        }
+        if (counter.next != null) {
+            counter.next.previous = counter.previous;
+        }
+        if (bucket.head == null) {
+            if (bucket.lower != null) {
+                bucket.lower.higher = bucket.higher;
+            } else {
+                smallest = bucket.higher;
+            }
+            if (bucket.higher != null) {
+                bucket.higher.lower = bucket.lower;
+            } else {
+                largest = bucket.lower;
+            }
+        }
+    }
+
+    /**
+     * Returns up to n monitored keys by decreasing count, in O(n).
+     * Keys of equal count come in no particular order.
+     */
+    public synchronized List<Entry<K>> top(int n) {
+        List<Entry<K>> result = new ArrayList<>(Math.min(Math.max(n, 0), counters.getSize()));
+        for (Bucket<K> bucket = largest; bucket != null && result.size() < n; bucket = bucket.lower) {
+            for (Counter<K> counter = bucket.head; counter != null && result.size() < n; counter = counter.next) {
+                result.add(new Entry<>(counter.key, counter.count, counter.error));
+            }
+        }
+        return result;
+    }
+
+    /** Returns the counted occurrences of key (an upper bound), or 0 if it is not monitored. */
+    public synchronized long getCount(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter == null ? 0 : counter.count;
+    }
+
+    //  -- Utility Functions
+
+    /** Number of occurrences offered since creation or the last clear. */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Number of monitored keys. */
+    public synchronized int getSize() {
+        return counters.getSize();
+    }
+
+    public synchronized boolean isEmpty() {
+        return total == 0;
+    }
+
+    public synchronized void clear() {
+        counters.clear();
+        smallest = null;
+        largest = null;
+        total = 0;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.arabicsearchengine.datastructures.sketch;
+
+/**
+ * Event counter over sliding time windows, kept in two ring buffers: one slot
+ * per minute for the last hour and one slot per hour for the last day.
+ * Time only moves forward. Moving to a later minute clears the slots that fell
+ * out of the window, so memory stays fixed (84 ints). Running sums make an
+ * increment and a window query O(1) amortized.
+ * Not thread-safe; owners synchronize.
+ */
+public class WindowedCounter {
+
+    public static final long MINUTE_MILLIS = 60_000L;
+    public static final int MINUTES_PER_HOUR = 60;
+    public static final int HOURS_PER_DAY = 24;
+
+    private final int[] minutes = new int[MINUTES_PER_HOUR];
+    private final int[] hours = new int[HOURS_PER_DAY];
+    private long lastMinute;
+    private long hourSum;
+    private long daySum;
+
+    /** @param nowMillis Current time, in milliseconds since the epoch */
+    public WindowedCounter(long nowMillis) {
+        this.lastMinute = nowMillis / MINUTE_MILLIS;
+    }
+
+    /** Counts one event at nowMillis. Times before the latest one count in the current slot. */
+    public void increment(long nowMillis) {
+        advance(nowMillis);
+        int minute = (int) (lastMinute % MINUTES_PER_HOUR);
+        int hour = (int) (lastMinute / MINUTES_PER_HOUR % HOURS_PER_DAY);
+        minutes[minute]++;
+        hours[hour]++;
+        hourSum++;
+        daySum++;
+    }
+
+    /** Returns the events of the last 60 minutes, including the current one. */
+    public long getLastHour(long nowMillis) {
+        advance(nowMillis);
+        return hourSum;
+    }
+
+    /** Returns the events of the last 24 hours, including the current one (at hour granularity). */
+    public long getLastDay(long nowMillis) {
+        advance(nowMillis);
+        return daySum;
+    }
+
+    /** Returns true when no event is left in either window. */
+    public boolean isIdle(long nowMillis) {
+        advance(nowMillis);
+        return daySum == 0;
+    }
+
+    /** Moves the windows to nowMillis, clearing the slots that expired. */
+    private void advance(long nowMillis) {
+        long minute = nowMillis / MINUTE_MILLIS;
+        if (minute <= lastMinute) {
+            return;
+        }
+        long steps = Math.min(minute - lastMinute, MINUTES_PER_HOUR);
+        for (long m = minute - steps + 1; m <= minute; m++) {
+            int slot = (int) (m % MINUTES_PER_HOUR);
+            hourSum -= minutes[slot];
+            minutes[slot] = 0;
+        }
+
+        long lastHour = lastMinute / MINUTES_PER_HOUR;
+        long hour = minute / MINUTES_PER_HOUR;
+        long hourSteps = Math.min(hour - lastHour, HOURS_PER_DAY);
+        for (long h = hour - hourSteps + 1; h <= hour; h++) {
+            int slot = (int) (h % HOURS_PER_DAY);
+            daySum -= hours[slot];
+            hours[slot] = 0;
+        }
+        lastMinute = minute;
+    }
+}
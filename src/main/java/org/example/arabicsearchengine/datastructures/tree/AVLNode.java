@@ -9,12 +9,14 @@ public class AVLNode<T extends Comparable<T>> {
     AVLNode<T> left;
     AVLNode<T> right;
     int height;
+    int size;       // Number of nodes in this subtree, for rank/select
 
     public AVLNode(T data) {
         this.data = data;
         this.left = null;
         this.right = null;
         this.height = 1;
+        this.size = 1;
     }
 
     public T getData() {
@@ -32,6 +34,10 @@ public class AVLNode<T extends Comparable<T>> {
     public int getHeight() {
         return height;
     }
+
+    public int getSize() {
+        return size;
+    }
 }
 
 
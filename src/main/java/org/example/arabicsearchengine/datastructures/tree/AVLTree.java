@@ -1,18 +1,32 @@
 package org.example.arabicsearchengine.datastructures.tree;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Self-balancing AVL Tree implementation for storing Arabic roots.
- * Provides O(log n) search, insert, and delete operations.
+ * Provides O(log n) search, insert, and delete operations, all iterative.
+ * Iteration is lazy (in-order, stack-based) and streams split on subtrees.
+ * Every node tracks its subtree size, so rank, select and range queries
+ * run in O(log n) plus the number of elements returned.
  * 
  * @param <T> The type of data stored (must be Comparable)
  */
-public class AVLTree<T extends Comparable<T>> {
+public class AVLTree<T extends Comparable<T>> implements Iterable<T> {
     private AVLNode<T> root;
     private int size;
+    private int modCount;   // Structural changes, lets iterators fail fast
 
     public AVLTree() {
         this.root = null;
@@ -27,8 +41,14 @@ public class AVLTree<T extends Comparable<T>> {
         return node == null ? 0 : height(node.left) - height(node.right);
     }
 
+    private int sizeOf(AVLNode<T> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /** Refreshes the height and subtree size of node from its children. */
     private void updateHeight(AVLNode<T> node) {
         node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
     }
 
     public AVLNode<T> getRoot() {
@@ -128,50 +148,199 @@ public class AVLTree<T extends Comparable<T>> {
 
     // --- Insert ---
 
-    public void insert(T data) {
-        root = insertRec(root, data);
+    /**
+     * Inserts data, descending iteratively and rebalancing along the recorded path.
+     *
+     * @return true if inserted, false if an equal element was already present
+     */
+    public boolean insert(T data) {
+        if (root == null) {
+            root = new AVLNode<>(data);
+            size++;
+            modCount++;
+            return true;
+        }
+
+        AVLNode<T>[] path = newPath();
+        int depth = 0;
+        AVLNode<T> node = root;
+        while (true) {
+            int cmp = data.compareTo(node.data);
+            if (cmp == 0) {
+                // Duplicate - don't insert
+                return false;
+            }
+            path[depth++] = node;
+            AVLNode<T> next = cmp < 0 ? node.left : node.right;
+            if (next == null) {
+                if (cmp < 0) {
+                    node.left = new AVLNode<>(data);
+                } else {
+                    node.right = new AVLNode<>(data);
+                }
+                break;
+            }
+            node = next;
+        }
+
         size++;
+        modCount++;
+        rebalancePath(path, depth);
+        return true;
     }
 
-    private AVLNode<T> insertRec(AVLNode<T> node, T data) {
-        if (node == null) {
-            return new AVLNode<>(data);
+    // --- Bulk build ---
+
+    /**
+     * Replaces the tree contents with the given elements.
+     * The input is sorted (linear when already sorted) and de-duplicated, then a
+     * perfectly balanced tree is built bottom-up in O(n) with correct heights.
+     */
+    public void buildFrom(Collection<? extends T> elements) {
+        List<T> sorted = sortedDistinct(elements);
+        root = buildBalanced(sorted, 0, sorted.size());
+        size = sorted.size();
+        modCount++;
+    }
+
+    /**
+     * Adds all elements in one pass. An empty tree is built directly; otherwise the
+     * input is merged with the current in-order contents and the tree is rebuilt,
+     * unless the batch is small enough that individual inserts are cheaper.
+     * Elements already in the tree keep their identity.
+     *
+     * @return The elements that were actually added, in sorted order
+     */
+    public List<T> addAll(Collection<? extends T> elements) {
+        List<T> incoming = sortedDistinct(elements);
+        if (root == null) {
+            root = buildBalanced(incoming, 0, incoming.size());
+            size = incoming.size();
+            modCount++;
+            return incoming;
         }
 
-        int cmp = data.compareTo(node.data);
-        if (cmp < 0) {
-            node.left = insertRec(node.left, data);
-        } else if (cmp > 0) {
-            node.right = insertRec(node.right, data);
-        } else {
-            // Duplicate - don't insert, decrement size to compensate
-            size--;
-            return node;
+        List<T> added = new ArrayList<>();
+        int log2Size = 32 - Integer.numberOfLeadingZeros(size);
+        if ((long) incoming.size() * log2Size < size) {
+            for (T element : incoming) {
+                if (insert(element)) {
+                    added.add(element);
+                }
+            }
+            return added;
+        }
+
+        List<T> existing = toList();
+        List<T> merged = new ArrayList<>(existing.size() + incoming.size());
+        int i = 0;
+        int j = 0;
+        while (i < existing.size() && j < incoming.size()) {
+            int cmp = existing.get(i).compareTo(incoming.get(j));
+            if (cmp < 0) {
+                merged.add(existing.get(i++));
+            } else if (cmp > 0) {
+                T element = incoming.get(j++);
+                merged.add(element);
+                added.add(element);
+            } else {
+                merged.add(existing.get(i++));
+                j++;
+            }
+        }
+        while (i < existing.size()) {
+            merged.add(existing.get(i++));
+        }
+        while (j < incoming.size()) {
+            T element = incoming.get(j++);
+            merged.add(element);
+            added.add(element);
         }
 
-        return balance(node);
+        root = buildBalanced(merged, 0, merged.size());
+        size = merged.size();
+        modCount++;
+        return added;
+    }
+
+    private List<T> sortedDistinct(Collection<? extends T> elements) {
+        List<T> list = new ArrayList<>(elements);
+        // TimSort runs in linear time on already (or mostly) sorted input
+        list.sort(null);
+        int kept = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (kept == 0 || list.get(kept - 1).compareTo(list.get(i)) != 0) {
+                list.set(kept++, list.get(i));
+            }
+        }
+        list.subList(kept, list.size()).clear();
+        return list;
+    }
+
+    /** Builds a perfectly balanced subtree from sorted[from, to). */
+    private AVLNode<T> buildBalanced(List<T> sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        AVLNode<T> node = new AVLNode<>(sorted.get(mid));
+        node.left = buildBalanced(sorted, from, mid);
+        node.right = buildBalanced(sorted, mid + 1, to);
+        updateHeight(node);
+        return node;
     }
 
     // --- Search ---
 
     public T search(T key) {
-        AVLNode<T> result = searchRec(root, key);
-        return result != null ? result.data : null;
+        AVLNode<T> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.data);
+            if (cmp == 0) {
+                return node.data;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
     }
 
-    private AVLNode<T> searchRec(AVLNode<T> node, T key) {
-        if (node == null) {
-            return null;
+    /**
+     * Searches by a key derived from the stored elements, so callers do not
+     * need to build a throwaway element. The comparator applied to extracted keys
+     * must order elements the same way as their natural ordering.
+     * Allocates nothing when keyExtractor and comparator do not.
+     *
+     * @param key          Key to look for
+     * @param keyExtractor Returns the key of a stored element
+     * @param comparator   Orders keys consistently with the tree
+     */
+    public <K> T searchByKey(K key, Function<? super T, ? extends K> keyExtractor,
+                             Comparator<? super K> comparator) {
+        AVLNode<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, keyExtractor.apply(node.data));
+            if (cmp == 0) {
+                return node.data;
+            }
+            node = cmp < 0 ? node.left : node.right;
         }
+        return null;
+    }
 
-        int cmp = key.compareTo(node.data);
-        if (cmp < 0) {
-            return searchRec(node.left, key);
-        } else if (cmp > 0) {
-            return searchRec(node.right, key);
-        } else {
-            return node;
+    /**
+     * Searches by an int key (such as a packed root code) without boxing.
+     * The int keys must increase in the same order as the elements.
+     */
+    public T searchByIntKey(int key, ToIntFunction<? super T> keyExtractor) {
+        AVLNode<T> node = root;
+        while (node != null) {
+            int cmp = Integer.compare(key, keyExtractor.applyAsInt(node.data));
+            if (cmp == 0) {
+                return node.data;
+            }
+            node = cmp < 0 ? node.left : node.right;
         }
+        return null;
     }
 
     public boolean contains(T key) {
@@ -181,46 +350,93 @@ public class AVLTree<T extends Comparable<T>> {
     // --- Delete ---
 
     public void delete(T key) {
-        if (contains(key)) {
-            root = deleteRec(root, key);
-            size--;
-        }
+        deleteWhere(key::compareTo);
     }
 
-    private AVLNode<T> deleteRec(AVLNode<T> node, T key) {
+    /**
+     * Deletes the element whose extracted key equals key.
+     *
+     * @return The removed element, or null if none matched
+     */
+    public <K> T deleteByKey(K key, Function<? super T, ? extends K> keyExtractor,
+                             Comparator<? super K> comparator) {
+        return deleteWhere(data -> comparator.compare(key, keyExtractor.apply(data)));
+    }
+
+    /**
+     * Iterative delete. probe returns the comparison of the searched key with a node's data.
+     * A node with two children takes its in-order successor's data and the successor is unlinked instead.
+     */
+    private T deleteWhere(ToIntFunction<T> probe) {
+        AVLNode<T>[] path = newPath();
+        int depth = 0;
+        AVLNode<T> node = root;
+        while (node != null) {
+            int cmp = probe.applyAsInt(node.data);
+            if (cmp == 0) {
+                break;
+            }
+            path[depth++] = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
         if (node == null) {
             return null;
         }
 
-        int cmp = key.compareTo(node.data);
-        if (cmp < 0) {
-            node.left = deleteRec(node.left, key);
-        } else if (cmp > 0) {
-            node.right = deleteRec(node.right, key);
-        } else {
-            // Node to delete found
-            if (node.left == null || node.right == null) {
-                node = (node.left != null) ? node.left : node.right;
-            } else {
-                // Node with two children: Get inorder successor
-                AVLNode<T> successor = findMin(node.right);
-                node.data = successor.data;
-                node.right = deleteRec(node.right, successor.data);
+        T removed = node.data;
+        if (node.left != null && node.right != null) {
+            // Node with two children: Get inorder successor
+            path[depth++] = node;
+            AVLNode<T> successor = node.right;
+            while (successor.left != null) {
+                path[depth++] = successor;
+                successor = successor.left;
             }
+            node.data = successor.data;
+            node = successor;
         }
 
-        if (node == null) {
-            return null;
-        }
+        // node now has at most one child
+        AVLNode<T> child = node.left != null ? node.left : node.right;
+        replaceChild(depth == 0 ? null : path[depth - 1], node, child);
+        size--;
+        modCount++;
+        rebalancePath(path, depth);
+        return removed;
+    }
+
+    // --- Path helpers ---
+
+    private AVLNode<T>[] newPath() {
+        // An AVL search path never holds more nodes than the tree height
+        return nodeArray(height(root) + 1);
+    }
 
-        return balance(node);
+    /** Allocates a node array; generic arrays can only be created raw. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Comparable<T>> AVLNode<T>[] nodeArray(int length) {
+        return (AVLNode<T>[]) new AVLNode[length];
     }
 
-    private AVLNode<T> findMin(AVLNode<T> node) {
-        while (node.left != null) {
-            node = node.left;
+    /** Rebalances every node of the path, bottom-up, relinking rotated subtrees. */
+    private void rebalancePath(AVLNode<T>[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            AVLNode<T> node = path[i];
+            AVLNode<T> balanced = balance(node);
+            if (balanced != node) {
+                replaceChild(i == 0 ? null : path[i - 1], node, balanced);
+            }
+        }
+    }
+
+    private void replaceChild(AVLNode<T> parent, AVLNode<T> oldChild, AVLNode<T> newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
         }
-        return node;
     }
 
 
@@ -230,7 +446,250 @@ public class AVLTree<T extends Comparable<T>> {
         return list;
     }
 
+    // --- Order statistics ---
+
+    /** Returns the number of elements strictly less than key. */
+    public int rank(T key) {
+        return rankWhere(key::compareTo);
+    }
+
+    /**
+     * Returns the number of elements whose extracted key is strictly less than key.
+     * The key need not belong to a stored element, e.g. it may be a prefix.
+     */
+    public <K> int rankByKey(K key, Function<? super T, ? extends K> keyExtractor,
+                             Comparator<? super K> comparator) {
+        return rankWhere(data -> comparator.compare(key, keyExtractor.apply(data)));
+    }
+
+    private int rankWhere(ToIntFunction<T> probe) {
+        int rank = 0;
+        AVLNode<T> node = root;
+        while (node != null) {
+            if (probe.applyAsInt(node.data) <= 0) {
+                node = node.left;
+            } else {
+                rank += sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the element at position k in sorted order.
+     *
+     * @throws IndexOutOfBoundsException if k is not in [0, size)
+     */
+    public T select(int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of range for size " + size);
+        }
+        AVLNode<T> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k == leftSize) {
+                return node.data;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns a lazy in-order iterator positioned at rank k.
+     * Positioning costs O(log n); k == size gives an exhausted iterator.
+     */
+    public Iterator<T> iteratorFrom(int k) {
+        if (k < 0 || k > size) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of range for size " + size);
+        }
+        return new InOrderIterator(root, k);
+    }
+
+    /** Returns up to count elements starting at rank fromRank. */
+    public List<T> slice(int fromRank, int count) {
+        int from = Math.max(0, Math.min(fromRank, size));
+        int n = Math.max(0, Math.min(count, size - from));
+        List<T> list = new ArrayList<>(n);
+        Iterator<T> it = iteratorFrom(from);
+        while (list.size() < n) {
+            list.add(it.next());
+        }
+        return list;
+    }
+
+    /** Returns the elements in [fromInclusive, toExclusive), in sorted order. */
+    public List<T> range(T fromInclusive, T toExclusive) {
+        int from = rank(fromInclusive);
+        return slice(from, rank(toExclusive) - from);
+    }
+
+    /** Returns the elements whose extracted key lies in [fromInclusive, toExclusive). */
+    public <K> List<T> rangeByKey(K fromInclusive, K toExclusive,
+                                  Function<? super T, ? extends K> keyExtractor,
+                                  Comparator<? super K> comparator) {
+        int from = rankByKey(fromInclusive, keyExtractor, comparator);
+        return slice(from, rankByKey(toExclusive, keyExtractor, comparator) - from);
+    }
+
+    // --- Lazy iteration ---
+
+    /** Returns a lazy in-order iterator; O(height) extra space, no copy of the tree. */
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator(root);
+    }
+
+    /**
+     * Returns an ordered, sorted spliterator that splits on subtrees,
+     * so parallel streams divide the tree without copying it.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new TreeSpliterator(null, root);
+    }
+
+    /** Returns a sequential stream of the elements in sorted order. */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /** Returns a parallel stream of the elements. */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /** In-order traversal driven by an explicit stack of left spines. */
+    private final class InOrderIterator implements Iterator<T> {
+        private final AVLNode<T>[] stack;
+        private int depth;
+        private final int expectedModCount = modCount;
+
+        InOrderIterator(AVLNode<T> start) {
+            this.stack = nodeArray(height(start) + 1);
+            pushLeftSpine(start);
+        }
+
+        /** Positions at rank skip within start, keeping only the ancestors still to visit. */
+        InOrderIterator(AVLNode<T> start, int skip) {
+            this.stack = nodeArray(height(start) + 1);
+            AVLNode<T> node = start;
+            while (node != null) {
+                int leftSize = sizeOf(node.left);
+                if (skip <= leftSize) {
+                    stack[depth++] = node;
+                    if (skip == leftSize) {
+                        break;
+                    }
+                    node = node.left;
+                } else {
+                    skip -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        private void pushLeftSpine(AVLNode<T> node) {
+            while (node != null) {
+                stack[depth++] = node;
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (depth == 0) {
+                throw new NoSuchElementException();
+            }
+            AVLNode<T> node = stack[--depth];
+            pushLeftSpine(node.right);
+            return node.data;
+        }
+    }
+
+    /**
+     * Covers an optional head element followed by a whole subtree.
+     * Splitting (head, node) yields the prefix (head, node.left) and leaves
+     * (node.data, node.right), so both halves keep the same shape.
+     * Subtree sizes keep the remaining count exact across splits.
+     */
+    private final class TreeSpliterator implements Spliterator<T> {
+        private T head;
+        private AVLNode<T> subtree;
+        private Iterator<T> traversal;
+        private long remaining;
+        private final int expectedModCount = modCount;
+
+        TreeSpliterator(T head, AVLNode<T> subtree) {
+            this.head = head;
+            this.subtree = subtree;
+            this.remaining = (head != null ? 1 : 0) + sizeOf(subtree);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (traversal != null || subtree == null || subtree.left == null) {
+                return null;
+            }
+            AVLNode<T> node = subtree;
+            Spliterator<T> prefix = new TreeSpliterator(head, node.left);
+            head = node.data;
+            subtree = node.right;
+            remaining = 1 + sizeOf(subtree);
+            return prefix;
+        }
 
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (head != null) {
+                T element = head;
+                head = null;
+                remaining--;
+                action.accept(element);
+                return true;
+            }
+            if (traversal == null) {
+                traversal = new InOrderIterator(subtree);
+            }
+            if (!traversal.hasNext()) {
+                return false;
+            }
+            remaining--;
+            action.accept(traversal.next());
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            // Natural ordering
+            return null;
+        }
+    }
 
     public void printTree() {
         printTreeRec(root, "", true);
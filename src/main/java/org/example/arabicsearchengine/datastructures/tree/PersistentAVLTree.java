@@ -0,0 +1,507 @@
+package org.example.arabicsearchengine.datastructures.tree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Persistent (immutable-node) AVL tree for concurrent readers.
+ * Nodes are never modified: insert and delete copy only the search path
+ * (O(log n) new nodes) and publish the new root through a volatile field.
+ * Readers take the current root once and traverse it without locks, so they
+ * always see a consistent version, even while a writer is running.
+ * Writers are serialised on the tree's monitor.
+ *
+ * @param <T> The type of data stored (must be Comparable)
+ */
+public class PersistentAVLTree<T extends Comparable<T>> implements Iterable<T> {
+
+    /** Immutable node; height and subtree size are fixed at construction. */
+    private static final class Node<T> {
+        final T data;
+        final Node<T> left;
+        final Node<T> right;
+        final int height;
+        final int size;
+
+        Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    private volatile Node<T> root;
+
+    public PersistentAVLTree() {
+        this.root = null;
+    }
+
+    private PersistentAVLTree(Node<T> root) {
+        this.root = root;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns an independent tree holding the current version, in O(1).
+     * Later writes to either tree are not visible in the other.
+     */
+    public PersistentAVLTree<T> snapshot() {
+        return new PersistentAVLTree<>(root);
+    }
+
+    public int getSize() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int getTreeHeight() {
+        return height(root);
+    }
+
+    // --- Rebalancing (builds new nodes, never mutates) ---
+
+    /** Returns a balanced node for (left, data, right), whose heights differ by at most 2. */
+    private static <T> Node<T> balance(T data, Node<T> left, Node<T> right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                // Left Left Case: single right rotation
+                return new Node<>(left.data, left.left, new Node<>(data, left.right, right));
+            }
+            // Left Right Case: double rotation
+            Node<T> pivot = left.right;
+            return new Node<>(pivot.data,
+                    new Node<>(left.data, left.left, pivot.left),
+                    new Node<>(data, pivot.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                // Right Right Case: single left rotation
+                return new Node<>(right.data, new Node<>(data, left, right.left), right.right);
+            }
+            // Right Left Case: double rotation
+            Node<T> pivot = right.left;
+            return new Node<>(pivot.data,
+                    new Node<>(data, left, pivot.left),
+                    new Node<>(right.data, pivot.right, right.right));
+        }
+        return new Node<>(data, left, right);
+    }
+
+    // --- Writes (path copying; recursion depth is bounded by the tree height) ---
+
+    /**
+     * Inserts data and publishes the new version.
+     *
+     * @return true if inserted, false if an equal element was already present
+     */
+    public synchronized boolean insert(T data) {
+        Node<T> current = root;
+        Node<T> updated = insert(current, data);
+        if (updated == current) {
+            return false;
+        }
+        root = updated;
+        return true;
+    }
+
+    private Node<T> insert(Node<T> node, T data) {
+        if (node == null) {
+            return new Node<>(data, null, null);
+        }
+        int cmp = data.compareTo(node.data);
+        if (cmp == 0) {
+            // Duplicate - keep the existing version
+            return node;
+        }
+        if (cmp < 0) {
+            Node<T> left = insert(node.left, data);
+            return left == node.left ? node : balance(node.data, left, node.right);
+        }
+        Node<T> right = insert(node.right, data);
+        return right == node.right ? node : balance(node.data, node.left, right);
+    }
+
+    /**
+     * Adds all elements and publishes them as one new version, so readers see
+     * either none or all of the batch. Large batches are merged with the current
+     * contents and rebuilt bottom-up; elements already present keep their identity.
+     *
+     * @return The elements that were actually added, in sorted order
+     */
+    public synchronized List<T> addAll(Collection<? extends T> elements) {
+        List<T> incoming = new ArrayList<>(elements);
+        incoming.sort(null);
+        Node<T> current = root;
+        List<T> added = new ArrayList<>();
+
+        int log2Size = 32 - Integer.numberOfLeadingZeros(size(current));
+        if ((long) incoming.size() * log2Size < size(current)) {
+            Node<T> updated = current;
+            for (T element : incoming) {
+                Node<T> next = insert(updated, element);
+                if (next != updated) {
+                    added.add(element);
+                    updated = next;
+                }
+            }
+            root = updated;
+            return added;
+        }
+
+        List<T> existing = toList(current);
+        List<T> merged = new ArrayList<>(existing.size() + incoming.size());
+        int i = 0;
+        for (T element : incoming) {
+            while (i < existing.size() && existing.get(i).compareTo(element) < 0) {
+                merged.add(existing.get(i++));
+            }
+            boolean present = (i < existing.size() && existing.get(i).compareTo(element) == 0)
+                    || (!merged.isEmpty() && merged.get(merged.size() - 1).compareTo(element) == 0);
+            if (!present) {
+                merged.add(element);
+                added.add(element);
+            }
+        }
+        while (i < existing.size()) {
+            merged.add(existing.get(i++));
+        }
+        root = buildBalanced(merged, 0, merged.size());
+        return added;
+    }
+
+    /**
+     * Removes and adds elements, then publishes the result as one new version,
+     * so readers see either the old contents or all of the change. Each element
+     * copies only its search path; untouched subtrees are shared.
+     *
+     * @param removed Receives the elements actually removed (the stored instances)
+     * @param added   Receives the elements actually added
+     */
+    public synchronized void update(Collection<? extends T> removals, Collection<? extends T> additions,
+                                    List<T> removed, List<T> added) {
+        Node<T> updated = root;
+        for (T key : removals) {
+            int before = removed.size();
+            Node<T> next = delete(updated, key::compareTo, removed);
+            if (removed.size() > before) {
+                updated = next;
+            }
+        }
+        for (T element : additions) {
+            Node<T> next = insert(updated, element);
+            if (next != updated) {
+                added.add(element);
+                updated = next;
+            }
+        }
+        root = updated;
+    }
+
+    private static <T> Node<T> buildBalanced(List<T> sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node<>(sorted.get(mid),
+                buildBalanced(sorted, from, mid),
+                buildBalanced(sorted, mid + 1, to));
+    }
+
+    public void delete(T key) {
+        deleteWhere(key::compareTo);
+    }
+
+    /**
+     * Deletes the element whose extracted key equals key and publishes the new version.
+     *
+     * @return The removed element, or null if none matched
+     */
+    public <K> T deleteByKey(K key, Function<? super T, ? extends K> keyExtractor,
+                             Comparator<? super K> comparator) {
+        return deleteWhere(data -> comparator.compare(key, keyExtractor.apply(data)));
+    }
+
+    private synchronized T deleteWhere(ToIntFunction<T> probe) {
+        List<T> removed = new ArrayList<>(1);
+        Node<T> updated = delete(root, probe, removed);
+        if (removed.isEmpty()) {
+            return null;
+        }
+        root = updated;
+        return removed.get(0);
+    }
+
+    private Node<T> delete(Node<T> node, ToIntFunction<T> probe, List<T> removed) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = probe.applyAsInt(node.data);
+        if (cmp < 0) {
+            Node<T> left = delete(node.left, probe, removed);
+            return left == node.left ? node : balance(node.data, left, node.right);
+        }
+        if (cmp > 0) {
+            Node<T> right = delete(node.right, probe, removed);
+            return right == node.right ? node : balance(node.data, node.left, right);
+        }
+        removed.add(node.data);
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        // Node with two children: the in-order successor takes its place
+        Node<T> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.data, node.left, deleteMin(node.right));
+    }
+
+    private Node<T> deleteMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.data, deleteMin(node.left), node.right);
+    }
+
+    // --- Reads (lock-free; each works on the root read at entry) ---
+
+    public T search(T key) {
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.data);
+            if (cmp == 0) {
+                return node.data;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /** Searches by a key derived from the stored elements; see AVLTree.searchByKey. */
+    public <K> T searchByKey(K key, Function<? super T, ? extends K> keyExtractor,
+                             Comparator<? super K> comparator) {
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, keyExtractor.apply(node.data));
+            if (cmp == 0) {
+                return node.data;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    public boolean contains(T key) {
+        return search(key) != null;
+    }
+
+    /** Returns the number of elements whose extracted key is strictly less than key. */
+    public <K> int rankByKey(K key, Function<? super T, ? extends K> keyExtractor,
+                             Comparator<? super K> comparator) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (comparator.compare(key, keyExtractor.apply(node.data)) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the element at position k in sorted order.
+     *
+     * @throws IndexOutOfBoundsException if k is not in [0, size)
+     */
+    public T select(int k) {
+        Node<T> node = root;
+        if (k < 0 || k >= size(node)) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of range for size " + size(node));
+        }
+        while (true) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k == leftSize) {
+                return node.data;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /** Returns up to count elements starting at rank fromRank, all from one version. */
+    public List<T> slice(int fromRank, int count) {
+        Node<T> version = root;
+        int from = Math.max(0, Math.min(fromRank, size(version)));
+        int n = Math.max(0, Math.min(count, size(version) - from));
+        List<T> list = new ArrayList<>(n);
+        Iterator<T> it = new InOrderIterator<>(version, from);
+        while (list.size() < n) {
+            list.add(it.next());
+        }
+        return list;
+    }
+
+    public List<T> toList() {
+        return toList(root);
+    }
+
+    private static <T> List<T> toList(Node<T> version) {
+        List<T> list = new ArrayList<>(size(version));
+        new InOrderIterator<>(version, 0).forEachRemaining(list::add);
+        return list;
+    }
+
+    /** Iterates the version current at the time of the call; never fails on concurrent writes. */
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator<>(root, 0);
+    }
+
+    /** Returns an exact-sized spliterator over the current version that splits on subtrees. */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new TreeSpliterator<>(null, root);
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /** In-order traversal from a given rank, driven by an explicit stack. */
+    private static final class InOrderIterator<T> implements Iterator<T> {
+        private final Object[] stack;
+        private int depth;
+
+        InOrderIterator(Node<T> start, int skip) {
+            this.stack = new Object[height(start) + 1];
+            Node<T> node = start;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (skip <= leftSize) {
+                    stack[depth++] = node;
+                    if (skip == leftSize) {
+                        break;
+                    }
+                    node = node.left;
+                } else {
+                    skip -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (depth == 0) {
+                throw new NoSuchElementException();
+            }
+            Node<T> node = (Node<T>) stack[--depth];
+            for (Node<T> next = node.right; next != null; next = next.left) {
+                stack[depth++] = next;
+            }
+            return node.data;
+        }
+    }
+
+    /** Head element followed by a whole subtree; see AVLTree's spliterator. */
+    private static final class TreeSpliterator<T> implements Spliterator<T> {
+        private T head;
+        private Node<T> subtree;
+        private Iterator<T> traversal;
+        private long remaining;
+
+        TreeSpliterator(T head, Node<T> subtree) {
+            this.head = head;
+            this.subtree = subtree;
+            this.remaining = (head != null ? 1 : 0) + size(subtree);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (traversal != null || subtree == null || subtree.left == null) {
+                return null;
+            }
+            Node<T> node = subtree;
+            Spliterator<T> prefix = new TreeSpliterator<>(head, node.left);
+            head = node.data;
+            subtree = node.right;
+            remaining = 1 + size(subtree);
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (head != null) {
+                T element = head;
+                head = null;
+                remaining--;
+                action.accept(element);
+                return true;
+            }
+            if (traversal == null) {
+                traversal = new InOrderIterator<>(subtree, 0);
+            }
+            if (!traversal.hasNext()) {
+                return false;
+            }
+            remaining--;
+            action.accept(traversal.next());
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            // Natural ordering
+            return null;
+        }
+    }
+}
@@ -2,19 +2,26 @@ package org.example.arabicsearchengine.models;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DerivedWord {
     private final String word;
     private final Root root;
     private final Pattern pattern;
-    private int frequency;
+    // Striped counter, so concurrent validations of the same word never lose an increment
+    private final LongAdder frequency = new LongAdder();
     private boolean validated;
 
     public DerivedWord(String word, Root root, Pattern pattern) {
+        this(word, root, pattern, 0);
+    }
+
+    /** Creates a word with a frequency already counted elsewhere, e.g. in a DerivedWordStore. */
+    public DerivedWord(String word, Root root, Pattern pattern, int frequency) {
         this.word = word;
         this.root = root;
         this.pattern = pattern;
-        this.frequency = 0;
+        this.frequency.add(frequency);
         this.validated = true;
     }
 
@@ -31,7 +38,7 @@ public class DerivedWord {
     }
 
     public int getFrequency() {
-        return frequency;
+        return frequency.intValue();
     }
 
     public boolean isValidated() {
@@ -39,7 +46,18 @@ public class DerivedWord {
     }
 
     public void incrementFrequency() {
-        this.frequency++;
+        frequency.increment();
+    }
+
+    /**
+     * Raises the frequency to at least the given value, e.g. when restoring a
+     * saved count. Not atomic with concurrent increments; meant for startup.
+     */
+    public void raiseFrequency(int frequency) {
+        long missing = frequency - this.frequency.sum();
+        if (missing > 0) {
+            this.frequency.add(missing);
+        }
     }
 
     public void setValidated(boolean validated) {
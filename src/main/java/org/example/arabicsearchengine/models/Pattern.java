@@ -7,21 +7,52 @@ public class Pattern {
     private final String structure;       // Abstract structure for transformation
     private String description;           // Human-readable description
 
+    // Compiled form of the structure, built once per pattern
+    private final char[] template;        // Structure characters (placeholders left in place)
+    private final int[] slotOffsets;      // Positions of the ف/ع/ل placeholders in template
+    private final int[] slotLetters;      // Root letter index (0 = R1, 1 = R2, 2 = R3) for each slot
+
     // Arabic letters used as placeholders in patterns
     public static final char FA = 'ف';   // Placeholder for R1
     public static final char AIN = 'ع';  // Placeholder for R2
     public static final char LAM = 'ل';  // Placeholder for R3
 
     public Pattern(String patternId, String structure) {
-        this.patternId = patternId;
-        this.structure = structure;
-        this.description = "";
+        this(patternId, structure, "");
     }
 
     public Pattern(String patternId, String structure, String description) {
         this.patternId = patternId;
         this.structure = structure;
         this.description = description;
+
+        this.template = structure.toCharArray();
+        int slotCount = 0;
+        for (char c : template) {
+            if (slotIndex(c) >= 0) {
+                slotCount++;
+            }
+        }
+        this.slotOffsets = new int[slotCount];
+        this.slotLetters = new int[slotCount];
+        int k = 0;
+        for (int i = 0; i < template.length; i++) {
+            int slot = slotIndex(template[i]);
+            if (slot >= 0) {
+                slotOffsets[k] = i;
+                slotLetters[k] = slot;
+                k++;
+            }
+        }
+    }
+
+    /** Returns 0, 1 or 2 for the ف/ع/ل placeholders, -1 for any other character. */
+    private static int slotIndex(char c) {
+        return c == FA ? 0 : c == AIN ? 1 : c == LAM ? 2 : -1;
+    }
+
+    private static char letter(int slot, char r1, char r2, char r3) {
+        return slot == 0 ? r1 : slot == 1 ? r2 : r3;
     }
 
     /**
@@ -32,21 +63,90 @@ public class Pattern {
      * @return The generated Arabic word
      */
     public String applyToRoot(Root root) {
-        StringBuilder result = new StringBuilder();
-
-        for (char c : structure.toCharArray()) {
-            if (c == FA) {
-                result.append(root.getR1());
-            } else if (c == AIN) {
-                result.append(root.getR2());
-            } else if (c == LAM) {
-                result.append(root.getR3());
-            } else {
-                result.append(c);
+        char[] result = template.clone();
+        for (int k = 0; k < slotOffsets.length; k++) {
+            result[slotOffsets[k]] = letter(slotLetters[k], root.getR1(), root.getR2(), root.getR3());
+        }
+        return new String(result);
+    }
+
+    /**
+     * Writes the word derived from the given root letters into a caller-supplied buffer.
+     * Performs no allocation.
+     *
+     * @param buffer Destination, must have room for length() characters after offset
+     * @return The number of characters written
+     */
+    public int writeTo(char r1, char r2, char r3, char[] buffer, int offset) {
+        System.arraycopy(template, 0, buffer, offset, template.length);
+        for (int k = 0; k < slotOffsets.length; k++) {
+            buffer[offset + slotOffsets[k]] = letter(slotLetters[k], r1, r2, r3);
+        }
+        return template.length;
+    }
+
+    /** Writes the word derived from the given root into a caller-supplied buffer. */
+    public int writeTo(Root root, char[] buffer, int offset) {
+        return writeTo(root.getR1(), root.getR2(), root.getR3(), buffer, offset);
+    }
+
+    /**
+     * Checks whether applying this pattern to the given root letters yields word,
+     * without building the derived word.
+     */
+    public boolean matches(CharSequence word, char r1, char r2, char r3) {
+        if (word == null || word.length() != template.length) {
+            return false;
+        }
+        for (int i = 0; i < template.length; i++) {
+            char c = template[i];
+            int slot = slotIndex(c);
+            char expected = slot < 0 ? c : letter(slot, r1, r2, r3);
+            if (word.charAt(i) != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Checks whether applying this pattern to root yields word, without allocating. */
+    public boolean matches(CharSequence word, Root root) {
+        return matches(word, root.getR1(), root.getR2(), root.getR3());
+    }
+
+    /**
+     * Reverses the pattern: if word fits this skeleton, stores R1/R2/R3 in letters.
+     * Non-slot characters must match exactly and a repeated slot must hold the same letter.
+     *
+     * @param letters Destination array of at least 3 characters
+     * @return true if word fits the pattern and every root letter was determined
+     */
+    public boolean extractRootLetters(CharSequence word, char[] letters) {
+        if (word == null || word.length() != template.length) {
+            return false;
+        }
+        letters[0] = letters[1] = letters[2] = 0;
+        int k = 0;
+        for (int i = 0; i < template.length; i++) {
+            char w = word.charAt(i);
+            if (k < slotOffsets.length && slotOffsets[k] == i) {
+                int slot = slotLetters[k++];
+                if (letters[slot] == 0) {
+                    letters[slot] = w;
+                } else if (letters[slot] != w) {
+                    return false;
+                }
+            } else if (template[i] != w) {
+                return false;
             }
         }
+        // A pattern missing one of the slots cannot determine the root
+        return letters[0] != 0 && letters[1] != 0 && letters[2] != 0;
+    }
 
-        return result.toString();
+    /** Returns the length of every word generated by this pattern. */
+    public int length() {
+        return template.length;
     }
 
     // --- Getters ---
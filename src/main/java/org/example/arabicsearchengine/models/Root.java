@@ -1,26 +1,40 @@
 package org.example.arabicsearchengine.models;
 
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.utils.RootCodec;
+
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Root implements Comparable<Root> {
     private final String rootLetters;
+    private final int code;
+    // Insertion order for display; copy-on-write so readers never see a partial add
     private List<DerivedWord>  derivedWords;
+    // word -> entry of derivedWords, created on the first add; guarded by this
+    private HashTable<String, DerivedWord> derivedWordIndex;
 
     public Root(String rootLetters) {
         if (rootLetters == null || rootLetters.length() != 3) {
             throw new IllegalArgumentException("Root must contain exactly 3 Arabic letters");
         }
         this.rootLetters = rootLetters;
-        this.derivedWords = new ArrayList<>();
+        this.code = RootCodec.encode(rootLetters);
+        this.derivedWords = new CopyOnWriteArrayList<>();
     }
 
     public String getRootLetters() {
         return rootLetters;
     }
 
+    /** Returns the packed letter code (see RootCodec), or RootCodec.INVALID. */
+    public int getCode() {
+        return code;
+    }
+
     public char getR1() {
         return this.getRootLetters().charAt(0);
     }
@@ -33,25 +47,55 @@ public class Root implements Comparable<Root> {
         return this.getRootLetters().charAt(2);
     }
 
+    /** Returns the derived words in the order first added, as a read-only view safe to iterate while words are added. */
     public List<DerivedWord> getDerivedWords() {
-        return derivedWords;
+        return Collections.unmodifiableList(derivedWords);
+    }
+
+    public synchronized void setDerivedWords(List<DerivedWord> derivedWords) {
+        this.derivedWords = new CopyOnWriteArrayList<>(derivedWords);
+        this.derivedWordIndex = null;
+    }
+
+    /**
+     * Adds a derived word, or increments the frequency of the entry with the same
+     * word. The entry is found through a per-root index in O(1); only the lookup
+     * and a first insertion hold the root's lock, and the frequency counter is
+     * thread-safe, so concurrent callers never lose an update.
+     *
+     * @return The stored entry: derivedWord itself if it was added, otherwise
+     *         the existing entry that was counted
+     */
+    public DerivedWord addDerivedWord(DerivedWord derivedWord) {
+        DerivedWord existing;
+        synchronized (this) {
+            existing = index().get(derivedWord.getWord());
+            if (existing == null) {
+                derivedWordIndex.put(derivedWord.getWord(), derivedWord);
+                derivedWords.add(derivedWord);
+                return derivedWord;
+            }
+        }
+        existing.incrementFrequency();
+        return existing;
     }
 
-    public void setDerivedWords(List<DerivedWord> derivedWords) {
-        this.derivedWords = derivedWords;
+    /** Returns the entry for word, or null if it was never added. */
+    public synchronized DerivedWord findDerivedWord(String word) {
+        return index().get(word);
     }
 
-    public void addDerivedWord(DerivedWord derivedWord) {
-        if(!getDerivedWords().contains(derivedWord)) {
-            this.derivedWords.add(derivedWord);
-        }else{
-            for (DerivedWord derivedWord1 : derivedWords) {
-                if (derivedWord1.equals(derivedWord)) {
-                    derivedWord1.incrementFrequency();
-                    return;
+    /** Returns the word -> entry index, building it from the list if needed. Caller holds the lock. */
+    private HashTable<String, DerivedWord> index() {
+        if (derivedWordIndex == null) {
+            derivedWordIndex = new HashTable<>(Math.max(8, derivedWords.size() * 2));
+            for (DerivedWord word : derivedWords) {
+                if (!derivedWordIndex.contains(word.getWord())) {
+                    derivedWordIndex.put(word.getWord(), word);
                 }
             }
         }
+        return derivedWordIndex;
     }
 
     @Override
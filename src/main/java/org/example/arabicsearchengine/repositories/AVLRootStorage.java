@@ -0,0 +1,87 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.datastructures.tree.AVLTree;
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Function;
+
+/** Root storage backed by an AVL tree: O(log n) operations, sorted by construction. */
+class AVLRootStorage implements RootStorage {
+
+    // Lookups go through the letters directly, so no search-key Root is allocated
+    private static final Function<Root, String> LETTERS = Root::getRootLetters;
+    private static final Comparator<String> LETTER_ORDER = Comparator.naturalOrder();
+
+    private final AVLTree<Root> tree = new AVLTree<>();
+
+    @Override
+    public boolean insert(Root root) {
+        return tree.insert(root);
+    }
+
+    @Override
+    public List<Root> insertAll(Collection<Root> roots) {
+        return tree.addAll(roots);
+    }
+
+    @Override
+    public Root find(String letters) {
+        return tree.searchByKey(letters, LETTERS, LETTER_ORDER);
+    }
+
+    @Override
+    public Root remove(String letters) {
+        return tree.deleteByKey(letters, LETTERS, LETTER_ORDER);
+    }
+
+    @Override
+    public int size() {
+        return tree.getSize();
+    }
+
+    @Override
+    public int rank(String key) {
+        return tree.rankByKey(key, LETTERS, LETTER_ORDER);
+    }
+
+    @Override
+    public Root select(int k) {
+        return tree.select(k);
+    }
+
+    @Override
+    public List<Root> slice(int fromRank, int count) {
+        return tree.slice(fromRank, count);
+    }
+
+    @Override
+    public List<Root> toList() {
+        return tree.toList();
+    }
+
+    @Override
+    public RootStorage snapshot() {
+        AVLRootStorage copy = new AVLRootStorage();
+        copy.tree.buildFrom(tree.toList());
+        return copy;
+    }
+
+    @Override
+    public Iterator<Root> iterator() {
+        return tree.iterator();
+    }
+
+    @Override
+    public Spliterator<Root> spliterator() {
+        return tree.spliterator();
+    }
+
+    AVLTree<Root> getTree() {
+        return tree;
+    }
+}
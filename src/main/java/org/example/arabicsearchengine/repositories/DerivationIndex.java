@@ -0,0 +1,217 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reverse derivation index: maps every surface word that can be generated
+ * from the stored roots and patterns to the (root, pattern) pairs producing it.
+ * Identifying a word becomes a single hash probe instead of a roots × patterns scan.
+ * The index registers itself on both repositories and is updated incrementally
+ * on every save/delete.
+ */
+public class DerivationIndex {
+
+    // Approximate object sizes (64-bit JVM, compressed oops) used for memory reporting
+    private static final int OBJECT_HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int HASH_NODE_BYTES = align(OBJECT_HEADER + 3 * REFERENCE);
+    private static final int DERIVATION_BYTES = align(OBJECT_HEADER + 2 * REFERENCE);
+    private static final int LIST_BYTES = align(OBJECT_HEADER + 2 * 4 + REFERENCE);
+    private static final int STRING_BYTES = align(OBJECT_HEADER + 2 * 4 + REFERENCE + 2);
+
+    private final RootRepository rootRepository;
+    private final PatternRepository patternRepository;
+    private final HashTable<String, List<Derivation>> index;
+    private final RepositoryListener<Root> rootListener;
+    private final RepositoryListener<Pattern> patternListener;
+    private int entryCount;
+    private long wordChars;
+
+    /** Builds the index over the current contents, then keeps it updated. */
+    public static DerivationIndex attach(RootRepository rootRepository, PatternRepository patternRepository) {
+        DerivationIndex derivationIndex = new DerivationIndex(rootRepository, patternRepository);
+        derivationIndex.rebuild();
+        rootRepository.addListener(derivationIndex.rootListener);
+        patternRepository.addListener(derivationIndex.patternListener);
+        return derivationIndex;
+    }
+
+    private DerivationIndex(RootRepository rootRepository, PatternRepository patternRepository) {
+        this.rootRepository = rootRepository;
+        this.patternRepository = patternRepository;
+        this.index = new HashTable<>();
+
+        this.rootListener = new RepositoryListener<>() {
+            @Override
+            public void onSaved(Root root) {
+                indexRoot(root);
+            }
+
+            @Override
+            public void onDeleted(Root root) {
+                unindexRoot(root);
+            }
+        };
+        this.patternListener = new RepositoryListener<>() {
+            @Override
+            public void onSaved(Pattern pattern) {
+                indexPattern(pattern);
+            }
+
+            @Override
+            public void onDeleted(Pattern pattern) {
+                unindexPattern(pattern);
+            }
+
+            @Override
+            public void onCleared() {
+                rebuild();
+            }
+        };
+    }
+
+    /** Stops tracking the repositories and releases the index contents. */
+    public void detach() {
+        rootRepository.removeListener(rootListener);
+        patternRepository.removeListener(patternListener);
+        index.clear();
+        entryCount = 0;
+        wordChars = 0;
+    }
+
+    /** Returns every (root, pattern) pair generating the given word, or an empty list. */
+    public List<Derivation> lookup(String word) {
+        if (word == null) {
+            return Collections.emptyList();
+        }
+        List<Derivation> derivations = index.get(word);
+        return derivations == null ? Collections.emptyList() : Collections.unmodifiableList(derivations);
+    }
+
+    /** Returns the first (root, pattern) pair generating the given word, or null. */
+    public Derivation findFirst(String word) {
+        if (word == null) {
+            return null;
+        }
+        List<Derivation> derivations = index.get(word);
+        return derivations == null || derivations.isEmpty() ? null : derivations.get(0);
+    }
+
+    /** Discards the index and rebuilds it from the current repository contents. */
+    public void rebuild() {
+        index.clear();
+        entryCount = 0;
+        wordChars = 0;
+        List<Pattern> patterns = patternRepository.findAll();
+        for (Root root : rootRepository) {
+            for (Pattern pattern : patterns) {
+                add(pattern.applyToRoot(root), root, pattern);
+            }
+        }
+    }
+
+    // --- Incremental maintenance ---
+
+    private void indexRoot(Root root) {
+        for (Pattern pattern : patternRepository.findAll()) {
+            add(pattern.applyToRoot(root), root, pattern);
+        }
+    }
+
+    private void unindexRoot(Root root) {
+        for (Pattern pattern : patternRepository.findAll()) {
+            remove(pattern.applyToRoot(root), root, pattern);
+        }
+    }
+
+    private void indexPattern(Pattern pattern) {
+        for (Root root : rootRepository) {
+            add(pattern.applyToRoot(root), root, pattern);
+        }
+    }
+
+    private void unindexPattern(Pattern pattern) {
+        for (Root root : rootRepository) {
+            remove(pattern.applyToRoot(root), root, pattern);
+        }
+    }
+
+    private void add(String word, Root root, Pattern pattern) {
+        List<Derivation> derivations = index.get(word);
+        if (derivations == null) {
+            derivations = new ArrayList<>(1);
+            index.put(word, derivations);
+            wordChars += word.length();
+        }
+        derivations.add(new Derivation(root, pattern));
+        entryCount++;
+    }
+
+    private void remove(String word, Root root, Pattern pattern) {
+        List<Derivation> derivations = index.get(word);
+        if (derivations == null) {
+            return;
+        }
+        if (derivations.removeIf(d -> d.root.equals(root) && d.pattern.equals(pattern))) {
+            entryCount--;
+        }
+        if (derivations.isEmpty()) {
+            index.remove(word);
+            wordChars -= word.length();
+        }
+    }
+
+    // --- Statistics ---
+
+    /** Returns the number of distinct surface words in the index. */
+    public int getWordCount() {
+        return index.getSize();
+    }
+
+    /** Returns the number of (word, root, pattern) entries in the index. */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Estimates the heap used by the index in bytes: bucket array, chain nodes,
+     * key strings, per-word lists and derivation entries.
+     * Root and Pattern objects are shared with the repositories and not counted.
+     */
+    public long estimateMemoryBytes() {
+        long words = index.getSize();
+        long bucketArray = align(OBJECT_HEADER + 4 + (long) REFERENCE * index.getCapacity());
+        long keys = words * STRING_BYTES + align(16L * words + 2 * wordChars);
+        long lists = words * (LIST_BYTES + align(16 + REFERENCE));
+        long entries = (long) entryCount * (DERIVATION_BYTES + REFERENCE);
+        return bucketArray + words * HASH_NODE_BYTES + keys + lists + entries;
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /** A (root, pattern) pair that generates an indexed word. */
+    public static class Derivation {
+        private final Root root;
+        private final Pattern pattern;
+
+        public Derivation(Root root, Pattern pattern) {
+            this.root = root;
+            this.pattern = pattern;
+        }
+
+        public Root getRoot() { return root; }
+        public Pattern getPattern() { return pattern; }
+    }
+}
@@ -0,0 +1,514 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashFunction;
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.utils.RootCodec;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact store of generated words and their frequencies.
+ * A derived word is fully determined by its root and pattern, so an entry keeps
+ * only the packed root code (see RootCodec), a short pattern index and a
+ * frequency, in parallel primitive arrays; the word itself is rebuilt on demand.
+ * Entries of one root are chained in insertion order, and an open-addressing
+ * map from the packed (root, pattern) pair finds an entry in one probe.
+ * Roots outside the RootCodec range get ids from CODE_SPACE upwards.
+ * removeRoot unlinks a root's entries and puts them on a free list that
+ * later records reuse.
+ * The root id, pattern index and frequency arrays are split into pages.
+ * snapshot() hands out the current pages, and the store copies a page before
+ * its first change after a snapshot. Taking a snapshot therefore copies only
+ * the page tables, and the first later change to a page copies that page.
+ * wordsOf returns a List of DerivedWord views so the GUI and CLI keep working.
+ * All methods are synchronized; a Snapshot needs no lock.
+ */
+public class DerivedWordStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_PATTERNS = 1 << Short.SIZE;
+    private static final int NONE = -1;
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /** Receives the entries of a Snapshot. */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(String rootLetters, Pattern pattern, int frequency);
+    }
+
+    // Entry fields, PAGE_SIZE entries per page; a freed entry has root id NONE
+    private int[][] rootIdPages = new int[1][];
+    private short[][] patternIndexPages = new short[1][];
+    private int[][] frequencyPages = new int[1][];
+    private int[] pageGenerations = new int[1];   // Generation that last copied or created each page
+    private int pageCount;
+    private int generation;                         // Bumped by snapshot(); older pages are shared
+    private int[] nextInRoot = new int[INITIAL_CAPACITY];   // Next entry of the root, or of the free list
+    private int size;          // Entries allocated, including freed ones
+    private int freeEntries = NONE;
+    private int freeCount;
+
+    private final LongIntMap entries = new LongIntMap();       // (root id, pattern index) -> entry
+    private final LongIntMap firstEntries = new LongIntMap();  // root id -> first entry
+    private final LongIntMap lastEntries = new LongIntMap();   // root id -> last entry
+
+    private Pattern[] patterns = new Pattern[16];
+    private int patternCount;
+    private final HashTable<String, Integer> patternIndexById = new HashTable<>();
+    private final HashTable<String, Integer> overflowRootIds = new HashTable<>();
+    private final List<String> overflowRoots = new ArrayList<>();
+
+    //  ---- Ids ----
+
+    private int rootId(Root root, boolean create) {
+        if (root.getCode() != RootCodec.INVALID) {
+            return root.getCode();
+        }
+        Integer id = overflowRootIds.get(root.getRootLetters());
+        if (id == null && create) {
+            id = RootCodec.CODE_SPACE + overflowRoots.size();
+            overflowRootIds.put(root.getRootLetters(), id);
+            overflowRoots.add(root.getRootLetters());
+        }
+        return id == null ? NONE : id;
+    }
+
+    /** Returns the index of the pattern's ID, keeping the latest Pattern object for it. */
+    private int patternIndex(Pattern pattern, boolean create) {
+        Integer index = patternIndexById.get(pattern.getPatternId());
+        if (index == null) {
+            if (!create) {
+                return NONE;
+            }
+            if (patternCount == MAX_PATTERNS) {
+                throw new IllegalStateException("Too many patterns for a short index");
+            }
+            index = patternCount++;
+            if (index == patterns.length) {
+                patterns = Arrays.copyOf(patterns, patterns.length * 2);
+            }
+            patternIndexById.put(pattern.getPatternId(), index);
+        }
+        // A modified pattern keeps its ID and index, so its words follow the new structure
+        patterns[index] = pattern;
+        return index;
+    }
+
+    private static long key(int rootId, int patternIndex) {
+        return (long) rootId << Short.SIZE | patternIndex;
+    }
+
+    //  ---- Core Operations ----
+
+    /**
+     * Records one generation of pattern applied to root: adds an entry with
+     * frequency 0 the first time, and increments its frequency afterwards.
+     *
+     * @return The entry
+     */
+    public synchronized int record(Root root, Pattern pattern) {
+        int rootId = rootId(root, true);
+        int patternIndex = patternIndex(pattern, true);
+        long key = key(rootId, patternIndex);
+        int entry = entries.get(key);
+        if (entry != NONE) {
+            frequencyPages[writablePage(entry)][entry & PAGE_MASK]++;
+            return entry;
+        }
+
+        entry = allocate();
+        int page = writablePage(entry);
+        rootIdPages[page][entry & PAGE_MASK] = rootId;
+        patternIndexPages[page][entry & PAGE_MASK] = (short) patternIndex;
+        frequencyPages[page][entry & PAGE_MASK] = 0;
+        nextInRoot[entry] = NONE;
+        entries.put(key, entry);
+        int last = lastEntries.get(rootId);
+        if (last == NONE) {
+            firstEntries.put(rootId, entry);
+        } else {
+            nextInRoot[last] = entry;
+        }
+        lastEntries.put(rootId, entry);
+        return entry;
+    }
+
+    /**
+     * Adds the entry of pattern applied to root with a frequency counted earlier,
+     * e.g. read back from a DictionarySnapshot or a WriteAheadLog. An existing
+     * entry keeps the larger of the two frequencies, so replaying a record twice
+     * or out of order never lowers a count.
+     *
+     * @return The entry
+     */
+    public synchronized int restore(Root root, Pattern pattern, int frequency) {
+        int entry = find(root, pattern);
+        if (entry == NONE) {
+            entry = record(root, pattern);
+        }
+        int[] page = frequencyPages[writablePage(entry)];
+        page[entry & PAGE_MASK] = Math.max(page[entry & PAGE_MASK], frequency);
+        return entry;
+    }
+
+    /**
+     * Forgets every word of root and its frequencies, e.g. when the root is
+     * deleted, so a root added again starts with no words.
+     *
+     * @return The number of entries removed
+     */
+    public synchronized int removeRoot(Root root) {
+        int rootId = rootId(root, false);
+        if (rootId == NONE) {
+            return 0;
+        }
+        int removed = 0;
+        int entry = firstEntries.get(rootId);
+        while (entry != NONE) {
+            int next = nextInRoot[entry];
+            int page = writablePage(entry);
+            entries.remove(key(rootId, patternIndexPages[page][entry & PAGE_MASK] & 0xFFFF));
+            rootIdPages[page][entry & PAGE_MASK] = NONE;
+            nextInRoot[entry] = freeEntries;
+            freeEntries = entry;
+            removed++;
+            entry = next;
+        }
+        firstEntries.remove(rootId);
+        lastEntries.remove(rootId);
+        freeCount += removed;
+        return removed;
+    }
+
+    private int allocate() {
+        if (freeEntries != NONE) {
+            int entry = freeEntries;
+            freeEntries = nextInRoot[entry];
+            freeCount--;
+            return entry;
+        }
+        int entry = size++;
+        if (entry == nextInRoot.length) {
+            nextInRoot = Arrays.copyOf(nextInRoot, entry * 2);
+        }
+        if (entry >>> PAGE_SHIFT == pageCount) {
+            addPage();
+        }
+        return entry;
+    }
+
+    private void addPage() {
+        if (pageCount == rootIdPages.length) {
+            int capacity = pageCount * 2;
+            rootIdPages = Arrays.copyOf(rootIdPages, capacity);
+            patternIndexPages = Arrays.copyOf(patternIndexPages, capacity);
+            frequencyPages = Arrays.copyOf(frequencyPages, capacity);
+            pageGenerations = Arrays.copyOf(pageGenerations, capacity);
+        }
+        rootIdPages[pageCount] = new int[PAGE_SIZE];
+        patternIndexPages[pageCount] = new short[PAGE_SIZE];
+        frequencyPages[pageCount] = new int[PAGE_SIZE];
+        pageGenerations[pageCount] = generation;
+        pageCount++;
+    }
+
+    /** Returns the page of entry, first copying it if a snapshot still shares it. */
+    private int writablePage(int entry) {
+        int page = entry >>> PAGE_SHIFT;
+        if (pageGenerations[page] != generation) {
+            rootIdPages[page] = rootIdPages[page].clone();
+            patternIndexPages[page] = patternIndexPages[page].clone();
+            frequencyPages[page] = frequencyPages[page].clone();
+            pageGenerations[page] = generation;
+        }
+        return page;
+    }
+
+    /** Returns the entry of (root, pattern), or -1 if it was never recorded. */
+    public synchronized int find(Root root, Pattern pattern) {
+        int rootId = rootId(root, false);
+        Integer patternIndex = patternIndexById.get(pattern.getPatternId());
+        if (rootId == NONE || patternIndex == null) {
+            return NONE;
+        }
+        return entries.get(key(rootId, patternIndex));
+    }
+
+    public synchronized int getFrequency(int entry) {
+        checkEntry(entry);
+        return frequencyPages[entry >>> PAGE_SHIFT][entry & PAGE_MASK];
+    }
+
+    public synchronized Pattern getPattern(int entry) {
+        checkEntry(entry);
+        return patterns[patternIndexPages[entry >>> PAGE_SHIFT][entry & PAGE_MASK] & 0xFFFF];
+    }
+
+    public synchronized String getRootLetters(int entry) {
+        checkEntry(entry);
+        int rootId = rootIdPages[entry >>> PAGE_SHIFT][entry & PAGE_MASK];
+        return rootId < RootCodec.CODE_SPACE ? RootCodec.decode(rootId) : overflowRoots.get(rootId - RootCodec.CODE_SPACE);
+    }
+
+    /** Builds the surface word of an entry. */
+    public synchronized String getWord(int entry) {
+        String letters = getRootLetters(entry);
+        Pattern pattern = getPattern(entry);
+        char[] buffer = new char[pattern.length()];
+        pattern.writeTo(letters.charAt(0), letters.charAt(1), letters.charAt(2), buffer, 0);
+        return new String(buffer);
+    }
+
+    private void checkEntry(int entry) {
+        if (entry < 0 || entry >= size) {
+            throw new IndexOutOfBoundsException("Entry: " + entry + ", Size: " + size);
+        }
+    }
+
+    /** Returns the entries of root in insertion order. */
+    public synchronized int[] entriesOf(Root root) {
+        int rootId = rootId(root, false);
+        if (rootId == NONE) {
+            return new int[0];
+        }
+        int[] result = new int[8];
+        int count = 0;
+        for (int entry = firstEntries.get(rootId); entry != NONE; entry = nextInRoot[entry]) {
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = entry;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Returns the words of root as DerivedWord objects built on access. The
+     * list holds the entries present when it was created; each get reads the
+     * current frequency.
+     */
+    public List<DerivedWord> wordsOf(Root root) {
+        return new WordsView(root, entriesOf(root));
+    }
+
+    /** Materializes one entry of root. */
+    public synchronized DerivedWord toDerivedWord(Root root, int entry) {
+        Pattern pattern = getPattern(entry);
+        return new DerivedWord(pattern.applyToRoot(root), root, pattern, getFrequency(entry));
+    }
+
+    private final class WordsView extends AbstractList<DerivedWord> implements RandomAccess {
+        private final Root root;
+        private final int[] entryIds;
+
+        WordsView(Root root, int[] entryIds) {
+            this.root = root;
+            this.entryIds = entryIds;
+        }
+
+        @Override
+        public DerivedWord get(int index) {
+            return toDerivedWord(root, entryIds[index]);
+        }
+
+        @Override
+        public int size() {
+            return entryIds.length;
+        }
+    }
+
+    //  ---- Snapshots ----
+
+    /**
+     * Returns the entries as they are now, safe to read on any thread while this
+     * store keeps changing. Copies the page tables, the patterns and the roots
+     * outside the RootCodec range, not the entries.
+     */
+    public synchronized Snapshot snapshot() {
+        generation++;
+        return new Snapshot(Arrays.copyOf(rootIdPages, pageCount), Arrays.copyOf(patternIndexPages, pageCount),
+                Arrays.copyOf(frequencyPages, pageCount), size, Arrays.copyOf(patterns, patternCount),
+                overflowRoots.toArray(new String[0]), size - freeCount);
+    }
+
+    /** The entries of a store at one point in time. */
+    public static final class Snapshot {
+        private final int[][] rootIdPages;
+        private final short[][] patternIndexPages;
+        private final int[][] frequencyPages;
+        private final int entryCount;       // Entries allocated, including freed ones
+        private final Pattern[] patterns;
+        private final String[] overflowRoots;
+        private final int size;
+
+        private Snapshot(int[][] rootIdPages, short[][] patternIndexPages, int[][] frequencyPages, int entryCount,
+                         Pattern[] patterns, String[] overflowRoots, int size) {
+            this.rootIdPages = rootIdPages;
+            this.patternIndexPages = patternIndexPages;
+            this.frequencyPages = frequencyPages;
+            this.entryCount = entryCount;
+            this.patterns = patterns;
+            this.overflowRoots = overflowRoots;
+            this.size = size;
+        }
+
+        /** Returns the number of words, not counting removed ones. */
+        public int getSize() {
+            return size;
+        }
+
+        /** Calls visitor for every word, in entry order rather than grouped by root. */
+        public void forEach(EntryVisitor visitor) {
+            for (int entry = 0; entry < entryCount; entry++) {
+                int rootId = rootIdPages[entry >>> PAGE_SHIFT][entry & PAGE_MASK];
+                if (rootId == NONE) {
+                    continue;
+                }
+                String letters = rootId < RootCodec.CODE_SPACE
+                        ? RootCodec.decode(rootId) : overflowRoots[rootId - RootCodec.CODE_SPACE];
+                visitor.visit(letters, patterns[patternIndexPages[entry >>> PAGE_SHIFT][entry & PAGE_MASK] & 0xFFFF],
+                        frequencyPages[entry >>> PAGE_SHIFT][entry & PAGE_MASK]);
+            }
+        }
+    }
+
+    //  -- Utility Functions
+
+    /** Returns the number of words stored, not counting removed ones. */
+    public synchronized int getSize() {
+        return size - freeCount;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == freeCount;
+    }
+
+    public synchronized void clear() {
+        // New pages, so a snapshot keeps the old ones
+        rootIdPages = new int[1][];
+        patternIndexPages = new short[1][];
+        frequencyPages = new int[1][];
+        pageGenerations = new int[1];
+        pageCount = 0;
+        size = 0;
+        freeEntries = NONE;
+        freeCount = 0;
+        entries.clear();
+        firstEntries.clear();
+        lastEntries.clear();
+    }
+
+    /** Approximate heap used by the entry arrays and maps, excluding patterns and overflow roots. */
+    public synchronized long estimateMemoryBytes() {
+        long arrays = (long) pageCount * PAGE_SIZE * (Integer.BYTES + Short.BYTES + Integer.BYTES)
+                + (long) nextInRoot.length * Integer.BYTES;
+        return arrays + entries.memoryBytes() + firstEntries.memoryBytes() + lastEntries.memoryBytes();
+    }
+
+    /**
+     * Map from non-negative long keys to int values, with linear probing over
+     * parallel primitive arrays. Absent keys read as NONE.
+     */
+    private static final class LongIntMap {
+        private static final long EMPTY = -1L;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntMap() {
+            clear();
+        }
+
+        private int slot(long key) {
+            return (int) HashFunction.mix64(key) & (keys.length - 1);
+        }
+
+        int get(long key) {
+            for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return NONE;
+        }
+
+        void put(long key, int value) {
+            int i = slot(key);
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & (keys.length - 1);
+            }
+            keys[i] = key;
+            values[i] = value;
+            // Kept at most half full, so probe runs stay short
+            if (++size * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key);
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            // Shift later keys of the probe run back so lookups still reach them
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = slot(keys[j]);
+                boolean reachable = i <= j ? (home > i && home <= j) : (home > i || home <= j);
+                if (!reachable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            keys[i] = EMPTY;
+            size--;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int j = slot(oldKeys[i]);
+                    while (keys[j] != EMPTY) {
+                        j = (j + 1) & (capacity - 1);
+                    }
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                }
+            }
+        }
+
+        void clear() {
+            keys = new long[16];
+            values = new int[16];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        long memoryBytes() {
+            return (long) keys.length * (Long.BYTES + Integer.BYTES);
+        }
+    }
+}
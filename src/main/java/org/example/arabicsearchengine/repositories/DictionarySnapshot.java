@@ -0,0 +1,458 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.utils.RootCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary image of the dictionary: roots, patterns, and derived words
+ * with their frequencies. It replaces re-parsing roots.txt and patterns.txt at
+ * startup.
+ * Layout (big-endian):
+ * <pre>
+ *   header    magic, version, creation time, section counts and offsets, CRC32
+ *   roots     int[rootCount] packed RootCodec codes, ascending (= sorted by letters)
+ *   extra     char[3 * extraRootCount] roots outside the RootCodec range, sorted
+ *   patterns  per pattern: id, structure, description as (short length, UTF-16 chars)
+ *   entries   per derived word: int root index, short pattern index, int frequency,
+ *             sorted by (root index, pattern index)
+ * </pre>
+ * A root's index is its position in roots, then in extra. The CRC32 covers the
+ * whole file except its own four bytes.
+ * open reads the file into one heap buffer, checks the checksum and that every
+ * section stays in bounds, and decodes only the patterns. Lookups read the
+ * buffer directly: containsRoot and getFrequency are binary searches. Root
+ * objects are only built when asked for. The file is not memory-mapped:
+ * a mapping lives until it is garbage collected, and on Windows it makes the
+ * atomic replace done by the next write fail.
+ */
+public class DictionarySnapshot {
+
+    public static final int MAGIC = 0x41534544;   // "ASED"
+    public static final short VERSION = 2;
+
+    private static final int CHECKSUM_OFFSET = 40;
+    private static final int HEADER_BYTES = 44;
+    private static final int ENTRY_BYTES = Integer.BYTES + Short.BYTES + Integer.BYTES;
+
+    /** Receives the derived-word entries of a snapshot, in stored order. */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(int rootIndex, int patternIndex, int frequency);
+    }
+
+    /** Receives derived words to write, by root letters and pattern ID. */
+    @FunctionalInterface
+    public interface WordVisitor {
+        void visit(String rootLetters, String patternId, int frequency);
+    }
+
+    /** Derived words to write, e.g. a DerivedWordStore.Snapshot read on a background thread. */
+    public interface WordSource {
+        /** Upper bound on the number of words forEach reports. */
+        int size();
+
+        void forEach(WordVisitor visitor);
+
+        static WordSource of(Collection<DerivedWord> words) {
+            return new WordSource() {
+                @Override
+                public int size() {
+                    return words.size();
+                }
+
+                @Override
+                public void forEach(WordVisitor visitor) {
+                    for (DerivedWord word : words) {
+                        visitor.visit(word.getRoot().getRootLetters(), word.getPattern().getPatternId(),
+                                word.getFrequency());
+                    }
+                }
+            };
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final long createdMillis;
+    private final int rootCount;
+    private final int extraRootCount;
+    private final int patternCount;
+    private final int entryCount;
+    private final int extraOffset;
+    private final int patternsOffset;
+    private final int entriesOffset;
+    private final List<Pattern> patterns;
+
+    private DictionarySnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a dictionary snapshot");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " (expected " + VERSION + ")");
+        }
+        this.createdMillis = buffer.getLong(8);
+        this.rootCount = buffer.getInt(16);
+        this.extraRootCount = buffer.getInt(20);
+        this.patternCount = buffer.getInt(24);
+        this.entryCount = buffer.getInt(28);
+        this.patternsOffset = buffer.getInt(32);
+        this.entriesOffset = buffer.getInt(36);
+        this.extraOffset = HEADER_BYTES + rootCount * Integer.BYTES;
+        if (rootCount < 0 || extraRootCount < 0 || patternCount < 0 || entryCount < 0
+                || patternsOffset != HEADER_BYTES + (long) rootCount * Integer.BYTES
+                        + (long) extraRootCount * 3 * Character.BYTES
+                || entriesOffset < patternsOffset
+                || (long) entriesOffset + (long) entryCount * ENTRY_BYTES != buffer.capacity()) {
+            throw new IOException("Corrupt dictionary snapshot");
+        }
+        if (buffer.getInt(CHECKSUM_OFFSET) != checksum(buffer)) {
+            throw new IOException("Corrupt dictionary snapshot: checksum mismatch");
+        }
+        checkRoots();
+        this.patterns = readPatterns();
+        checkEntries();
+    }
+
+    /** Coded roots must be valid codes in ascending order. */
+    private void checkRoots() throws IOException {
+        int previous = -1;
+        for (int i = 0; i < rootCount; i++) {
+            int code = buffer.getInt(HEADER_BYTES + i * Integer.BYTES);
+            if (code <= previous || code >= RootCodec.CODE_SPACE) {
+                throw new IOException("Corrupt dictionary snapshot: root " + i + " out of order");
+            }
+            previous = code;
+        }
+    }
+
+    /** Decodes the pattern section, which must end exactly where the entries start. */
+    private List<Pattern> readPatterns() throws IOException {
+        List<Pattern> result = new ArrayList<>(patternCount);
+        int offset = patternsOffset;
+        for (int i = 0; i < patternCount; i++) {
+            String id = readString(offset);
+            offset += Short.BYTES + id.length() * Character.BYTES;
+            String structure = readString(offset);
+            offset += Short.BYTES + structure.length() * Character.BYTES;
+            String description = readString(offset);
+            offset += Short.BYTES + description.length() * Character.BYTES;
+            result.add(new Pattern(id, structure, description));
+        }
+        if (offset != entriesOffset) {
+            throw new IOException("Corrupt dictionary snapshot: pattern section size mismatch");
+        }
+        return List.copyOf(result);
+    }
+
+    private String readString(int offset) throws IOException {
+        if (offset + Short.BYTES > entriesOffset) {
+            throw new IOException("Corrupt dictionary snapshot: pattern " + offset + " out of bounds");
+        }
+        int length = buffer.getShort(offset) & 0xFFFF;
+        if (offset + Short.BYTES + length * Character.BYTES > entriesOffset) {
+            throw new IOException("Corrupt dictionary snapshot: pattern " + offset + " out of bounds");
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(offset + Short.BYTES + i * Character.BYTES);
+        }
+        return new String(chars);
+    }
+
+    /** Entries must name a stored root and pattern, in strictly ascending order. */
+    private void checkEntries() throws IOException {
+        long previous = -1;
+        for (int i = 0; i < entryCount; i++) {
+            int offset = entriesOffset + i * ENTRY_BYTES;
+            int rootIndex = buffer.getInt(offset);
+            int patternIndex = buffer.getShort(offset + Integer.BYTES) & 0xFFFF;
+            long key = entryKey(rootIndex, patternIndex);
+            if (rootIndex < 0 || rootIndex >= getRootCount() || patternIndex >= patternCount || key <= previous) {
+                throw new IOException("Corrupt dictionary snapshot: entry " + i + " out of bounds");
+            }
+            previous = key;
+        }
+    }
+
+    /** CRC32 of the whole buffer except the checksum field itself. */
+    private static int checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(CHECKSUM_OFFSET).position(0));
+        crc.update(buffer.duplicate().limit(buffer.capacity()).position(HEADER_BYTES));
+        return (int) crc.getValue();
+    }
+
+    //  ---- Reading ----
+
+    /**
+     * Reads a snapshot file into memory and validates it; the file is closed on return.
+     *
+     * @throws IOException if the file is not a snapshot of this version, or is corrupt
+     */
+    public static DictionarySnapshot open(Path path) throws IOException {
+        return new DictionarySnapshot(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /** Number of roots, including those outside the RootCodec range. */
+    public int getRootCount() {
+        return rootCount + extraRootCount;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getSizeBytes() {
+        return buffer.capacity();
+    }
+
+    public String getRootLetters(int rootIndex) {
+        if (rootIndex < 0 || rootIndex >= getRootCount()) {
+            throw new IndexOutOfBoundsException("Root index: " + rootIndex + ", Count: " + getRootCount());
+        }
+        if (rootIndex < rootCount) {
+            return RootCodec.decode(buffer.getInt(HEADER_BYTES + rootIndex * Integer.BYTES));
+        }
+        int offset = extraOffset + (rootIndex - rootCount) * 3 * Character.BYTES;
+        return new String(new char[]{buffer.getChar(offset), buffer.getChar(offset + 2), buffer.getChar(offset + 4)});
+    }
+
+    /** Returns the index of a root, or -1 if the snapshot does not hold it. */
+    public int indexOfRoot(String letters) {
+        if (letters == null || letters.length() != 3) {
+            return -1;
+        }
+        int code = RootCodec.encode(letters);
+        if (code != RootCodec.INVALID) {
+            int low = 0;
+            int high = rootCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midCode = buffer.getInt(HEADER_BYTES + mid * Integer.BYTES);
+                if (midCode < code) {
+                    low = mid + 1;
+                } else if (midCode > code) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+        for (int i = rootCount; i < getRootCount(); i++) {
+            if (getRootLetters(i).equals(letters)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsRoot(String letters) {
+        return indexOfRoot(letters) >= 0;
+    }
+
+    /** Builds a Root for every stored root, in sorted order within each section. */
+    public List<Root> getRoots() {
+        List<Root> roots = new ArrayList<>(getRootCount());
+        for (int i = 0; i < getRootCount(); i++) {
+            roots.add(new Root(getRootLetters(i)));
+        }
+        return roots;
+    }
+
+    /** Returns the stored patterns, decoded by open. */
+    public List<Pattern> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Returns the stored frequency of the word derived from a root and a pattern
+     * (by index in getPatterns), or -1 if the snapshot has no such word.
+     */
+    public int getFrequency(String rootLetters, int patternIndex) {
+        int rootIndex = indexOfRoot(rootLetters);
+        if (rootIndex < 0) {
+            return -1;
+        }
+        long key = entryKey(rootIndex, patternIndex);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = entriesOffset + mid * ENTRY_BYTES;
+            long midKey = entryKey(buffer.getInt(offset), buffer.getShort(offset + Integer.BYTES) & 0xFFFF);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(offset + Integer.BYTES + Short.BYTES);
+            }
+        }
+        return -1;
+    }
+
+    /** Calls visitor for every derived-word entry, grouped by root. */
+    public void forEachEntry(EntryVisitor visitor) {
+        for (int i = 0; i < entryCount; i++) {
+            int offset = entriesOffset + i * ENTRY_BYTES;
+            visitor.visit(buffer.getInt(offset),
+                    buffer.getShort(offset + Integer.BYTES) & 0xFFFF,
+                    buffer.getInt(offset + Integer.BYTES + Short.BYTES));
+        }
+    }
+
+    private static long entryKey(int rootIndex, int patternIndex) {
+        return (long) rootIndex << Short.SIZE | patternIndex;
+    }
+
+    //  ---- Writing ----
+
+    /**
+     * Writes a snapshot of roots, patterns and derived words to path. The file is
+     * written next to path and then moved over it, so a reader never sees a
+     * partial snapshot. Words whose root or pattern is not in the given lists are
+     * skipped, as they could not be restored.
+     */
+    public static void write(Path path, Collection<Root> roots, List<Pattern> patterns,
+                             Collection<DerivedWord> derivedWords) throws IOException {
+        write(path, roots, patterns, WordSource.of(derivedWords));
+    }
+
+    /** Writes a snapshot like write(Path, Collection, List, Collection), reading the words from a source. */
+    public static void write(Path path, Collection<Root> roots, List<Pattern> patterns,
+                             WordSource derivedWords) throws IOException {
+        List<Root> coded = new ArrayList<>();
+        List<Root> extra = new ArrayList<>();
+        for (Root root : roots) {
+            (root.getCode() != RootCodec.INVALID ? coded : extra).add(root);
+        }
+        coded.sort((a, b) -> Integer.compare(a.getCode(), b.getCode()));
+        extra.sort(null);
+        if (patterns.size() > 1 << Short.SIZE) {
+            throw new IllegalArgumentException("Too many patterns for a short index");
+        }
+
+        HashTable<String, Integer> rootIndexes = new HashTable<>(Math.max(16, roots.size() * 2));
+        for (int i = 0; i < coded.size(); i++) {
+            rootIndexes.put(coded.get(i).getRootLetters(), i);
+        }
+        for (int i = 0; i < extra.size(); i++) {
+            rootIndexes.put(extra.get(i).getRootLetters(), coded.size() + i);
+        }
+        HashTable<String, Integer> patternIndexes = new HashTable<>();
+        for (int i = 0; i < patterns.size(); i++) {
+            patternIndexes.put(patterns.get(i).getPatternId(), i);
+        }
+
+        // Entries as (key, frequency) pairs, sorted by key with duplicates dropped
+        long[] keys = new long[derivedWords.size()];
+        int[] frequencies = new int[derivedWords.size()];
+        Integer[] order = new Integer[derivedWords.size()];
+        int[] counted = new int[1];
+        derivedWords.forEach((rootLetters, patternId, frequency) -> {
+            Integer rootIndex = rootIndexes.get(rootLetters);
+            Integer patternIndex = patternIndexes.get(patternId);
+            if (rootIndex != null && patternIndex != null) {
+                int i = counted[0]++;
+                keys[i] = entryKey(rootIndex, patternIndex);
+                frequencies[i] = frequency;
+                order[i] = i;
+            }
+        });
+        int count = counted[0];
+        Arrays.sort(order, 0, count, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        int patternBytes = 0;
+        for (Pattern pattern : patterns) {
+            patternBytes += 3 * Short.BYTES + Character.BYTES * (pattern.getPatternId().length()
+                    + pattern.getStructure().length() + description(pattern).length());
+        }
+        int patternsOffset = HEADER_BYTES + coded.size() * Integer.BYTES + extra.size() * 3 * Character.BYTES;
+        int entriesOffset = patternsOffset + patternBytes;
+        int entryCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || keys[order[i]] != keys[order[i - 1]]) {
+                entryCount++;
+            }
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(entriesOffset + entryCount * ENTRY_BYTES);
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(System.currentTimeMillis());
+        out.putInt(coded.size()).putInt(extra.size()).putInt(patterns.size()).putInt(entryCount);
+        out.putInt(patternsOffset).putInt(entriesOffset).putInt(0);
+        for (Root root : coded) {
+            out.putInt(root.getCode());
+        }
+        for (Root root : extra) {
+            out.putChar(root.getR1()).putChar(root.getR2()).putChar(root.getR3());
+        }
+        for (Pattern pattern : patterns) {
+            putString(out, pattern.getPatternId());
+            putString(out, pattern.getStructure());
+            putString(out, description(pattern));
+        }
+        for (int i = 0; i < count; i++) {
+            long key = keys[order[i]];
+            if (i > 0 && key == keys[order[i - 1]]) {
+                continue;
+            }
+            out.putInt((int) (key >>> Short.SIZE)).putShort((short) key).putInt(frequencies[order[i]]);
+        }
+        out.putInt(CHECKSUM_OFFSET, checksum(out));
+        out.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String description(Pattern pattern) {
+        return pattern.getDescription() == null ? "" : pattern.getDescription();
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value.length() > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for a snapshot: " + value.length() + " chars");
+        }
+        out.putShort((short) value.length());
+        for (int i = 0; i < value.length(); i++) {
+            out.putChar(value.charAt(i));
+        }
+    }
+}
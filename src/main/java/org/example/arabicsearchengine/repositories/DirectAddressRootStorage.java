@@ -0,0 +1,216 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.datastructures.direct.DirectAddressTable;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.utils.RootCodec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Root storage backed by a flat array indexed by the packed root code.
+ * find, insert and remove are O(1) and never allocate; iteration walks the
+ * occupancy bitmap, which yields roots in sorted order. Ranks of arbitrary
+ * strings map onto code ranks through RootCodec.ceiling.
+ * Roots that cannot be encoded (letters outside U+0620..U+065F, e.g. Persian
+ * or Latin) are kept in a small sorted overflow list and merged into every
+ * ordered query, as DerivedWordStore does for their words.
+ */
+class DirectAddressRootStorage implements RootStorage {
+
+    private final DirectAddressTable<Root> table = new DirectAddressTable<>(RootCodec.CODE_SPACE);
+    // Unencodable roots, sorted by letters; expected to stay tiny
+    private final List<Root> overflow = new ArrayList<>();
+
+    @Override
+    public boolean insert(Root root) {
+        int code = root.getCode();
+        if (code == RootCodec.INVALID) {
+            int i = overflowRank(root.getRootLetters());
+            if (i < overflow.size() && overflow.get(i).getRootLetters().equals(root.getRootLetters())) {
+                return false;
+            }
+            overflow.add(i, root);
+            return true;
+        }
+        if (table.contains(code)) {
+            return false;
+        }
+        return table.put(code, root);
+    }
+
+    @Override
+    public List<Root> insertAll(Collection<Root> roots) {
+        // Inserts are already O(1); no rebuild needed
+        List<Root> added = new ArrayList<>();
+        for (Root root : roots) {
+            if (insert(root)) {
+                added.add(root);
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public Root find(String letters) {
+        int code = RootCodec.encode(letters);
+        if (code == RootCodec.INVALID) {
+            int i = overflowIndex(letters);
+            return i < 0 ? null : overflow.get(i);
+        }
+        return table.get(code);
+    }
+
+    @Override
+    public Root remove(String letters) {
+        int code = RootCodec.encode(letters);
+        if (code == RootCodec.INVALID) {
+            int i = overflowIndex(letters);
+            return i < 0 ? null : overflow.remove(i);
+        }
+        return table.remove(code);
+    }
+
+    @Override
+    public int size() {
+        return table.getSize() + overflow.size();
+    }
+
+    @Override
+    public int rank(String key) {
+        return table.rank(RootCodec.ceiling(key)) + overflowRank(key);
+    }
+
+    @Override
+    public Root select(int k) {
+        int i = 0;
+        for (; i < overflow.size(); i++) {
+            int position = overflowPosition(i);
+            if (position == k) {
+                return overflow.get(i);
+            }
+            if (position > k) {
+                break;
+            }
+        }
+        return table.get(table.selectKey(k - i));
+    }
+
+    @Override
+    public List<Root> slice(int fromRank, int count) {
+        int from = Math.max(0, Math.min(fromRank, size()));
+        int n = Math.max(0, Math.min(count, size() - from));
+        List<Root> roots = new ArrayList<>(n);
+        if (n == 0) {
+            return roots;
+        }
+        int before = overflowBefore(from);
+        int tableFrom = from - before;
+        Iterator<Root> merged = new MergeIterator(tableFrom < table.getSize() ? table.selectKey(tableFrom) : -1, before);
+        while (roots.size() < n) {
+            roots.add(merged.next());
+        }
+        return roots;
+    }
+
+    @Override
+    public List<Root> toList() {
+        if (overflow.isEmpty()) {
+            return table.values();
+        }
+        List<Root> roots = new ArrayList<>(size());
+        forEach(roots::add);
+        return roots;
+    }
+
+    @Override
+    public RootStorage snapshot() {
+        DirectAddressRootStorage copy = new DirectAddressRootStorage();
+        table.forEach(copy::insert);
+        copy.overflow.addAll(overflow);
+        return copy;
+    }
+
+    @Override
+    public Iterator<Root> iterator() {
+        return overflow.isEmpty() ? table.iterator() : new MergeIterator(table.nextKey(0), 0);
+    }
+
+    @Override
+    public Spliterator<Root> spliterator() {
+        if (overflow.isEmpty()) {
+            return table.spliterator();
+        }
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    //  ---- Overflow ----
+
+    /** Returns the number of overflow roots whose letters sort before key. */
+    private int overflowRank(String key) {
+        int lo = 0;
+        int hi = overflow.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (overflow.get(mid).getRootLetters().compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int overflowIndex(String letters) {
+        int i = overflowRank(letters);
+        return i < overflow.size() && overflow.get(i).getRootLetters().equals(letters) ? i : -1;
+    }
+
+    /** Position of overflow root i among all roots. */
+    private int overflowPosition(int i) {
+        return table.rank(RootCodec.ceiling(overflow.get(i).getRootLetters())) + i;
+    }
+
+    /** Returns the number of overflow roots at positions before rank. */
+    private int overflowBefore(int rank) {
+        int i = 0;
+        while (i < overflow.size() && overflowPosition(i) < rank) {
+            i++;
+        }
+        return i;
+    }
+
+    /** Merges the table, from key on, with the overflow list, from index on. */
+    private final class MergeIterator implements Iterator<Root> {
+        private int key;
+        private int index;
+
+        MergeIterator(int key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return key >= 0 || index < overflow.size();
+        }
+
+        @Override
+        public Root next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (key < 0 || (index < overflow.size() && overflow.get(index).compareTo(table.get(key)) < 0)) {
+                return overflow.get(index++);
+            }
+            Root root = table.get(key);
+            key = table.nextKey(key + 1);
+            return root;
+        }
+    }
+}
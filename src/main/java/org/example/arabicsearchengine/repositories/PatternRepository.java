@@ -1,43 +1,171 @@
 package org.example.arabicsearchengine.repositories;
 
 
+import org.example.arabicsearchengine.datastructures.hashtable.ConcurrentHashTable;
 import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.HashTableStats;
+import org.example.arabicsearchengine.datastructures.hashtable.OpenAddressingHashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.PerfectHashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.SymbolTable;
 import org.example.arabicsearchengine.models.Pattern;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class PatternRepository {
 
-    private final HashTable<String, Pattern> patternTable;
+    /** Hash table implementation backing the repository. */
+    public enum StorageType {
+        /** Separate chaining (one HashNode per entry) with incremental resizing. */
+        CHAINED_HASH_TABLE,
+        /** Open addressing with double hashing over parallel key/value arrays. */
+        OPEN_ADDRESSING,
+        /** Striped-lock chaining with lock-free reads, for access from several threads. */
+        CONCURRENT_HASH_TABLE
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** A value derived from the patterns as they were at one modification count. */
+    private static final class Derived<T> {
+        final T value;
+        final long modification;
+
+        Derived(T value, long modification) {
+            this.value = value;
+            this.modification = modification;
+        }
+    }
+
+    private final StorageType storageType;
+    private final SymbolTable<String, Pattern> patternTable;
+    private final List<RepositoryListener<Pattern>> listeners;
+    // The mutable table stays the source of truth; derived views below only serve reads
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile Derived<PerfectHashTable<String, Pattern>> frozen;
+    private volatile Derived<List<Pattern>> allPatterns;
 
     public PatternRepository() {
-        this.patternTable = new HashTable<>();
+        this(StorageType.CHAINED_HASH_TABLE);
+    }
+
+    public PatternRepository(StorageType storageType) {
+        this.storageType = storageType;
+        this.patternTable = switch (storageType) {
+            // Incremental resizing keeps save() latency flat during bulk imports
+            case CHAINED_HASH_TABLE -> new HashTable<>(INITIAL_CAPACITY, true);
+            case OPEN_ADDRESSING -> new OpenAddressingHashTable<>();
+            case CONCURRENT_HASH_TABLE -> new ConcurrentHashTable<>(INITIAL_CAPACITY);
+        };
+        // Safe to iterate while another thread registers a listener
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public StorageType getStorageType() {
+        return storageType;
+    }
+
+    /**
+     * Builds a minimal perfect hash over the current pattern IDs and serves
+     * findById and exists from it until the next save, delete or clear, which
+     * unfreeze the repository automatically. Call again after bulk changes.
+     */
+    public void freeze() {
+        long modification = modifications.get();
+        frozen = new Derived<>(PerfectHashTable.of(patternTable), modification);
+    }
+
+    /** Drops the frozen index; reads go back to the hash table. */
+    public void unfreeze() {
+        frozen = null;
     }
 
-    /**Saves a pattern to the hash table.*/
+    /** Checks if reads are currently served by an up-to-date perfect hash. */
+    public boolean isFrozen() {
+        return getFrozenTable() != null;
+    }
+
+    /** Returns the perfect hash serving reads, or null when not frozen. */
+    public PerfectHashTable<String, Pattern> getFrozenTable() {
+        return current(frozen);
+    }
+
+    /**
+     * The derived value, if no write happened since it was built. Checking the
+     * modification count also catches a write that raced with building it.
+     */
+    private <T> T current(Derived<T> derived) {
+        return derived != null && derived.modification == modifications.get() ? derived.value : null;
+    }
+
+    private void modified() {
+        modifications.incrementAndGet();
+        frozen = null;
+        allPatterns = null;
+    }
+
+    /**Registers a listener notified when patterns are added, replaced or removed.*/
+    public void addListener(RepositoryListener<Pattern> listener) {
+        listeners.add(listener);
+    }
+
+    /**Unregisters a previously added listener.*/
+    public void removeListener(RepositoryListener<Pattern> listener) {
+        listeners.remove(listener);
+    }
+
+    /**Saves a pattern to the hash table, replacing any pattern with the same ID.*/
     public void save(Pattern pattern) {
+        Pattern previous = patternTable.get(pattern.getPatternId());
         patternTable.put(pattern.getPatternId(), pattern);
+        modified();
+        for (RepositoryListener<Pattern> listener : listeners) {
+            if (previous != null) {
+                listener.onDeleted(previous);
+            }
+            listener.onSaved(pattern);
+        }
     }
 
     /** Finds a pattern by its ID.*/
     public Pattern findById(String patternId) {
-        return patternTable.get(patternId);
+        PerfectHashTable<String, Pattern> frozenTable = getFrozenTable();
+        return frozenTable != null ? frozenTable.get(patternId) : patternTable.get(patternId);
     }
 
     /**Checks if a pattern exists.*/
     public boolean exists(String patternId) {
-        return patternTable.contains(patternId);
+        PerfectHashTable<String, Pattern> frozenTable = getFrozenTable();
+        return frozenTable != null ? frozenTable.contains(patternId) : patternTable.contains(patternId);
     }
 
     /**Deletes a pattern by its ID.*/
     public Pattern delete(String patternId) {
-        return patternTable.remove(patternId);
+        Pattern removed = patternTable.remove(patternId);
+        if (removed != null) {
+            modified();
+            for (RepositoryListener<Pattern> listener : listeners) {
+                listener.onDeleted(removed);
+            }
+        }
+        return removed;
     }
 
-    /**Returns all patterns.*/
+    /**
+     * Returns all patterns as an unmodifiable list. The list is built once and
+     * shared until the next save, delete or clear, so repeated calls allocate nothing.
+     */
     public List<Pattern> findAll() {
-        return patternTable.values();
+        List<Pattern> patterns = current(allPatterns);
+        if (patterns == null) {
+            long modification = modifications.get();
+            patterns = Collections.unmodifiableList(patternTable.values());
+            allPatterns = new Derived<>(patterns, modification);
+        }
+        return patterns;
     }
 
     /**Returns patterns filtered by category.*/
@@ -60,11 +188,27 @@ public class PatternRepository {
     /**Clears all patterns.*/
     public void clear() {
         patternTable.clear();
+        modified();
+        for (RepositoryListener<Pattern> listener : listeners) {
+            listener.onCleared();
+        }
+    }
+
+    /**
+     * Returns health metrics of the backing hash table. While frozen, lookups
+     * are served by the perfect hash and are not counted here.
+     */
+    public HashTableStats getStats() {
+        return patternTable.getStats();
     }
 
     /**Prints hash table statistics for debugging.*/
     public void printStats() {
         patternTable.printStats();
+        PerfectHashTable<String, Pattern> frozenTable = getFrozenTable();
+        if (frozenTable != null) {
+            frozenTable.printStats();
+        }
     }
 
 }
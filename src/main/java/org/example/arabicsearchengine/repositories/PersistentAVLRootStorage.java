@@ -0,0 +1,113 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.datastructures.tree.PersistentAVLTree;
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Function;
+
+/**
+ * Root storage backed by a persistent AVL tree: reads never lock and always see
+ * one consistent version, writes are serialised, and snapshots are O(1).
+ */
+class PersistentAVLRootStorage implements RootStorage {
+
+    private static final Function<Root, String> LETTERS = Root::getRootLetters;
+    private static final Comparator<String> LETTER_ORDER = Comparator.naturalOrder();
+
+    private final PersistentAVLTree<Root> tree;
+
+    PersistentAVLRootStorage() {
+        this(new PersistentAVLTree<>());
+    }
+
+    private PersistentAVLRootStorage(PersistentAVLTree<Root> tree) {
+        this.tree = tree;
+    }
+
+    @Override
+    public boolean insert(Root root) {
+        return tree.insert(root);
+    }
+
+    @Override
+    public List<Root> insertAll(Collection<Root> roots) {
+        return tree.addAll(roots);
+    }
+
+    @Override
+    public void update(Collection<String> removals, Collection<Root> additions,
+                       List<Root> removed, List<Root> added) {
+        // Roots compare by letters, so a fresh Root serves as the search key
+        List<Root> keys = new ArrayList<>(removals.size());
+        for (String letters : removals) {
+            keys.add(new Root(letters));
+        }
+        tree.update(keys, additions, removed, added);
+    }
+
+    @Override
+    public Root find(String letters) {
+        return tree.searchByKey(letters, LETTERS, LETTER_ORDER);
+    }
+
+    @Override
+    public Root remove(String letters) {
+        return tree.deleteByKey(letters, LETTERS, LETTER_ORDER);
+    }
+
+    @Override
+    public int size() {
+        return tree.getSize();
+    }
+
+    @Override
+    public int rank(String key) {
+        return tree.rankByKey(key, LETTERS, LETTER_ORDER);
+    }
+
+    @Override
+    public Root select(int k) {
+        return tree.select(k);
+    }
+
+    @Override
+    public List<Root> slice(int fromRank, int count) {
+        return tree.slice(fromRank, count);
+    }
+
+    @Override
+    public List<Root> toList() {
+        return tree.toList();
+    }
+
+    @Override
+    public RootStorage snapshot() {
+        return new PersistentAVLRootStorage(tree.snapshot());
+    }
+
+    @Override
+    public RootStorage readView() {
+        // O(1): pins the published root so rank and slice agree
+        return snapshot();
+    }
+
+    @Override
+    public Iterator<Root> iterator() {
+        return tree.iterator();
+    }
+
+    @Override
+    public Spliterator<Root> spliterator() {
+        return tree.spliterator();
+    }
+
+    int getTreeHeight() {
+        return tree.getTreeHeight();
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.arabicsearchengine.repositories;
+
+/**
+ * Callback notified whenever a repository's contents change.
+ * Lets derived structures (indexes, caches) stay in sync with the repository
+ * without the repository knowing about them.
+ *
+ * @param <T> The type of item stored in the repository
+ */
+public interface RepositoryListener<T> {
+
+    /** Called after an item has been added to the repository. */
+    void onSaved(T item);
+
+    /** Called after an item has been removed (or replaced) in the repository. */
+    void onDeleted(T item);
+
+    /** Called after the repository has been emptied. */
+    default void onCleared() {
+    }
+}
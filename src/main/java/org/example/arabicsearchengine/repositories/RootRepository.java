@@ -3,31 +3,118 @@ package org.example.arabicsearchengine.repositories;
 import org.example.arabicsearchengine.datastructures.tree.AVLTree;
 import org.example.arabicsearchengine.models.Root;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class RootRepository {
+public class RootRepository implements Iterable<Root> {
 
-    private final AVLTree<Root> rootTree;
+    /** Data structure backing the repository. */
+    public enum StorageType {
+        /** Self-balancing AVL tree (O(log n), supports the tree visualisation). */
+        AVL_TREE,
+        /** Flat array indexed by packed root code (O(1); other letters go to a small sorted overflow). */
+        DIRECT_TABLE,
+        /** Path-copying AVL tree: lock-free consistent reads while a writer runs, O(1) snapshots. */
+        PERSISTENT_AVL
+    }
+
+    // Sorts after every Arabic letter, so prefix + PREFIX_END bounds all roots starting with prefix
+    private static final char PREFIX_END = Character.MAX_VALUE;
+
+    private final StorageType storageType;
+    private final RootStorage storage;
+    private final List<RepositoryListener<Root>> listeners;
 
     public RootRepository() {
-        this.rootTree = new AVLTree<>();
+        this(StorageType.AVL_TREE);
+    }
+
+    public RootRepository(StorageType storageType) {
+        this.storageType = storageType;
+        this.storage = switch (storageType) {
+            case AVL_TREE -> new AVLRootStorage();
+            case DIRECT_TABLE -> new DirectAddressRootStorage();
+            case PERSISTENT_AVL -> new PersistentAVLRootStorage();
+        };
+        this.listeners = new ArrayList<>();
+    }
+
+    private RootRepository(StorageType storageType, RootStorage storage) {
+        this.storageType = storageType;
+        this.storage = storage;
+        this.listeners = new ArrayList<>();
     }
 
-    /**Saves a root to the AVL tree.*/
+    public StorageType getStorageType() {
+        return storageType;
+    }
+
+    /**Registers a listener notified when roots are added or removed.*/
+    public void addListener(RepositoryListener<Root> listener) {
+        listeners.add(listener);
+    }
+
+    /**Unregisters a previously added listener.*/
+    public void removeListener(RepositoryListener<Root> listener) {
+        listeners.remove(listener);
+    }
+
+    /**Saves a root to the storage. Duplicates are ignored.*/
     public void save(Root root) {
-        rootTree.insert(root);
+        if (storage.insert(root)) {
+            for (RepositoryListener<Root> listener : listeners) {
+                listener.onSaved(root);
+            }
+        }
     }
 
     /**
-     *Finds a root by its letters.
-     * Creates a temporary Root for comparison.
+     * Saves many roots at once. The AVL storage bulk-builds a balanced tree
+     * when empty and merge-rebuilds otherwise. Duplicates are ignored.
+     *
+     * @return The number of roots actually added
      */
+    public int saveAll(Collection<Root> roots) {
+        List<Root> added = storage.insertAll(roots);
+        for (Root root : added) {
+            for (RepositoryListener<Root> listener : listeners) {
+                listener.onSaved(root);
+            }
+        }
+        return added.size();
+    }
+
+    /**
+     * Removes and adds roots as one change, e.g. to apply the difference with a
+     * reloaded root file. With PERSISTENT_AVL storage, readers on other threads
+     * see either the old or the new contents; other storages need the change to
+     * run on the readers' thread. Listeners are notified once it is applied.
+     */
+    public void applyChanges(Collection<String> removals, Collection<Root> additions) {
+        List<Root> removed = new ArrayList<>();
+        List<Root> added = new ArrayList<>();
+        storage.update(removals, additions, removed, added);
+        for (RepositoryListener<Root> listener : listeners) {
+            for (Root root : removed) {
+                listener.onDeleted(root);
+            }
+            for (Root root : added) {
+                listener.onSaved(root);
+            }
+        }
+    }
+
+    /**Finds a root by its letters.*/
     public Root findByLetters(String letters) {
         if (letters == null || letters.length() != 3) {
             return null;
         }
-        Root searchKey = new Root(letters);
-        return rootTree.search(searchKey);
+        return storage.find(letters);
     }
 
     /**Checks if a root exists.*/
@@ -38,44 +125,133 @@ public class RootRepository {
 
     /**Deletes a root by its letters.*/
     public void delete(String letters) {
-        if (letters != null && letters.length() == 3) {
-            Root searchKey = new Root(letters);
-            rootTree.delete(searchKey);
+        if (letters == null || letters.length() != 3) {
+            return;
+        }
+        Root existing = storage.remove(letters);
+        if (existing != null) {
+            for (RepositoryListener<Root> listener : listeners) {
+                listener.onDeleted(existing);
+            }
         }
     }
 
     /*** Returns all roots in sorted order.*/
     public List<Root> findAll() {
-        return rootTree.toList();
+        return storage.toList();
+    }
+
+    /**Returns the roots in [fromInclusive, toExclusive) in sorted order, in O(log n + k).*/
+    public List<Root> findRange(String fromInclusive, String toExclusive) {
+        // One version for every rank and slice, in case a writer publishes in between
+        RootStorage version = storage.readView();
+        int from = version.rank(fromInclusive);
+        return version.slice(from, version.rank(toExclusive) - from);
+    }
+
+    /**
+     * Returns one page of the roots starting with prefix (e.g. one or two letters),
+     * in sorted order. An empty prefix pages through all roots.
+     *
+     * @param offset Number of matching roots to skip
+     * @param limit  Maximum number of roots to return
+     */
+    public List<Root> findByPrefix(String prefix, int offset, int limit) {
+        RootStorage version = storage.readView();
+        int from = version.rank(prefix);
+        int matching = version.rank(prefix + PREFIX_END) - from;
+        if (offset < 0 || offset >= matching || limit <= 0) {
+            return new ArrayList<>();
+        }
+        return version.slice(from + offset, Math.min(limit, matching - offset));
+    }
+
+    /**Returns how many roots start with prefix, in O(log n).*/
+    public int countByPrefix(String prefix) {
+        RootStorage version = storage.readView();
+        return version.rank(prefix + PREFIX_END) - version.rank(prefix);
+    }
+
+    /**Returns the position the given letters have (or would have) in sorted order.*/
+    public int rank(String letters) {
+        return storage.rank(letters);
+    }
+
+    /**
+     * Returns the root at position k in sorted order.
+     *
+     * @throws IndexOutOfBoundsException if k is not in [0, count())
+     */
+    public Root select(int k) {
+        return storage.select(k);
+    }
+
+    /**Returns a lazy iterator over the roots in sorted order (no copy).*/
+    @Override
+    public Iterator<Root> iterator() {
+        return storage.iterator();
+    }
+
+    /**Returns a splittable view of the roots in sorted order.*/
+    @Override
+    public Spliterator<Root> spliterator() {
+        return storage.spliterator();
+    }
+
+    /**
+     * Streams the roots in sorted order without copying them.
+     * Callers may stop early, or call parallel() to split the work across cores.
+     */
+    public Stream<Root> stream() {
+        return StreamSupport.stream(storage.spliterator(), false);
+    }
+
+    /**
+     * Returns a repository holding the roots as they are now; later changes to
+     * either repository are not seen by the other, and listeners are not copied.
+     * With PERSISTENT_AVL storage this is O(1) and safe to call while another
+     * thread is writing (e.g. loading a large root file); other storages copy the
+     * roots and need external synchronisation against writers.
+     */
+    public RootRepository snapshot() {
+        return new RootRepository(storageType, storage.snapshot());
     }
 
     /**Returns the number of stored roots.*/
     public int count() {
-        return rootTree.getSize();
+        return storage.size();
     }
     /**
      * Checks if repository is empty.
      */
     public boolean isEmpty() {
-        return rootTree.isEmpty();
+        return storage.size() == 0;
     }
 
     /**Prints the tree structure for debugging.*/
     public void printTree() {
-        rootTree.printTree();
+        AVLTree<Root> tree = getTree();
+        if (tree != null) {
+            tree.printTree();
+        } else {
+            storage.forEach(root -> System.out.println(root.getRootLetters() + " (code=" + root.getCode() + ")"));
+        }
     }
 
-    /**Returns the height of the AVL tree.*/
+    /**Returns the height of the AVL tree, or 0 when a non-tree storage is used.*/
     public int getTreeHeight() {
-        return rootTree.getTreeHeight();
+        AVLTree<Root> tree = getTree();
+        if (tree != null) {
+            return tree.getTreeHeight();
+        }
+        return storage instanceof PersistentAVLRootStorage persistent ? persistent.getTreeHeight() : 0;
     }
 
-    /**Returns the underlying AVL tree for visualization.*/
+    /**Returns the underlying AVL tree for visualization, or null when another storage is used.*/
     public AVLTree<Root> getTree() {
-        return rootTree;
+        return storage instanceof AVLRootStorage avl ? avl.getTree() : null;
     }
 
 
 
 }
-
@@ -0,0 +1,82 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+
+/**
+ * Backing store for RootRepository.
+ * Implementations iterate roots in sorted order of their letters.
+ */
+interface RootStorage extends Iterable<Root> {
+
+    /** Adds a root; returns false if a root with the same letters is already stored. */
+    boolean insert(Root root);
+
+    /**
+     * Adds many roots at once, ignoring duplicates.
+     *
+     * @return The roots that were actually added
+     */
+    List<Root> insertAll(Collection<Root> roots);
+
+    /**
+     * Removes and adds roots as one change, filling removed and added with the
+     * roots actually removed and added. The default applies them one at a time;
+     * storages read concurrently publish them as a single version.
+     */
+    default void update(Collection<String> removals, Collection<Root> additions,
+                        List<Root> removed, List<Root> added) {
+        for (String letters : removals) {
+            Root root = remove(letters);
+            if (root != null) {
+                removed.add(root);
+            }
+        }
+        added.addAll(insertAll(additions));
+    }
+
+    /** Returns the root with the given letters, or null. */
+    Root find(String letters);
+
+    /** Removes and returns the root with the given letters, or null. */
+    Root remove(String letters);
+
+    int size();
+
+    /**
+     * Returns the number of roots whose letters sort strictly before key.
+     * key may be any string, including a 1 or 2 letter prefix.
+     */
+    int rank(String key);
+
+    /** Returns the root at position k in sorted order. */
+    Root select(int k);
+
+    /** Returns up to count roots starting at position fromRank in sorted order. */
+    List<Root> slice(int fromRank, int count);
+
+    /** Returns all roots in sorted order. */
+    List<Root> toList();
+
+    /**
+     * Returns an independent copy of the current contents. Persistent storages
+     * share structure and return in O(1); the others copy in O(n) and must not be
+     * written to concurrently while the copy is taken.
+     */
+    RootStorage snapshot();
+
+    /**
+     * Returns a storage on which several queries all see one version. Storages
+     * read while a writer runs return snapshot(); the others return themselves.
+     */
+    default RootStorage readView() {
+        return this;
+    }
+
+    /** Returns a lazy, splittable view of the roots in sorted order. */
+    @Override
+    Spliterator<Root> spliterator();
+}
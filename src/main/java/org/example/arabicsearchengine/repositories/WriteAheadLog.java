@@ -0,0 +1,464 @@
+package org.example.arabicsearchengine.repositories;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of dictionary mutations, replayed at startup to recover
+ * everything changed since the last DictionarySnapshot.
+ * A record is [int payload length][int CRC32 of type and payload][byte type][payload],
+ * with strings stored as (short length, UTF-16 chars). Replay stops at the first
+ * short or corrupt record, which is where a crash cut a write off.
+ * Group commit: append only copies the record into a buffer and returns a
+ * sequence number. A background thread writes the buffer and fsyncs it every
+ * groupCommitMillis (sooner once it fills up), so one fsync covers every
+ * mutation of the interval and callers never wait for the disk. awaitDurable and
+ * sync wait when a caller does need the guarantee.
+ * The log is a series of segment files (wal-000001.log, ...). rotate starts a
+ * new segment so older ones can be deleted once a snapshot covers them.
+ */
+public class WriteAheadLog implements Closeable {
+
+    /** Kinds of record; the code is the byte stored in the file. */
+    public enum RecordType {
+        ROOT_SAVED(1), ROOT_DELETED(2), PATTERN_SAVED(3), PATTERN_DELETED(4), PATTERNS_CLEARED(5), WORD_COUNTED(6);
+
+        private final byte code;
+
+        RecordType(int code) {
+            this.code = (byte) code;
+        }
+
+        static RecordType of(byte code) {
+            for (RecordType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Receives the records of a log during replay. */
+    public interface RecordVisitor {
+        void rootSaved(String letters);
+
+        void rootDeleted(String letters);
+
+        void patternSaved(String id, String structure, String description);
+
+        void patternDeleted(String id);
+
+        void patternsCleared();
+
+        /** A word was generated or counted again and now has this frequency. */
+        void wordCounted(String rootLetters, String patternId, int frequency);
+    }
+
+    /** Outcome of a replay. */
+    public static final class ReplayResult {
+        private final int records;
+        private final int segments;
+        private final long discardedBytes;
+
+        ReplayResult(int records, int segments, long discardedBytes) {
+            this.records = records;
+            this.segments = segments;
+            this.discardedBytes = discardedBytes;
+        }
+
+        public int getRecords() { return records; }
+        public int getSegments() { return segments; }
+        /** Bytes after the last valid record of each segment (torn or corrupt writes). */
+        public long getDiscardedBytes() { return discardedBytes; }
+    }
+
+    public static final long DEFAULT_GROUP_COMMIT_MILLIS = 20;
+
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES + 1;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long groupCommitMillis;
+    private final Thread flusher;
+    // Serializes writes to the segment files; taken before this, never while holding it
+    private final Object io = new Object();
+    private FileChannel channel;  // guarded by io
+
+    // Guarded by this
+    private ByteBuffer pending = ByteBuffer.allocate(FLUSH_THRESHOLD);
+    private long appendedSequence;
+    private long durableSequence;
+    private int generation;
+    private long recordsInSegment;
+    private long syncCount;
+    private IOException failure;
+    private boolean closed;
+
+    private WriteAheadLog(Path directory, long groupCommitMillis) throws IOException {
+        this.directory = directory;
+        this.groupCommitMillis = groupCommitMillis;
+        List<Integer> generations = segmentGenerations(directory);
+        this.generation = generations.isEmpty() ? 1 : generations.get(generations.size() - 1) + 1;
+        this.channel = openSegment(generation);
+        this.flusher = new Thread(this::flushLoop, "wal-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens a new segment in directory for appending. Existing segments are left
+     * alone; replay them first.
+     */
+    public static WriteAheadLog open(Path directory, long groupCommitMillis) throws IOException {
+        Files.createDirectories(directory);
+        return new WriteAheadLog(directory, groupCommitMillis);
+    }
+
+    //  ---- Appending ----
+
+    public long appendRootSaved(String letters) {
+        return append(RecordType.ROOT_SAVED, stringBytes(letters), letters);
+    }
+
+    public long appendRootDeleted(String letters) {
+        return append(RecordType.ROOT_DELETED, stringBytes(letters), letters);
+    }
+
+    public long appendPatternSaved(String id, String structure, String description) {
+        return append(RecordType.PATTERN_SAVED, stringBytes(id) + stringBytes(structure) + stringBytes(description),
+                id, structure, description);
+    }
+
+    public long appendPatternDeleted(String id) {
+        return append(RecordType.PATTERN_DELETED, stringBytes(id), id);
+    }
+
+    public long appendPatternsCleared() {
+        return append(RecordType.PATTERNS_CLEARED, 0);
+    }
+
+    public long appendWordCounted(String rootLetters, String patternId, int frequency) {
+        return append(RecordType.WORD_COUNTED, stringBytes(rootLetters) + stringBytes(patternId) + Integer.BYTES,
+                frequency, rootLetters, patternId);
+    }
+
+    private long append(RecordType type, int payloadBytes, String... strings) {
+        return append(type, payloadBytes, null, strings);
+    }
+
+    private long append(RecordType type, int payloadBytes, Integer trailer, String... strings) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payloadBytes);
+        record.putInt(payloadBytes).putInt(0).put(type.code);
+        for (String value : strings) {
+            putString(record, value);
+        }
+        if (trailer != null) {
+            record.putInt(trailer);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 2 * Integer.BYTES, 1 + payloadBytes);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        record.flip();
+
+        synchronized (this) {
+            checkOpen();
+            if (pending.remaining() < record.remaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + record.remaining()));
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            pending.put(record);
+            recordsInSegment++;
+            if (pending.position() >= FLUSH_THRESHOLD) {
+                notifyAll();
+            }
+            return ++appendedSequence;
+        }
+    }
+
+    private static int stringBytes(String value) {
+        return Short.BYTES + (value == null ? 0 : value.length()) * Character.BYTES;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        String text = value == null ? "" : value;
+        if (text.length() > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for the log: " + text.length() + " chars");
+        }
+        out.putShort((short) text.length());
+        for (int i = 0; i < text.length(); i++) {
+            out.putChar(text.charAt(i));
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+    }
+
+    //  ---- Group Commit ----
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    if (!closed && pending.position() < FLUSH_THRESHOLD) {
+                        wait(groupCommitMillis);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes and fsyncs everything appended so far. The buffer is swapped under
+     * the append lock, and the disk is written under the io lock only, so
+     * appends never wait for an fsync.
+     */
+    private void flush() throws IOException {
+        synchronized (io) {
+            ByteBuffer batch;
+            long sequence;
+            synchronized (this) {
+                if (closed || pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                sequence = appendedSequence;
+                pending = ByteBuffer.allocate(FLUSH_THRESHOLD);
+            }
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+            synchronized (this) {
+                syncCount++;
+                durableSequence = sequence;
+                notifyAll();
+            }
+        }
+    }
+
+    /** Blocks until the record with this sequence number is on disk. */
+    public synchronized void awaitDurable(long sequence) throws IOException {
+        while (durableSequence < sequence) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (closed) {
+                throw new IOException("Write-ahead log closed before the record was written");
+            }
+            // Wakes the flusher too, so the wait is one fsync rather than a full interval
+            notifyAll();
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the log", e);
+            }
+        }
+    }
+
+    /** Writes and fsyncs everything appended so far, without waiting for the next group commit. */
+    public void sync() throws IOException {
+        synchronized (this) {
+            checkOpen();
+        }
+        flush();
+    }
+
+    //  ---- Segments ----
+
+    /**
+     * Makes every record appended so far durable and starts a new segment.
+     *
+     * @return The generation of the new segment; segments before it may be
+     *         deleted once a snapshot covers them
+     */
+    public int rotate() throws IOException {
+        synchronized (io) {
+            synchronized (this) {
+                checkOpen();
+            }
+            flush();
+            channel.close();
+            FileChannel next = openSegment(generation + 1);
+            synchronized (this) {
+                channel = next;
+                generation++;
+                recordsInSegment = 0;
+                return generation;
+            }
+        }
+    }
+
+    /** Deletes the segments older than generation. */
+    public void deleteSegmentsBefore(int generation) throws IOException {
+        for (int older : segmentGenerations(directory)) {
+            if (older < generation) {
+                Files.deleteIfExists(segmentPath(directory, older));
+            }
+        }
+    }
+
+    private FileChannel openSegment(int generation) throws IOException {
+        return FileChannel.open(segmentPath(directory, generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path directory, int generation) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+    }
+
+    private static List<Integer> segmentGenerations(Path directory) throws IOException {
+        List<Integer> generations = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return generations;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    generations.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    //  ---- Replay ----
+
+    /** Replays every segment in directory, oldest first. */
+    public static ReplayResult replay(Path directory, RecordVisitor visitor) throws IOException {
+        int records = 0;
+        long discarded = 0;
+        List<Integer> generations = segmentGenerations(directory);
+        for (int generation : generations) {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(segmentPath(directory, generation)));
+            while (in.remaining() >= RECORD_HEADER_BYTES) {
+                int start = in.position();
+                int payloadBytes = in.getInt();
+                int checksum = in.getInt();
+                if (payloadBytes < 0 || in.remaining() < 1 + payloadBytes) {
+                    in.position(start);
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(in.array(), in.position(), 1 + payloadBytes);
+                RecordType type = RecordType.of(in.get());
+                if ((int) crc.getValue() != checksum || type == null) {
+                    in.position(start);
+                    break;
+                }
+                apply(type, in, visitor);
+                records++;
+            }
+            discarded += in.remaining();
+        }
+        return new ReplayResult(records, generations.size(), discarded);
+    }
+
+    private static void apply(RecordType type, ByteBuffer in, RecordVisitor visitor) {
+        switch (type) {
+            case ROOT_SAVED -> visitor.rootSaved(readString(in));
+            case ROOT_DELETED -> visitor.rootDeleted(readString(in));
+            case PATTERN_SAVED -> visitor.patternSaved(readString(in), readString(in), readString(in));
+            case PATTERN_DELETED -> visitor.patternDeleted(readString(in));
+            case PATTERNS_CLEARED -> visitor.patternsCleared();
+            case WORD_COUNTED -> visitor.wordCounted(readString(in), readString(in), in.getInt());
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        char[] chars = new char[in.getShort() & 0xFFFF];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = in.getChar();
+        }
+        return new String(chars);
+    }
+
+    //  -- Utility Functions
+
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    /** Records appended to the current segment. */
+    public synchronized long getRecordsInSegment() {
+        return recordsInSegment;
+    }
+
+    public synchronized long getAppendedCount() {
+        return appendedSequence;
+    }
+
+    /** Number of fsyncs so far; appended / syncs is the group commit batch size. */
+    public synchronized long getSyncCount() {
+        return syncCount;
+    }
+
+    /** Flushes what is pending and closes the current segment. */
+    @Override
+    public void close() throws IOException {
+        synchronized (io) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                if (failure == null) {
+                    flush();
+                }
+            } finally {
+                synchronized (this) {
+                    closed = true;
+                    notifyAll();
+                }
+                channel.close();
+            }
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.utils.ChunkedRootLoader;
+import org.example.arabicsearchengine.utils.FileLoader;
+import org.example.arabicsearchengine.utils.RootCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reloads the root and pattern files when they change on disk.
+ * A background thread watches the files' directories, waits for a burst of
+ * writes to settle, then parses the changed file and diffs it against what
+ * the same file listed last time. Only the short apply step runs on
+ * applyExecutor (Platform::runLater in the GUI, so the views never see a
+ * half-applied reload). It applies just the inserts and deletes: roots
+ * through one RootRepository.applyChanges, patterns through save and delete
+ * of the changed IDs. Nothing else is rebuilt. Listeners then receive a
+ * ChangeEvent on the same executor.
+ * A reload only undoes what its file listed: roots added by hand, restored
+ * from a snapshot or listed by another tracked file are never removed.
+ */
+public class DataReloadService implements Closeable {
+
+    /** Quiet period after the last write before a file is reloaded. */
+    public static final long DEFAULT_SETTLE_MILLIS = 200;
+
+    /** What a reload changed. */
+    public static final class ChangeEvent {
+        public enum Kind { ROOTS, PATTERNS }
+
+        private final Kind kind;
+        private final Path file;
+        private final List<String> added;
+        private final List<String> removed;
+        private final List<String> updated;
+        private final long nanos;
+
+        ChangeEvent(Kind kind, Path file, List<String> added, List<String> removed,
+                    List<String> updated, long nanos) {
+            this.kind = kind;
+            this.file = file;
+            this.added = Collections.unmodifiableList(added);
+            this.removed = Collections.unmodifiableList(removed);
+            this.updated = Collections.unmodifiableList(updated);
+            this.nanos = nanos;
+        }
+
+        public Kind getKind() { return kind; }
+        public Path getFile() { return file; }
+        /** Root letters or pattern IDs added. */
+        public List<String> getAdded() { return added; }
+        public List<String> getRemoved() { return removed; }
+        /** Pattern IDs whose structure or description changed; always empty for roots. */
+        public List<String> getUpdated() { return updated; }
+        /** Time from reading the file to the change being applied. */
+        public long getNanos() { return nanos; }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: +%d -%d ~%d", kind, file.getFileName(),
+                    added.size(), removed.size(), updated.size());
+        }
+    }
+
+    private final RootRepository rootRepository;
+    private final PatternRepository patternRepository;
+    private final Executor applyExecutor;
+    private final long settleMillis;
+    private final List<Consumer<ChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Path, ChangeEvent.Kind> watchedFiles = new ConcurrentHashMap<>();
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    // What each file listed at its last load or reload, roots sorted; guarded by listings
+    private final Map<Path, List<Root>> rootListings = new HashMap<>();
+    private final Map<Path, Map<String, Pattern>> patternListings = new HashMap<>();
+    private final Object listings = new Object();
+    private WatchService watchService;
+    private Thread watcher;
+
+    public DataReloadService(RootService rootService, PatternService patternService, Executor applyExecutor) {
+        this(rootService, patternService, applyExecutor, DEFAULT_SETTLE_MILLIS);
+    }
+
+    /**
+     * @param applyExecutor Runs the diff, the apply and the listeners; use the
+     *                      thread that reads the repositories
+     * @param settleMillis  Quiet period after the last write before reloading
+     */
+    public DataReloadService(RootService rootService, PatternService patternService,
+                             Executor applyExecutor, long settleMillis) {
+        this.rootRepository = rootService.getRepository();
+        this.patternRepository = patternService.getRepository();
+        this.applyExecutor = applyExecutor;
+        this.settleMillis = settleMillis;
+    }
+
+    public void addChangeListener(Consumer<ChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<ChangeEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    //  ---- Watching ----
+
+    /**
+     * Reloads the roots whenever file changes.
+     *
+     * @param loaded The roots read from file when it was imported; later
+     *               reloads remove only those the file stops listing
+     */
+    public void watchRoots(Path file, List<Root> loaded) throws IOException {
+        synchronized (listings) {
+            rootListings.put(key(file), sortedDistinct(loaded));
+        }
+        watch(file, ChangeEvent.Kind.ROOTS);
+    }
+
+    /** Same as watchRoots, for a pattern file. */
+    public void watchPatterns(Path file, List<Pattern> loaded) throws IOException {
+        synchronized (listings) {
+            patternListings.put(key(file), byId(loaded));
+        }
+        watch(file, ChangeEvent.Kind.PATTERNS);
+    }
+
+    public Set<Path> getWatchedFiles() {
+        return Collections.unmodifiableSet(watchedFiles.keySet());
+    }
+
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    private synchronized void watch(Path file, ChangeEvent.Kind kind) throws IOException {
+        Path absolute = key(file);
+        if (watchService == null) {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            watchService = service;
+            watcher = new Thread(() -> watchLoop(service), "data-file-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        Path directory = absolute.getParent();
+        if (watchedDirectories.add(directory)) {
+            // Editors often replace the file rather than write to it, hence CREATE
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        watchedFiles.put(absolute, kind);
+    }
+
+    private void watchLoop(WatchService service) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new HashSet<>();
+                collect(service.take(), changed);
+                // Let a burst of writes settle so a half-written file is not loaded
+                WatchKey key;
+                while ((key = service.poll(settleMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                for (Path file : changed) {
+                    reload(file, watchedFiles.get(file));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name) {
+                Path file = directory.resolve(name);
+                if (watchedFiles.containsKey(file)) {
+                    changed.add(file);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void reload(Path file, ChangeEvent.Kind kind) {
+        if (kind == null) {
+            return;  // No longer watched
+        }
+        CompletableFuture<ChangeEvent> reload = kind == ChangeEvent.Kind.ROOTS ? reloadRoots(file) : reloadPatterns(file);
+        reload.exceptionally(e -> {
+            System.err.println("Warning: Could not reload " + file + ". " + e.getMessage());
+            return null;
+        });
+    }
+
+    //  ---- Reloading ----
+
+    /**
+     * Parses file on the calling thread and diffs it against what the file
+     * listed last time (nothing, for a file never watched or reloaded), then
+     * applies the difference on the apply executor. The future completes with
+     * the event once listeners ran.
+     */
+    public CompletableFuture<ChangeEvent> reloadRoots(Path file) {
+        long start = System.nanoTime();
+        ChunkedRootLoader.Result result;
+        try {
+            result = ChunkedRootLoader.load(file);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        List<Root> listed = sortedDistinct(result.getRoots());
+        List<Root> unlisted = new ArrayList<>();
+        List<Root> newlyListed = new ArrayList<>();
+        synchronized (listings) {
+            Path key = key(file);
+            List<Root> previous = rootListings.getOrDefault(key, List.of());
+            // Both lists are sorted: one merge pass finds the difference
+            int i = 0;
+            int j = 0;
+            while (i < previous.size() || j < listed.size()) {
+                int cmp = i == previous.size() ? 1 : j == listed.size() ? -1 : compare(previous.get(i), listed.get(j));
+                if (cmp < 0) {
+                    Root root = previous.get(i++);
+                    if (!listedElsewhere(key, root)) {
+                        unlisted.add(root);
+                    }
+                } else if (cmp > 0) {
+                    newlyListed.add(listed.get(j++));
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            rootListings.put(key, listed);
+        }
+        return CompletableFuture.supplyAsync(() -> publish(applyRoots(file, unlisted, newlyListed, start)), applyExecutor);
+    }
+
+    /** Same as reloadRoots, for the pattern file. */
+    public CompletableFuture<ChangeEvent> reloadPatterns(Path file) {
+        long start = System.nanoTime();
+        List<Pattern> patterns;
+        try {
+            patterns = FileLoader.loadPatterns(file.toString());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Map<String, Pattern> listed = byId(patterns);
+        List<String> unlisted = new ArrayList<>();
+        List<Pattern> changed = new ArrayList<>();
+        synchronized (listings) {
+            Path key = key(file);
+            Map<String, Pattern> previous = patternListings.getOrDefault(key, Map.of());
+            for (String id : previous.keySet()) {
+                if (!listed.containsKey(id) && !patternListedElsewhere(key, id)) {
+                    unlisted.add(id);
+                }
+            }
+            for (Pattern pattern : listed.values()) {
+                Pattern before = previous.get(pattern.getPatternId());
+                if (before == null || differs(before, pattern)) {
+                    changed.add(pattern);
+                }
+            }
+            patternListings.put(key, listed);
+        }
+        return CompletableFuture.supplyAsync(() -> publish(applyPatterns(file, unlisted, changed, start)), applyExecutor);
+    }
+
+    private ChangeEvent applyRoots(Path file, List<Root> unlisted, List<Root> newlyListed, long start) {
+        List<String> removals = new ArrayList<>();
+        for (Root root : unlisted) {
+            if (rootRepository.findByLetters(root.getRootLetters()) != null) {
+                removals.add(root.getRootLetters());
+            }
+        }
+        List<Root> additions = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        for (Root root : newlyListed) {
+            if (rootRepository.findByLetters(root.getRootLetters()) == null) {
+                additions.add(root);
+                added.add(root.getRootLetters());
+            }
+        }
+        if (!removals.isEmpty() || !additions.isEmpty()) {
+            rootRepository.applyChanges(removals, additions);
+        }
+        return new ChangeEvent(ChangeEvent.Kind.ROOTS, file, added, removals, List.of(), System.nanoTime() - start);
+    }
+
+    private ChangeEvent applyPatterns(Path file, List<String> unlisted, List<Pattern> changed, long start) {
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> updated = new ArrayList<>();
+        boolean frozen = patternRepository.isFrozen();
+
+        for (String id : unlisted) {
+            if (patternRepository.findById(id) != null) {
+                patternRepository.delete(id);
+                removed.add(id);
+            }
+        }
+        for (Pattern pattern : changed) {
+            Pattern existing = patternRepository.findById(pattern.getPatternId());
+            if (existing == null) {
+                patternRepository.save(pattern);
+                added.add(pattern.getPatternId());
+            } else if (differs(existing, pattern)) {
+                patternRepository.save(pattern);
+                updated.add(pattern.getPatternId());
+            }
+        }
+        if (frozen && !patternRepository.isFrozen()) {
+            patternRepository.freeze();
+        }
+        return new ChangeEvent(ChangeEvent.Kind.PATTERNS, file, added, removed, updated, System.nanoTime() - start);
+    }
+
+    /** Checks whether another tracked root file lists root; called holding listings. */
+    private boolean listedElsewhere(Path key, Root root) {
+        for (Map.Entry<Path, List<Root>> listing : rootListings.entrySet()) {
+            if (!listing.getKey().equals(key)
+                    && Collections.binarySearch(listing.getValue(), root, DataReloadService::compare) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean patternListedElsewhere(Path key, String id) {
+        for (Map.Entry<Path, Map<String, Pattern>> listing : patternListings.entrySet()) {
+            if (!listing.getKey().equals(key) && listing.getValue().containsKey(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Sorts roots (already sorted apart from the few outside the codec range) and drops repeats. */
+    private static List<Root> sortedDistinct(List<Root> roots) {
+        List<Root> sorted = new ArrayList<>(roots);
+        sorted.sort(DataReloadService::compare);
+        List<Root> distinct = new ArrayList<>(sorted.size());
+        for (Root root : sorted) {
+            if (distinct.isEmpty() || compare(distinct.get(distinct.size() - 1), root) != 0) {
+                distinct.add(root);
+            }
+        }
+        return distinct;
+    }
+
+    /** Root order; packed codes sort like the letters, so most comparisons skip the strings. */
+    private static int compare(Root a, Root b) {
+        if (a.getCode() != RootCodec.INVALID && b.getCode() != RootCodec.INVALID) {
+            return Integer.compare(a.getCode(), b.getCode());
+        }
+        return a.compareTo(b);
+    }
+
+    /** A later line with the same ID wins, as when loading the file. */
+    private static Map<String, Pattern> byId(List<Pattern> patterns) {
+        Map<String, Pattern> byId = new LinkedHashMap<>();
+        for (Pattern pattern : patterns) {
+            byId.put(pattern.getPatternId(), pattern);
+        }
+        return byId;
+    }
+
+    private static boolean differs(Pattern a, Pattern b) {
+        return !Objects.equals(a.getStructure(), b.getStructure())
+                || !Objects.equals(a.getDescription(), b.getDescription());
+    }
+
+    private ChangeEvent publish(ChangeEvent event) {
+        if (!event.isEmpty()) {
+            for (Consumer<ChangeEvent> listener : listeners) {
+                listener.accept(event);
+            }
+        }
+        return event;
+    }
+
+    /** Stops watching. Reloads already handed to the apply executor still complete. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService == null) {
+            return;
+        }
+        watcher.interrupt();
+        watchService.close();
+        watchService = null;
+        watchedFiles.clear();
+        watchedDirectories.clear();
+        synchronized (listings) {
+            rootListings.clear();
+            patternListings.clear();
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.RootRepository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Exports every root -> derived word -> pattern -> frequency record to CSV,
+ * JSON Lines or a compact binary format.
+ * Each export runs on its own background thread and streams one root at a
+ * time from a snapshot of the root repository, so rows are never all in
+ * memory. Encoded rows collect in a direct buffer that is written to a
+ * FileChannel when full. The file is written under a temporary name and
+ * moved into place when complete, so a cancelled or failed export leaves no
+ * partial file behind.
+ * <p>
+ * Binary layout: MAGIC, VERSION (short), then tagged records. A root record
+ * sets the root of the following words. A pattern record gives the next
+ * pattern index its ID. A word record is (pattern index, frequency, word).
+ * END is followed by the row count (long). Integers are unsigned varints;
+ * strings are a varint byte length plus UTF-8.
+ */
+public class ExportService {
+
+    public enum Format {
+        CSV("csv"),
+        JSON_LINES("jsonl"),
+        BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /** Picks the format from a file name's extension; CSV if unknown. */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            for (Format format : values()) {
+                if (name.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+            return CSV;
+        }
+    }
+
+    /** Magic number of binary exports: "ASEX". */
+    public static final int MAGIC = 0x41534558;
+    public static final short VERSION = 1;
+    static final byte TAG_ROOT = 1;
+    static final byte TAG_PATTERN = 2;
+    static final byte TAG_WORD = 3;
+    static final byte TAG_END = 0;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // Longest encoded record the buffer must hold at once, besides the word strings
+    private static final int RECORD_OVERHEAD = 32;
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L;
+
+    /** Visits the rows of a binary export. */
+    public interface RowVisitor {
+        void row(String rootLetters, String word, String patternId, int frequency);
+    }
+
+    /** A running export: progress, cancellation and the outcome. */
+    public static final class ExportJob {
+        private final Path target;
+        private final Format format;
+        private final int totalRoots;
+        private final CompletableFuture<ExportJob> completion = new CompletableFuture<>();
+        private volatile boolean cancelled;
+        private volatile int rootsDone;
+        private volatile long rows;
+        private volatile long bytes;
+        private volatile long nanos;
+
+        ExportJob(Path target, Format format, int totalRoots) {
+            this.target = target;
+            this.format = format;
+            this.totalRoots = totalRoots;
+        }
+
+        /** Stops the export at the next root; the target file is left untouched. */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Completes with this job when the file is in place, or exceptionally
+         * (CancellationException when cancelled).
+         */
+        public CompletableFuture<ExportJob> getCompletion() {
+            return completion;
+        }
+
+        public Path getTarget() { return target; }
+        public Format getFormat() { return format; }
+        public int getTotalRoots() { return totalRoots; }
+        public int getRootsDone() { return rootsDone; }
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        /** Duration of the export, once complete. */
+        public long getNanos() { return nanos; }
+
+        /** Fraction of the roots exported, from 0 to 1. */
+        public double getProgress() {
+            return totalRoots == 0 ? 1 : (double) rootsDone / totalRoots;
+        }
+    }
+
+    private final RootRepository rootRepository;
+    private final MorphologyService morphologyService;
+
+    public ExportService(RootService rootService, MorphologyService morphologyService) {
+        this.rootRepository = rootService.getRepository();
+        this.morphologyService = morphologyService;
+    }
+
+    /**
+     * Starts exporting every root's derived words. The roots are snapshotted
+     * on the calling thread, which must be the thread that writes the root
+     * repository (the FX thread in the GUI); words are read as the export
+     * reaches each root.
+     *
+     * @param progress Called on the export thread at most every 100 ms and
+     *                 once at the end; may be null
+     */
+    public ExportJob start(Path target, Format format, Consumer<ExportJob> progress) {
+        RootRepository roots = rootRepository.snapshot();
+        return start(target, format, roots, roots.count(), progress);
+    }
+
+    /** Starts exporting the derived words of the given roots only. */
+    public ExportJob start(Path target, Format format, Iterable<Root> roots, int rootCount,
+                           Consumer<ExportJob> progress) {
+        ExportJob job = new ExportJob(target, format, rootCount);
+        Thread thread = new Thread(() -> run(job, roots, progress), "derivation-export");
+        thread.setDaemon(true);
+        thread.start();
+        return job;
+    }
+
+    private void run(ExportJob job, Iterable<Root> roots, Consumer<ExportJob> progress) {
+        long start = System.nanoTime();
+        Path temporary = job.target.resolveSibling(job.target.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                RecordWriter writer = new RecordWriter(channel, job.format);
+                writer.begin();
+                long lastProgress = start;
+                int done = 0;
+                for (Root root : roots) {
+                    if (job.cancelled) {
+                        throw new CancellationException("Export cancelled");
+                    }
+                    List<DerivedWord> words = morphologyService.getDerivedWords(root);
+                    if (!words.isEmpty()) {
+                        writer.root(root);
+                        for (DerivedWord word : words) {
+                            writer.word(root, word);
+                        }
+                    }
+                    job.rootsDone = ++done;
+                    job.rows = writer.rows;
+                    long now = System.nanoTime();
+                    if (progress != null && now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                        job.bytes = writer.written + writer.buffer.position();
+                        progress.accept(job);
+                        lastProgress = now;
+                    }
+                }
+                writer.end();
+                job.bytes = writer.written;
+                channel.force(false);
+            }
+            Files.move(temporary, job.target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.nanos = System.nanoTime() - start;
+            if (progress != null) {
+                progress.accept(job);
+            }
+            job.completion.complete(job);
+        } catch (Throwable e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // The export already failed; report that instead
+            }
+            job.nanos = System.nanoTime() - start;
+            job.completion.completeExceptionally(e);
+        }
+    }
+
+    //  ---- Encoding ----
+
+    /** Encodes rows of one format into a buffer flushed to the channel. */
+    private static final class RecordWriter {
+        private final FileChannel channel;
+        private final Format format;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final StringBuilder line = new StringBuilder(128);
+        private final Map<String, Integer> patternIndexes = new HashMap<>();
+        private final ByteBuffer scratch = ByteBuffer.allocate(BUFFER_BYTES);
+        private long rows;
+        private long written;
+
+        RecordWriter(FileChannel channel, Format format) {
+            this.channel = channel;
+            this.format = format;
+        }
+
+        void begin() throws IOException {
+            switch (format) {
+                // The BOM lets spreadsheet programs detect UTF-8 Arabic text
+                case CSV -> text("\uFEFFroot,word,pattern,frequency\n");
+                case JSON_LINES -> { }
+                case BINARY -> {
+                    room(Integer.BYTES + Short.BYTES);
+                    buffer.putInt(MAGIC).putShort(VERSION);
+                }
+            }
+        }
+
+        void root(Root root) throws IOException {
+            if (format == Format.BINARY) {
+                room(1);
+                buffer.put(TAG_ROOT);
+                string(root.getRootLetters());
+            }
+        }
+
+        void word(Root root, DerivedWord word) throws IOException {
+            String patternId = word.getPattern().getPatternId();
+            switch (format) {
+                case CSV -> {
+                    line.setLength(0);
+                    csvField(root.getRootLetters()).append(',');
+                    csvField(word.getWord()).append(',');
+                    csvField(patternId).append(',').append(word.getFrequency()).append('\n');
+                    text(line);
+                }
+                case JSON_LINES -> {
+                    line.setLength(0);
+                    line.append("{\"root\":");
+                    jsonString(root.getRootLetters()).append(",\"word\":");
+                    jsonString(word.getWord()).append(",\"pattern\":");
+                    jsonString(patternId).append(",\"frequency\":").append(word.getFrequency()).append("}\n");
+                    text(line);
+                }
+                case BINARY -> {
+                    Integer index = patternIndexes.get(patternId);
+                    if (index == null) {
+                        index = patternIndexes.size();
+                        patternIndexes.put(patternId, index);
+                        room(1);
+                        buffer.put(TAG_PATTERN);
+                        string(patternId);
+                    }
+                    room(RECORD_OVERHEAD);
+                    buffer.put(TAG_WORD);
+                    varint(index);
+                    varint(word.getFrequency());
+                    string(word.getWord());
+                }
+            }
+            rows++;
+        }
+
+        void end() throws IOException {
+            if (format == Format.BINARY) {
+                room(1 + Long.BYTES);
+                buffer.put(TAG_END).putLong(rows);
+            }
+            flush();
+        }
+
+        private StringBuilder csvField(String value) {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                return line.append(value);
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            return line.append('"');
+        }
+
+        private StringBuilder jsonString(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            return line.append('"');
+        }
+
+        /** Encodes text as UTF-8 straight into the buffer, flushing as it fills. */
+        private void text(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    flush();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+        }
+
+        private void string(String value) throws IOException {
+            scratch.clear();
+            CoderResult result = encoder.reset().encode(CharBuffer.wrap(value), scratch, true);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            scratch.flip();
+            room(5 + scratch.remaining());
+            varint(scratch.remaining());
+            buffer.put(scratch);
+        }
+
+        private void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void room(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    //  ---- Reading binary exports ----
+
+    /**
+     * Reads a binary export, row by row.
+     *
+     * @return The number of rows read
+     */
+    public static long readBinary(Path file, RowVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < Integer.BYTES + Short.BYTES || in.getInt() != MAGIC) {
+                throw new IOException("Not a derivation export: " + file);
+            }
+            short version = in.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported export version " + version);
+            }
+            List<String> patterns = new ArrayList<>();
+            String root = null;
+            long rows = 0;
+            while (true) {
+                if (!in.hasRemaining()) {
+                    throw new EOFException("Export truncated after " + rows + " rows");
+                }
+                byte tag = in.get();
+                switch (tag) {
+                    case TAG_ROOT -> root = readString(in);
+                    case TAG_PATTERN -> patterns.add(readString(in));
+                    case TAG_WORD -> {
+                        String patternId = patterns.get(readVarint(in));
+                        int frequency = readVarint(in);
+                        visitor.row(root, readString(in), patternId, frequency);
+                        rows++;
+                    }
+                    case TAG_END -> {
+                        long expected = in.getLong();
+                        if (expected != rows) {
+                            throw new IOException("Export holds " + rows + " rows, expected " + expected);
+                        }
+                        return rows;
+                    }
+                    default -> throw new IOException("Corrupt export: unknown record " + tag);
+                }
+            }
+        }
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.datastructures.sketch.SpaceSaving;
+import org.example.arabicsearchengine.datastructures.sketch.WindowedCounter;
+import org.example.arabicsearchengine.models.DerivedWord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the most frequent derived words, roots and patterns across the whole
+ * engine, without walking every root's word list.
+ * MorphologyService reports every repeated generation or validation hit (the
+ * events that raise DerivedWord.frequency) to three bounded Space-Saving
+ * counters, so memory stays fixed and the top n of each is available in O(n)
+ * at any time.
+ * Those counters only grow, so each recorded word also gets a WindowedCounter
+ * answering "how often in the last hour/day", which is what trending words are
+ * ranked by. At most maxTrackedWords words are windowed; when full, words with
+ * nothing left in their day window are dropped (checked at most once a minute)
+ * and new words are skipped until room frees up.
+ */
+public class FrequencyAnalyticsService {
+
+    public static final int DEFAULT_CAPACITY = 1_000;
+    public static final int DEFAULT_TRACKED_WORDS = 10_000;
+
+    /** A word's recent counts and how far its last hour exceeds its hourly average. */
+    public static final class TrendingWord {
+        private final String word;
+        private final long lastHour;
+        private final long lastDay;
+        private final double score;
+
+        TrendingWord(String word, long lastHour, long lastDay) {
+            this.word = word;
+            this.lastHour = lastHour;
+            this.lastDay = lastDay;
+            // Average of the other 23 hours of the day window
+            this.score = lastHour - (lastDay - lastHour) / (double) (WindowedCounter.HOURS_PER_DAY - 1);
+        }
+
+        public String getWord() { return word; }
+        public long getLastHour() { return lastHour; }
+        public long getLastDay() { return lastDay; }
+        public double getScore() { return score; }
+
+        @Override
+        public String toString() {
+            return word + " (" + lastHour + "/h, " + lastDay + "/24h)";
+        }
+    }
+
+    private final SpaceSaving<String> words;
+    private final SpaceSaving<String> roots;
+    private final SpaceSaving<String> patterns;
+
+    private final LongSupplier clock;
+    private final int maxTrackedWords;
+    // word -> last hour/day counts; guarded by this
+    private final HashTable<String, WindowedCounter> recentWords = new HashTable<>();
+    private long lastSweepMinute = Long.MIN_VALUE;
+
+    public FrequencyAnalyticsService() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Keys monitored per counter; a count is at most
+     *                 total / capacity too high
+     */
+    public FrequencyAnalyticsService(int capacity) {
+        this(capacity, DEFAULT_TRACKED_WORDS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param capacity        Keys monitored per counter
+     * @param maxTrackedWords Words with time-windowed counts
+     * @param clock           Current time in milliseconds
+     */
+    public FrequencyAnalyticsService(int capacity, int maxTrackedWords, LongSupplier clock) {
+        this.words = new SpaceSaving<>(capacity);
+        this.roots = new SpaceSaving<>(capacity);
+        this.patterns = new SpaceSaving<>(capacity);
+        this.maxTrackedWords = maxTrackedWords;
+        this.clock = clock;
+    }
+
+    /** Counts one occurrence of a derived word, its root and its pattern. */
+    public void record(DerivedWord derivedWord) {
+        words.offer(derivedWord.getWord());
+        roots.offer(derivedWord.getRoot().getRootLetters());
+        patterns.offer(derivedWord.getPattern().getPatternId());
+        recordRecent(derivedWord.getWord());
+    }
+
+    private synchronized void recordRecent(String word) {
+        long now = clock.getAsLong();
+        WindowedCounter counter = recentWords.get(word);
+        if (counter == null) {
+            if (recentWords.getSize() >= maxTrackedWords && !dropIdleWords(now)) {
+                return;
+            }
+            counter = new WindowedCounter(now);
+            recentWords.put(word, counter);
+        }
+        counter.increment(now);
+    }
+
+    /** Removes words whose day window is empty, at most once a minute. Returns true if there is room. */
+    private boolean dropIdleWords(long now) {
+        long minute = now / WindowedCounter.MINUTE_MILLIS;
+        if (minute != lastSweepMinute) {
+            lastSweepMinute = minute;
+            List<String> idle = new ArrayList<>();
+            recentWords.forEach((word, counter) -> {
+                if (counter.isIdle(now)) {
+                    idle.add(word);
+                }
+            });
+            idle.forEach(recentWords::remove);
+        }
+        return recentWords.getSize() < maxTrackedWords;
+    }
+
+    public List<SpaceSaving.Entry<String>> getTopWords(int n) {
+        return words.top(n);
+    }
+
+    public List<SpaceSaving.Entry<String>> getTopRoots(int n) {
+        return roots.top(n);
+    }
+
+    public List<SpaceSaving.Entry<String>> getTopPatterns(int n) {
+        return patterns.top(n);
+    }
+
+    /** Returns how often word was recorded in the last hour, or 0 if it is not tracked. */
+    public synchronized long getWordFrequencyLastHour(String word) {
+        WindowedCounter counter = recentWords.get(word);
+        return counter == null ? 0 : counter.getLastHour(clock.getAsLong());
+    }
+
+    /** Returns how often word was recorded in the last 24 hours, or 0 if it is not tracked. */
+    public synchronized long getWordFrequencyLastDay(String word) {
+        WindowedCounter counter = recentWords.get(word);
+        return counter == null ? 0 : counter.getLastDay(clock.getAsLong());
+    }
+
+    /**
+     * Returns up to n words whose last hour most exceeds their average hour of
+     * the day window, best first. Words not above their average are left out.
+     */
+    public synchronized List<TrendingWord> getTrendingWords(int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        long now = clock.getAsLong();
+        Comparator<TrendingWord> byScore = Comparator.comparingDouble(TrendingWord::getScore);
+        PriorityQueue<TrendingWord> best = new PriorityQueue<>(n, byScore);
+        recentWords.forEach((word, counter) -> {
+            long lastHour = counter.getLastHour(now);
+            if (lastHour == 0) {
+                return;
+            }
+            TrendingWord candidate = new TrendingWord(word, lastHour, counter.getLastDay(now));
+            if (candidate.getScore() <= 0) {
+                return;
+            }
+            if (best.size() < n) {
+                best.add(candidate);
+            } else if (candidate.getScore() > best.peek().getScore()) {
+                best.poll();
+                best.add(candidate);
+            }
+        });
+        List<TrendingWord> result = new ArrayList<>(best);
+        result.sort(byScore.reversed());
+        return result;
+    }
+
+    /** Number of words with time-windowed counts. */
+    public synchronized int getTrackedWordCount() {
+        return recentWords.getSize();
+    }
+
+    /** Number of occurrences recorded. */
+    public long getTotal() {
+        return words.getTotal();
+    }
+
+    public int getCapacity() {
+        return words.getCapacity();
+    }
+
+    public void clear() {
+        words.clear();
+        roots.clear();
+        patterns.clear();
+        synchronized (this) {
+            recentWords.clear();
+        }
+    }
+}
@@ -3,37 +3,168 @@ package org.example.arabicsearchengine.services;
 import org.example.arabicsearchengine.models.DerivedWord;
 import org.example.arabicsearchengine.models.Pattern;
 import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
+import org.example.arabicsearchengine.repositories.RepositoryListener;
+import org.example.arabicsearchengine.repositories.RootRepository;
 
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class MorphologyService {
 
+    // Where generated words are counted; null keeps them in each Root's own list
+    private final DerivedWordStore wordStore;
+    // Global top words/roots/patterns; null when not tracked
+    private final FrequencyAnalyticsService frequencyAnalytics;
+    // Notified after every generateWord, e.g. to log the new frequency
+    private final List<Consumer<DerivedWord>> wordListeners = new CopyOnWriteArrayList<>();
+
+    public MorphologyService() {
+        this(null);
+    }
+
+    /**
+     * @param wordStore Compact store for generated words, or null to keep
+     *                  them in each Root's derived word list
+     */
+    public MorphologyService(DerivedWordStore wordStore) {
+        this(wordStore, null);
+    }
+
+    /**
+     * @param wordStore          Compact store for generated words, or null to keep
+     *                           them in each Root's derived word list
+     * @param frequencyAnalytics Tracker fed with every generated word, or null
+     */
+    public MorphologyService(DerivedWordStore wordStore, FrequencyAnalyticsService frequencyAnalytics) {
+        this.wordStore = wordStore;
+        this.frequencyAnalytics = frequencyAnalytics;
+    }
+
+    public DerivedWordStore getWordStore() {
+        return wordStore;
+    }
+
+    public FrequencyAnalyticsService getFrequencyAnalytics() {
+        return frequencyAnalytics;
+    }
+
+    /**
+     * Forgets the stored words of every root later deleted from rootRepository,
+     * by hand, by a hot reload or by a log replay, so a root added again starts
+     * with no words. Words kept on Root objects need nothing: a deleted Root is
+     * not reused.
+     */
+    public void trackDeletedRoots(RootRepository rootRepository) {
+        if (wordStore == null) {
+            return;
+        }
+        rootRepository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(Root root) {
+            }
+
+            @Override
+            public void onDeleted(Root root) {
+                wordStore.removeRoot(root);
+            }
+        });
+    }
+
+    /** Registers a listener called with the stored entry (and its new frequency) after each generateWord. */
+    public void addWordListener(Consumer<DerivedWord> listener) {
+        wordListeners.add(listener);
+    }
+
+    public void removeWordListener(Consumer<DerivedWord> listener) {
+        wordListeners.remove(listener);
+    }
+
     /**Generates a derived word by applying a pattern to a root.
      * If the derived word already exists in the root's derived word list,
-     * its frequency is incremented. Otherwise, it is added as a new entry.*/
+     * its frequency is incremented. Otherwise, it is added as a new entry.
+     * Returns the stored entry with its current frequency.
+     * Each frequency increment is also reported to the frequency analytics, if any.*/
     public DerivedWord generateWord(Root root, Pattern pattern) {
-        String word = pattern.applyToRoot(root);
-        DerivedWord derivedWord = new DerivedWord(word, root, pattern);
-        root.addDerivedWord(derivedWord);
+        DerivedWord derivedWord;
+        boolean repeated;
+        if (wordStore != null) {
+            derivedWord = wordStore.toDerivedWord(root, wordStore.record(root, pattern));
+            repeated = derivedWord.getFrequency() > 0;
+        } else {
+            String word = pattern.applyToRoot(root);
+            DerivedWord generated = new DerivedWord(word, root, pattern);
+            derivedWord = root.addDerivedWord(generated);
+            repeated = derivedWord != generated;
+        }
+        // First generations are skipped, as they are by DerivedWord.frequency; otherwise
+        // generateAllWords over every root would flood the bounded counters
+        if (repeated && frequencyAnalytics != null) {
+            frequencyAnalytics.record(derivedWord);
+        }
+        for (Consumer<DerivedWord> listener : wordListeners) {
+            listener.accept(derivedWord);
+        }
         return derivedWord;
     }
 
+    /**Adds a word generated in an earlier session with its saved frequency.
+     * An existing word keeps the larger frequency, so restoring is idempotent.
+     * Nothing is reported to the frequency analytics or the word listeners.*/
+    public void restoreWord(Root root, Pattern pattern, int frequency) {
+        if (wordStore != null) {
+            wordStore.restore(root, pattern, frequency);
+            return;
+        }
+        String word = pattern.applyToRoot(root);
+        DerivedWord existing = root.findDerivedWord(word);
+        if (existing == null) {
+            root.addDerivedWord(new DerivedWord(word, root, pattern, frequency));
+        } else {
+            existing.raiseFrequency(frequency);
+        }
+    }
+
     /**Generates all possible words from a root using all provided patterns.
      * Each derived word is checked against the root's existing list via addDerivedWord.*/
     public List<DerivedWord> generateAllWords(Root root, List<Pattern> patterns) {
         for (Pattern pattern : patterns) {
             generateWord(root, pattern);
         }
-        return root.getDerivedWords();
+        return getDerivedWords(root);
+    }
+
+    /** Returns the words generated so far from root, in the order first generated. */
+    public List<DerivedWord> getDerivedWords(Root root) {
+        return wordStore != null ? wordStore.wordsOf(root) : root.getDerivedWords();
     }
 
     /**Attempts to decompose a word to find its root and pattern.*/
-    public DecompositionResult decomposeWord(String word, List<Root> possibleRoots, List<Pattern> patterns) {
+    public DecompositionResult decomposeWord(String word, Iterable<Root> possibleRoots, List<Pattern> patterns) {
         for (Root root : possibleRoots) {
             for (Pattern pattern : patterns) {
-                String generated = pattern.applyToRoot(root);
-                if (generated.equals(word)) {
+                if (pattern.matches(word, root)) {
+                    return new DecompositionResult(root, pattern, true);
+                }
+            }
+        }
+        return new DecompositionResult(null, null, false);
+    }
+
+    /**Identifies a word by matching it against each pattern's fixed skeleton.
+     * The letters found in the ف/ع/ل slots are looked up in the root repository,
+     * so the cost is O(#patterns) and does not depend on the number of roots.*/
+    public DecompositionResult identifyByTemplate(String word, RootRepository rootRepository, List<Pattern> patterns) {
+        if (word == null) {
+            return new DecompositionResult(null, null, false);
+        }
+        char[] letters = new char[3];
+        for (Pattern pattern : patterns) {
+            if (pattern.extractRootLetters(word, letters)) {
+                Root root = rootRepository.findByLetters(new String(letters));
+                if (root != null) {
                     return new DecompositionResult(root, pattern, true);
                 }
             }
@@ -44,8 +175,7 @@ public class MorphologyService {
     /**Checks if a word can be derived from a specific root using any pattern.*/
     public Pattern findMatchingPattern(String word, Root root, List<Pattern> patterns) {
         for (Pattern pattern : patterns) {
-            String generated = pattern.applyToRoot(root);
-            if (generated.equals(word)) {
+            if (pattern.matches(word, root)) {
                 return pattern;
             }
         }
@@ -16,6 +16,8 @@ public class PatternService {
 
     public int loadPatternsFromFile(String filePath) throws IOException {
         FileLoader.populatePatternRepository(patternRepository, filePath);
+        // The catalogue is read far more often than it changes
+        patternRepository.freeze();
         return patternRepository.count();
     }
 
@@ -75,6 +77,7 @@ public class PatternService {
             // Fallback to manual initialization if file is not found
             loadDefaultPatternsManually();
         }
+        patternRepository.freeze();
     }
 
     /** Fallback method to load default patterns manually. */
@@ -0,0 +1,362 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DictionarySnapshot;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RepositoryListener;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.repositories.WriteAheadLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Makes the dictionary durable: a DictionarySnapshot plus a WriteAheadLog of
+ * every change made since.
+ * start() loads the snapshot, replays the log, then records every root and
+ * pattern change (through repository listeners) and every generated word
+ * (through MorphologyService) in the log. The log uses group commit, so a
+ * validation never waits for an fsync; at most the last groupCommitMillis of
+ * changes can be lost in a crash.
+ * Once the log holds compactionThreshold records, it is compacted. The log
+ * rotates to a new segment, and SnapshotService.capture takes a versioned copy
+ * of the dictionary. Both happen on the thread whose change filled the segment,
+ * because the default storages are not safe to read concurrently. The copy
+ * shares the DerivedWordStore pages copy-on-write, so it does not stall that
+ * thread. Writing the snapshot and deleting the older segments then happen in
+ * the background, in the order compactions were queued. close() compacts one
+ * last time.
+ * Every record sets a state rather than applying a delta. A word record carries
+ * the word's new frequency, and replay keeps the larger count. Replaying a
+ * record the snapshot already covers is therefore harmless. That lets changes
+ * made after the copy go straight to the new segment.
+ * A lock file keeps a second process (e.g. the CLI next to the GUI) from
+ * using the same directory.
+ */
+public class PersistenceService implements Closeable {
+
+    /** Where the GUI and CLI keep their snapshot and log. */
+    public static final Path DEFAULT_DIRECTORY =
+            Path.of(System.getProperty("user.home"), ".arabic-search-engine");
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 100_000;
+
+    private static final String SNAPSHOT_FILE = "dictionary.snapshot";
+    private static final String LOG_DIRECTORY = "wal";
+    private static final String LOCK_FILE = "dictionary.lock";
+
+    private final RootRepository rootRepository;
+    private final PatternRepository patternRepository;
+    private final MorphologyService morphologyService;
+    private final SnapshotService snapshotService;
+    private final Path directory;
+    private final Path logDirectory;
+    private final long groupCommitMillis;
+    private final long compactionThreshold;
+    private volatile WriteAheadLog log;
+
+    private final RepositoryListener<Root> rootListener = new RepositoryListener<>() {
+        @Override
+        public void onSaved(Root root) {
+            log.appendRootSaved(root.getRootLetters());
+            appended();
+        }
+
+        @Override
+        public void onDeleted(Root root) {
+            log.appendRootDeleted(root.getRootLetters());
+            appended();
+        }
+    };
+    private final RepositoryListener<Pattern> patternListener = new RepositoryListener<>() {
+        @Override
+        public void onSaved(Pattern pattern) {
+            log.appendPatternSaved(pattern.getPatternId(), pattern.getStructure(), pattern.getDescription());
+            appended();
+        }
+
+        @Override
+        public void onDeleted(Pattern pattern) {
+            log.appendPatternDeleted(pattern.getPatternId());
+            appended();
+        }
+
+        @Override
+        public void onCleared() {
+            log.appendPatternsCleared();
+            appended();
+        }
+    };
+    private final Consumer<DerivedWord> wordListener = word -> {
+        log.appendWordCounted(word.getRoot().getRootLetters(), word.getPattern().getPatternId(),
+                word.getFrequency());
+        appended();
+    };
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dictionary-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private WriteAheadLog.ReplayResult lastReplay;
+    private int restoredWords = -1;
+    private long startNanos = -1;
+
+    public PersistenceService(RootService rootService, PatternService patternService,
+                              MorphologyService morphologyService, Path directory) {
+        this(rootService, patternService, morphologyService, directory,
+                WriteAheadLog.DEFAULT_GROUP_COMMIT_MILLIS, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param groupCommitMillis   Longest time a change waits before its fsync
+     * @param compactionThreshold Log records that trigger a background compaction
+     */
+    public PersistenceService(RootService rootService, PatternService patternService,
+                              MorphologyService morphologyService, Path directory,
+                              long groupCommitMillis, long compactionThreshold) {
+        this.rootRepository = rootService.getRepository();
+        this.patternRepository = patternService.getRepository();
+        this.morphologyService = morphologyService;
+        this.snapshotService = new SnapshotService(rootService, patternService, morphologyService,
+                directory.resolve(SNAPSHOT_FILE));
+        this.directory = directory;
+        this.logDirectory = directory.resolve(LOG_DIRECTORY);
+        this.groupCommitMillis = groupCommitMillis;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Restores the last snapshot and replays the log written since, then starts
+     * logging.
+     *
+     * @return true if anything was restored, false on a first start
+     * @throws IOException if another process is using the directory
+     */
+    public synchronized boolean start() throws IOException {
+        if (log != null) {
+            throw new IllegalStateException("Already started");
+        }
+        long begin = System.nanoTime();
+        lock();
+        try {
+            DictionarySnapshot snapshot = snapshotService.load();
+            restoredWords = snapshot == null ? -1 : snapshot.getEntryCount();
+            lastReplay = WriteAheadLog.replay(logDirectory, new Replayer());
+            log = WriteAheadLog.open(logDirectory, groupCommitMillis);
+        } catch (IOException | RuntimeException e) {
+            unlock();
+            throw e;
+        }
+        boolean restored = restoredWords >= 0 || lastReplay.getRecords() > 0;
+        if (restored) {
+            patternRepository.freeze();
+        }
+
+        rootRepository.addListener(rootListener);
+        patternRepository.addListener(patternListener);
+        morphologyService.addWordListener(wordListener);
+        startNanos = System.nanoTime() - begin;
+        return restored;
+    }
+
+    private void lock() throws IOException {
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;  // Held by another service in this JVM
+        }
+        if (lock == null) {
+            lockChannel.close();
+            lockChannel = null;
+            throw new IOException("The dictionary in " + directory + " is in use by another process");
+        }
+    }
+
+    private void unlock() throws IOException {
+        if (lockChannel != null) {
+            lockChannel.close();  // Releases the lock
+            lockChannel = null;
+            lock = null;
+        }
+    }
+
+    /** Compacts once the current segment is large enough; called on the thread that made the change. */
+    private void appended() {
+        if (log.getRecordsInSegment() >= compactionThreshold && compactionQueued.compareAndSet(false, true)) {
+            CompletableFuture<Void> compaction;
+            try {
+                compaction = queueCompaction();
+            } catch (IOException | RuntimeException e) {
+                compactionQueued.set(false);
+                System.err.println("Warning: Could not compact the dictionary log. " + e.getMessage());
+                return;
+            }
+            compaction.whenComplete((done, error) -> {
+                compactionQueued.set(false);
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    System.err.println("Warning: Could not compact the dictionary log. " + cause.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Rotates the log and captures the dictionary on the calling thread, then
+     * queues the snapshot write and the deletion of the segments it covers.
+     */
+    private synchronized CompletableFuture<Void> queueCompaction() throws IOException {
+        WriteAheadLog current = log;
+        int generation = current.rotate();
+        SnapshotService.Capture capture = snapshotService.capture();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                capture.write();
+                current.deleteSegmentsBefore(generation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, compactor);
+    }
+
+    /**
+     * Writes a snapshot of the current state and deletes the log segments it
+     * covers, waiting for the write. Must run on the thread that changes the
+     * repositories; changes made meanwhile go to the new segment.
+     */
+    public void compact() throws IOException {
+        if (log == null) {
+            snapshotService.save();
+            return;
+        }
+        try {
+            queueCompaction().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /** Blocks until every change logged so far is on disk. */
+    public void sync() throws IOException {
+        WriteAheadLog current = log;
+        if (current != null) {
+            current.sync();
+        }
+    }
+
+    /** Stops logging, compacts, closes the log and releases the directory. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (log == null) {
+            return;
+        }
+        rootRepository.removeListener(rootListener);
+        patternRepository.removeListener(patternListener);
+        morphologyService.removeWordListener(wordListener);
+        try {
+            // Queued after any background compaction, so the snapshots are written in order
+            compact();
+        } finally {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                log.close();
+            } finally {
+                log = null;
+                unlock();
+            }
+        }
+    }
+
+    //  -- Getters
+
+    /** Derived words restored from the snapshot by start, or -1 if there was none. */
+    public int getRestoredWords() {
+        return restoredWords;
+    }
+
+    /** Duration of the snapshot load done by start, or -1 if there was none. */
+    public long getSnapshotLoadNanos() {
+        return snapshotService.getLastLoadNanos();
+    }
+
+    /** Result of the replay done by start, or null before start. */
+    public WriteAheadLog.ReplayResult getLastReplay() {
+        return lastReplay;
+    }
+
+    /** Duration of start (snapshot load and log replay), or -1 before start. */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /** The open log, or null when not started. */
+    public WriteAheadLog getLog() {
+        return log;
+    }
+
+    /** Applies logged changes to the repositories and the morphology service. */
+    private final class Replayer implements WriteAheadLog.RecordVisitor {
+        @Override
+        public void rootSaved(String letters) {
+            rootRepository.save(new Root(letters));
+        }
+
+        @Override
+        public void rootDeleted(String letters) {
+            rootRepository.delete(letters);
+        }
+
+        @Override
+        public void patternSaved(String id, String structure, String description) {
+            patternRepository.save(new Pattern(id, structure, description));
+        }
+
+        @Override
+        public void patternDeleted(String id) {
+            patternRepository.delete(id);
+        }
+
+        @Override
+        public void patternsCleared() {
+            patternRepository.clear();
+        }
+
+        @Override
+        public void wordCounted(String rootLetters, String patternId, int frequency) {
+            Root root = rootRepository.findByLetters(rootLetters);
+            Pattern pattern = patternRepository.findById(patternId);
+            if (root != null && pattern != null) {
+                morphologyService.restoreWord(root, pattern, frequency);
+            }
+        }
+    }
+}
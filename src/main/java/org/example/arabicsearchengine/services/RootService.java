@@ -2,24 +2,38 @@ package org.example.arabicsearchengine.services;
 
 import org.example.arabicsearchengine.models.Root;
 import org.example.arabicsearchengine.repositories.RootRepository;
-import org.example.arabicsearchengine.utils.FileLoader;
+import org.example.arabicsearchengine.utils.ChunkedRootLoader;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class RootService {
     private final RootRepository rootRepository;
+    private ChunkedRootLoader.Result lastLoad;
 
     public RootService(RootRepository rootRepository) {
         this.rootRepository = rootRepository;
     }
 
 
+    /**
+     * Loads roots from a file in one bulk operation and returns the new root count.
+     * Line counts and throughput are kept in getLastLoad().
+     */
     public int loadRootsFromFile(String filePath) throws IOException {
-        FileLoader.populateRootRepository(rootRepository, filePath);
+        ChunkedRootLoader.Result result = ChunkedRootLoader.load(Path.of(filePath));
+        rootRepository.saveAll(result.getRoots());
+        lastLoad = result;
         return rootRepository.count();
     }
 
+    /** Statistics of the last loadRootsFromFile, or null. */
+    public ChunkedRootLoader.Result getLastLoad() {
+        return lastLoad;
+    }
+
 
     public void addRoot(String rootLetters) {
         if (rootLetters == null || rootLetters.length() != 3) {
@@ -45,6 +59,21 @@ public class RootService {
         return rootRepository.findAll();
     }
 
+    /** Streams all roots in sorted order without copying them. */
+    public Stream<Root> streamRoots() {
+        return rootRepository.stream();
+    }
+
+    /** Returns one page of the roots starting with prefix, in sorted order. */
+    public List<Root> findRootsByPrefix(String prefix, int offset, int limit) {
+        return rootRepository.findByPrefix(prefix, offset, limit);
+    }
+
+    /** Counts the roots starting with prefix without listing them. */
+    public int countRootsByPrefix(String prefix) {
+        return rootRepository.countByPrefix(prefix);
+    }
+
     public int getRootCount() {
         return rootRepository.count();
     }
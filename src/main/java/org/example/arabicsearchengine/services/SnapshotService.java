@@ -0,0 +1,146 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
+import org.example.arabicsearchengine.repositories.DictionarySnapshot;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RootRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves the dictionary (roots, patterns, derived words and their frequencies)
+ * to a DictionarySnapshot and restores it at startup, so the text files do not
+ * have to be parsed again and frequencies survive a restart.
+ */
+public class SnapshotService {
+
+    /** Where the GUI and CLI keep their snapshot. */
+    public static final Path DEFAULT_PATH =
+            Path.of(System.getProperty("user.home"), ".arabic-search-engine", "dictionary.snapshot");
+
+    private final RootRepository rootRepository;
+    private final PatternRepository patternRepository;
+    private final MorphologyService morphologyService;
+    private final Path path;
+    private long lastLoadNanos = -1;
+
+    public SnapshotService(RootService rootService, PatternService patternService,
+                           MorphologyService morphologyService, Path path) {
+        this.rootRepository = rootService.getRepository();
+        this.patternRepository = patternService.getRepository();
+        this.morphologyService = morphologyService;
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    /** Writes the current roots, patterns and derived words, replacing any previous snapshot. */
+    public void save() throws IOException {
+        capture().write();
+    }
+
+    /**
+     * Takes a versioned copy of the current roots, patterns and derived words
+     * so they can be written later, on any thread. Must run on the thread that
+     * changes the repositories. Words in a DerivedWordStore and roots in
+     * PERSISTENT_AVL storage are shared copy-on-write, so capturing them is
+     * O(1). Other root storages copy their roots, and words kept on Root
+     * objects are copied, because they change in place.
+     */
+    public Capture capture() {
+        RootRepository roots = rootRepository.snapshot();
+        List<Pattern> patterns = patternRepository.findAll();
+        DerivedWordStore store = morphologyService.getWordStore();
+        if (store != null) {
+            DerivedWordStore.Snapshot words = store.snapshot();
+            return new Capture(roots, patterns, new DictionarySnapshot.WordSource() {
+                @Override
+                public int size() {
+                    return words.getSize();
+                }
+
+                @Override
+                public void forEach(DictionarySnapshot.WordVisitor visitor) {
+                    words.forEach((letters, pattern, frequency) ->
+                            visitor.visit(letters, pattern.getPatternId(), frequency));
+                }
+            });
+        }
+        List<DerivedWord> derivedWords = new ArrayList<>();
+        for (Root root : roots) {
+            // Copies the words with their frequencies as they are now
+            derivedWords.addAll(morphologyService.getDerivedWords(root));
+        }
+        return new Capture(roots, patterns, DictionarySnapshot.WordSource.of(derivedWords));
+    }
+
+    /** The dictionary as it was when capture() ran. */
+    public final class Capture {
+        private final RootRepository roots;
+        private final List<Pattern> patterns;
+        private final DictionarySnapshot.WordSource derivedWords;
+
+        private Capture(RootRepository roots, List<Pattern> patterns, DictionarySnapshot.WordSource derivedWords) {
+            this.roots = roots;
+            this.patterns = patterns;
+            this.derivedWords = derivedWords;
+        }
+
+        /** Writes the copy, replacing any previous snapshot. */
+        public void write() throws IOException {
+            DictionarySnapshot.write(path, roots.findAll(), patterns, derivedWords);
+        }
+    }
+
+    /**
+     * Restores the snapshot into the repositories and the morphology service.
+     * Patterns with the same ID are replaced; roots already stored are kept and
+     * receive the saved words.
+     *
+     * @return The snapshot read, or null if there is no snapshot file
+     */
+    public DictionarySnapshot load() throws IOException {
+        if (!exists()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        DictionarySnapshot snapshot = DictionarySnapshot.open(path);
+
+        List<Pattern> patterns = snapshot.getPatterns();
+        for (Pattern pattern : patterns) {
+            patternRepository.save(pattern);
+        }
+        patternRepository.freeze();
+
+        boolean empty = rootRepository.isEmpty();
+        List<Root> roots = snapshot.getRoots();
+        rootRepository.saveAll(roots);
+        if (!empty) {
+            // Attach words to the stored instance when a root was already there
+            roots.replaceAll(root -> rootRepository.findByLetters(root.getRootLetters()));
+        }
+        snapshot.forEachEntry((rootIndex, patternIndex, frequency) ->
+                morphologyService.restoreWord(roots.get(rootIndex), patterns.get(patternIndex), frequency));
+
+        lastLoadNanos = System.nanoTime() - start;
+        return snapshot;
+    }
+
+    /** Duration of the last load, or -1 if nothing was loaded. */
+    public long getLastLoadNanos() {
+        return lastLoadNanos;
+    }
+}
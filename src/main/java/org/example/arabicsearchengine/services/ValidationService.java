@@ -4,22 +4,71 @@ package org.example.arabicsearchengine.services;
 import org.example.arabicsearchengine.models.Pattern;
 import org.example.arabicsearchengine.models.Root;
 import org.example.arabicsearchengine.models.ValidationResult;
+import org.example.arabicsearchengine.repositories.DerivationIndex;
 import org.example.arabicsearchengine.repositories.PatternRepository;
 import org.example.arabicsearchengine.repositories.RootRepository;
 
 import java.util.List;
 
 public class ValidationService {
+
+    /** How identifyWord finds the root and pattern of a word. */
+    public enum IdentificationStrategy {
+        /** Probe the reverse derivation index (fastest, keeps every derived word in memory). */
+        INDEX,
+        /** Match each pattern skeleton and look up the slot letters (no index, O(#patterns)). */
+        TEMPLATE,
+        /** Apply every pattern to every root (no index, O(#roots × #patterns)). */
+        BRUTE_FORCE
+    }
+
     private final RootRepository rootRepository;
     private final PatternRepository patternRepository;
     private final MorphologyService morphologyService;
+    private IdentificationStrategy identificationStrategy;
+    private DerivationIndex derivationIndex;
 
     public ValidationService(RootRepository rootRepository,
             PatternRepository patternRepository,
             MorphologyService morphologyService) {
+        this(rootRepository, patternRepository, morphologyService, IdentificationStrategy.INDEX);
+    }
+
+    public ValidationService(RootRepository rootRepository,
+            PatternRepository patternRepository,
+            MorphologyService morphologyService,
+            IdentificationStrategy identificationStrategy) {
         this.rootRepository = rootRepository;
         this.patternRepository = patternRepository;
         this.morphologyService = morphologyService;
+        if (identificationStrategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
+        this.identificationStrategy = identificationStrategy;
+        if (identificationStrategy == IdentificationStrategy.INDEX) {
+            derivationIndex = DerivationIndex.attach(rootRepository, patternRepository);
+        }
+    }
+
+    public IdentificationStrategy getIdentificationStrategy() {
+        return identificationStrategy;
+    }
+
+    /**
+     * Switches the identification path. The reverse index is only kept
+     * (and kept in sync) while the INDEX strategy is selected.
+     */
+    public void setIdentificationStrategy(IdentificationStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
+        this.identificationStrategy = strategy;
+        if (strategy == IdentificationStrategy.INDEX && derivationIndex == null) {
+            derivationIndex = DerivationIndex.attach(rootRepository, patternRepository);
+        } else if (strategy != IdentificationStrategy.INDEX && derivationIndex != null) {
+            derivationIndex.detach();
+            derivationIndex = null;
+        }
     }
 
     /**
@@ -60,16 +109,14 @@ public class ValidationService {
     /**
      * Identifies a word by finding its root and pattern.
      * Returns OUI/NON with identified root and pattern.
+     * The lookup path depends on the selected IdentificationStrategy.
      */
     public ValidationResult identifyWord(String word) {
-        List<Root> allRoots = rootRepository.findAll();
-        List<Pattern> allPatterns = patternRepository.findAll();
-
-        if (allRoots == null || allRoots.isEmpty() || allPatterns == null || allPatterns.isEmpty()) {
+        if (rootRepository.isEmpty() || patternRepository.isEmpty()) {
             return ValidationResult.failure("قاعدة البيانات غير كاملة - جذور أو صيغ غير متاحة");
         }
 
-        MorphologyService.DecompositionResult result = morphologyService.decomposeWord(word, allRoots, allPatterns);
+        MorphologyService.DecompositionResult result = decompose(word);
 
         if (result.isFound()) {
             Root root = result.getRoot();
@@ -87,6 +134,27 @@ public class ValidationService {
         }
     }
 
+    private MorphologyService.DecompositionResult decompose(String word) {
+        return switch (identificationStrategy) {
+            case INDEX -> lookupIndex(word);
+            case TEMPLATE -> morphologyService.identifyByTemplate(word, rootRepository, patternRepository.findAll());
+            case BRUTE_FORCE -> morphologyService.decomposeWord(word, rootRepository, patternRepository.findAll());
+        };
+    }
+
+    private MorphologyService.DecompositionResult lookupIndex(String word) {
+        DerivationIndex.Derivation match = derivationIndex.findFirst(word);
+        if (match == null) {
+            return new MorphologyService.DecompositionResult(null, null, false);
+        }
+        return new MorphologyService.DecompositionResult(match.getRoot(), match.getPattern(), true);
+    }
+
+    /** Returns the reverse derivation index, or null when the INDEX strategy is not selected. */
+    public DerivationIndex getDerivationIndex() {
+        return derivationIndex;
+    }
+
     /** Validates that a string is a valid 3-letter Arabic root. */
     public boolean isValidRootFormat(String root) {
         if (root == null || root.trim().isEmpty()) {
@@ -0,0 +1,238 @@
+package org.example.arabicsearchengine.utils;
+
+import org.example.arabicsearchengine.models.Root;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Loads large root lists (one root per line, '#' comments) in parallel.
+ * The file is read into one heap buffer and cut into chunks that start after a
+ * newline. It is not memory-mapped: a mapping outlives the channel until it is
+ * garbage collected, and on Windows it keeps editors from saving a hot-reloaded
+ * file.
+ * Each worker decodes the UTF-8 bytes of its lines straight into RootCodec
+ * codes, without building a String per line, and marks them in its own bitmap
+ * of the code space. Merging the bitmaps removes duplicates and yields the
+ * roots already sorted, ready for RootRepository.saveAll to bulk-build.
+ * Lines that are not three encodable letters are counted, not printed; three
+ * other characters (e.g. Latin test roots) are still accepted, through a slow
+ * path that decodes the line.
+ */
+public final class ChunkedRootLoader {
+
+    /** Chunks smaller than this are not worth a task of their own. */
+    public static final int MIN_CHUNK_BYTES = 1 << 20;
+
+    private static final int BITMAP_WORDS = RootCodec.CODE_SPACE / Long.SIZE;
+    // An Arabic letter in the RootCodec range (U+0620 to U+065F) is two UTF-8 bytes
+    private static final int ENCODED_ROOT_BYTES = 6;
+
+    private ChunkedRootLoader() {
+    }
+
+    /** Outcome of a load: the distinct roots and what was skipped along the way. */
+    public static final class Result {
+        private final List<Root> roots;
+        private final long lines;
+        private final long rootLines;
+        private final long skippedLines;
+        private final long bytes;
+        private final int chunks;
+        private final long nanos;
+
+        private Result(List<Root> roots, long lines, long rootLines, long skippedLines,
+                       long bytes, int chunks, long nanos) {
+            this.roots = roots;
+            this.lines = lines;
+            this.rootLines = rootLines;
+            this.skippedLines = skippedLines;
+            this.bytes = bytes;
+            this.chunks = chunks;
+            this.nanos = nanos;
+        }
+
+        /** Distinct roots, sorted. */
+        public List<Root> getRoots() { return roots; }
+        public long getLines() { return lines; }
+        /** Lines holding a root, duplicates included. */
+        public long getRootLines() { return rootLines; }
+        /** Non-blank, non-comment lines that are not three letters. */
+        public long getSkippedLines() { return skippedLines; }
+        public long getBytes() { return bytes; }
+        public int getChunks() { return chunks; }
+        public long getNanos() { return nanos; }
+
+        public double getMegabytesPerSecond() {
+            return nanos == 0 ? 0 : (bytes / (1024.0 * 1024.0)) / (nanos / 1e9);
+        }
+    }
+
+    /** Counts and roots found by one worker. */
+    private static final class Chunk {
+        final long[] codes = new long[BITMAP_WORDS];
+        final List<String> otherRoots = new ArrayList<>();
+        long lines;
+        long rootLines;
+        long skippedLines;
+    }
+
+    /** Loads a file, one chunk per MIN_CHUNK_BYTES, up to four per core. */
+    public static Result load(Path path) throws IOException {
+        return load(path, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Loads a file with at most maxChunks parallel chunks.
+     * Files over 2 GB are rejected; no root list comes near that.
+     */
+    public static Result load(Path path, int maxChunks) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Root file too large to load: " + size + " bytes");
+            }
+            // Stops early if the file shrank while being read
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading
+            }
+            buffer.flip();
+            return parse(buffer, maxChunks, start);
+        }
+    }
+
+    /**
+     * Loads from a stream, e.g. a classpath resource. The stream is read fully,
+     * then parsed like a file; it is not closed.
+     */
+    public static Result load(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        return parse(ByteBuffer.wrap(in.readAllBytes()), Runtime.getRuntime().availableProcessors() * 4, start);
+    }
+
+    private static Result parse(ByteBuffer buffer, int maxChunks, long start) {
+        int size = buffer.limit();
+        int chunkCount = Math.max(1, Math.min(maxChunks, size / MIN_CHUNK_BYTES));
+        int chunkBytes = (int) ((size + (long) chunkCount - 1) / chunkCount);
+
+        // Workers only use absolute reads, each on its own view of the buffer
+        List<Chunk> chunks = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(i -> parseChunk(buffer.duplicate(), i * chunkBytes,
+                        (int) Math.min(size, (long) (i + 1) * chunkBytes)))
+                .toList();
+
+        long[] merged = new long[BITMAP_WORDS];
+        List<String> otherRoots = new ArrayList<>();
+        long lines = 0;
+        long rootLines = 0;
+        long skipped = 0;
+        for (Chunk chunk : chunks) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                merged[w] |= chunk.codes[w];
+            }
+            otherRoots.addAll(chunk.otherRoots);
+            lines += chunk.lines;
+            rootLines += chunk.rootLines;
+            skipped += chunk.skippedLines;
+        }
+
+        List<Root> roots = new ArrayList<>();
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            long bits = merged[w];
+            while (bits != 0) {
+                int code = w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                roots.add(new Root(RootCodec.decode(code)));
+                bits &= bits - 1;
+            }
+        }
+        // Rare; saveAll sorts and drops the duplicates
+        for (String letters : otherRoots) {
+            roots.add(new Root(letters));
+        }
+        return new Result(roots, lines, rootLines, skipped, size, chunkCount, System.nanoTime() - start);
+    }
+
+    /** Parses every line that starts in [from, to); the last one may run past to. */
+    private static Chunk parseChunk(ByteBuffer buffer, int from, int to) {
+        Chunk chunk = new Chunk();
+        int limit = buffer.limit();
+        int pos = from;
+        if (pos > 0 && buffer.get(pos - 1) != '\n') {
+            // Mid-line: the previous chunk owns this line
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+        while (pos < to) {
+            int end = pos;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            parseLine(buffer, pos, end, chunk);
+            pos = end + 1;
+        }
+        return chunk;
+    }
+
+    private static void parseLine(ByteBuffer buffer, int from, int to, Chunk chunk) {
+        chunk.lines++;
+        if (from == 0 && to >= 3 && (buffer.get(0) & 0xFF) == 0xEF
+                && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+            from = 3;  // Byte order mark
+        }
+        // Same as String.trim: ASCII whitespace and control bytes
+        while (from < to && (buffer.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        if (from == to || buffer.get(from) == '#') {
+            return;
+        }
+
+        if (to - from == ENCODED_ROOT_BYTES) {
+            int code = 0;
+            for (int i = from; i < to && code != RootCodec.INVALID; i += 2) {
+                int letter = decodeLetter(buffer.get(i), buffer.get(i + 1));
+                code = letter < 0 ? RootCodec.INVALID : (code << RootCodec.BITS_PER_LETTER) | letter;
+            }
+            if (code != RootCodec.INVALID) {
+                chunk.codes[code / Long.SIZE] |= 1L << code;
+                chunk.rootLines++;
+                return;
+            }
+        }
+
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        String line = new String(bytes, StandardCharsets.UTF_8);
+        if (line.length() == 3) {
+            chunk.otherRoots.add(line);
+            chunk.rootLines++;
+        } else {
+            chunk.skippedLines++;
+        }
+    }
+
+    /** Returns the RootCodec letter index of a two-byte UTF-8 sequence, or -1. */
+    private static int decodeLetter(byte lead, byte trail) {
+        if ((lead & 0xE0) != 0xC0 || (trail & 0xC0) != 0x80) {
+            return -1;
+        }
+        char c = (char) (((lead & 0x1F) << 6) | (trail & 0x3F));
+        return RootCodec.isEncodable(c) ? c - RootCodec.FIRST_LETTER : -1;
+    }
+}
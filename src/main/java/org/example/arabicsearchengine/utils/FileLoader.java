@@ -7,53 +7,25 @@ import org.example.arabicsearchengine.repositories.RootRepository;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 public class FileLoader {
 
+    /**Loads the distinct Arabic roots of a file, sorted; see ChunkedRootLoader.*/
     public static List<Root> loadRoots(String filePath) throws IOException {
-        List<Root> roots = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (!line.isEmpty() && !line.startsWith("#") && line.length() == 3) {
-                    try {
-                        roots.add(new Root(line));
-                    } catch (IllegalArgumentException e) {
-                        System.err.println("Skipping invalid root: " + line);
-                    }
-                }
-            }
-        }
-
-        return roots;
+        return ChunkedRootLoader.load(Path.of(filePath)).getRoots();
     }
 
     /**Loads Arabic roots from classpath resource.*/
     public static List<Root> loadRootsFromResource(String resourcePath) throws IOException {
-        List<Root> roots = new ArrayList<>();
-
-        try (InputStream is = FileLoader.class.getResourceAsStream(resourcePath);
-             BufferedReader reader = new BufferedReader(
-                     new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (!line.isEmpty() && !line.startsWith("#") && line.length() == 3) {
-                    try {
-                        roots.add(new Root(line));
-                    } catch (IllegalArgumentException e) {
-                        System.err.println("Skipping invalid root: " + line);
-                    }
-                }
+        try (InputStream is = FileLoader.class.getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                throw new FileNotFoundException("Resource not found: " + resourcePath);
             }
+            return ChunkedRootLoader.load(is).getRoots();
         }
-
-        return roots;
     }
 
     /**Loads morphological patterns from a file.*/
@@ -109,10 +81,7 @@ public class FileLoader {
 
     /**Populates a RootRepository from a file.*/
     public static void populateRootRepository(RootRepository repo, String filePath) throws IOException {
-        List<Root> roots = loadRoots(filePath);
-        for (Root root : roots) {
-            repo.save(root);
-        }
+        repo.saveAll(loadRoots(filePath));
     }
 
     /**Populates a PatternRepository from a file.*/
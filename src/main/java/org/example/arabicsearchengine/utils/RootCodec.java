@@ -0,0 +1,90 @@
+package org.example.arabicsearchengine.utils;
+
+/**
+ * Packs a triliteral root into a small int code.
+ * Each letter is stored as its 6-bit offset from U+0620, which covers the whole
+ * Arabic letter range (ء..ي, hamza carriers, ة, ى) and the harakat.
+ * The three offsets are concatenated R1|R2|R3, so codes sort in the same order
+ * as the root strings and fit in an 18-bit key space.
+ */
+public final class RootCodec {
+
+    public static final char FIRST_LETTER = '\u0620';
+    public static final int BITS_PER_LETTER = 6;
+    public static final int LETTER_RANGE = 1 << BITS_PER_LETTER;
+    /** Number of distinct codes: every valid code is in [0, CODE_SPACE). */
+    public static final int CODE_SPACE = 1 << (3 * BITS_PER_LETTER);
+    /** Returned when letters cannot be encoded. */
+    public static final int INVALID = -1;
+
+    private static final int MASK = LETTER_RANGE - 1;
+
+    private RootCodec() {
+    }
+
+    /** Checks if a character fits in the 6-bit letter range. */
+    public static boolean isEncodable(char c) {
+        return c >= FIRST_LETTER && c < FIRST_LETTER + LETTER_RANGE;
+    }
+
+    /** Encodes three letters, or returns INVALID if one is outside the range. */
+    public static int encode(char r1, char r2, char r3) {
+        if (!isEncodable(r1) || !isEncodable(r2) || !isEncodable(r3)) {
+            return INVALID;
+        }
+        return ((r1 - FIRST_LETTER) << (2 * BITS_PER_LETTER))
+                | ((r2 - FIRST_LETTER) << BITS_PER_LETTER)
+                | (r3 - FIRST_LETTER);
+    }
+
+    /** Encodes a 3-letter string, or returns INVALID. */
+    public static int encode(CharSequence letters) {
+        if (letters == null || letters.length() != 3) {
+            return INVALID;
+        }
+        return encode(letters.charAt(0), letters.charAt(1), letters.charAt(2));
+    }
+
+    /**
+     * Returns the smallest code whose root string is greater than or equal to key,
+     * or CODE_SPACE if there is none. key may be any string, e.g. a 1 or 2 letter prefix,
+     * so rank queries over codes match rank queries over root strings.
+     */
+    public static int ceiling(CharSequence key) {
+        int code = 0;
+        for (int i = 0; i < 3; i++) {
+            int shift = (2 - i) * BITS_PER_LETTER;
+            if (i == key.length()) {
+                // A proper prefix sorts before every root that extends it
+                return code;
+            }
+            char c = key.charAt(i);
+            if (c < FIRST_LETTER) {
+                return code;
+            }
+            if (c >= FIRST_LETTER + LETTER_RANGE) {
+                // Every root sharing the prefix so far sorts before key: move to the next prefix
+                return code + (1 << (shift + BITS_PER_LETTER));
+            }
+            code |= (c - FIRST_LETTER) << shift;
+        }
+        return key.length() > 3 ? code + 1 : code;
+    }
+
+    public static char r1(int code) {
+        return (char) (FIRST_LETTER + ((code >>> (2 * BITS_PER_LETTER)) & MASK));
+    }
+
+    public static char r2(int code) {
+        return (char) (FIRST_LETTER + ((code >>> BITS_PER_LETTER) & MASK));
+    }
+
+    public static char r3(int code) {
+        return (char) (FIRST_LETTER + (code & MASK));
+    }
+
+    /** Rebuilds the root letters from a valid code. */
+    public static String decode(int code) {
+        return new String(new char[]{r1(code), r2(code), r3(code)});
+    }
+}
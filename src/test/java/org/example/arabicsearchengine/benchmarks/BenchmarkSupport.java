@@ -0,0 +1,79 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.utils.FileLoader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal timing harness shared by the benchmarks in this package.
+ * Benchmarks are plain main classes (not picked up by surefire); run them with
+ * java -cp target/classes:target/test-classes org.example.arabicsearchengine.benchmarks.&lt;Name&gt;
+ */
+final class BenchmarkSupport {
+
+    /** Letters used to build synthetic triliteral roots. */
+    static final String LETTERS = "ابتثجحخدذرزسشصضطظعغفقكلمنهوي";
+
+    /** Written by benchmarks so the JIT cannot drop the measured work. */
+    static volatile Object sink;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Runs the round a few times to warm up, then reports the mean time per operation.
+     *
+     * @param label       Name printed in the report
+     * @param opsPerRound Number of operations performed by one call of round
+     * @return Mean nanoseconds per operation
+     */
+    static double measure(String label, int opsPerRound, int warmupRounds, int rounds, Runnable round) {
+        for (int i = 0; i < warmupRounds; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            round.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        double nsPerOp = (double) elapsed / ((long) rounds * opsPerRound);
+        System.out.printf("%-45s %12.1f ns/op%n", label, nsPerOp);
+        return nsPerOp;
+    }
+
+    /** Returns up to count distinct roots built from LETTERS, in sorted order. */
+    static List<Root> syntheticRoots(int count) {
+        List<Root> roots = new ArrayList<>(count);
+        int n = LETTERS.length();
+        for (int i = 0; i < n && roots.size() < count; i++) {
+            for (int j = 0; j < n && roots.size() < count; j++) {
+                for (int k = 0; k < n && roots.size() < count; k++) {
+                    roots.add(new Root("" + LETTERS.charAt(i) + LETTERS.charAt(j) + LETTERS.charAt(k)));
+                }
+            }
+        }
+        return roots;
+    }
+
+    /** Loads the bundled pattern catalogue. */
+    static List<Pattern> defaultPatterns() {
+        try {
+            return FileLoader.loadPatternsFromResource("/org/example/arabicsearchengine/data/patterns.txt");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load bundled patterns", e);
+        }
+    }
+
+    /** Returns the bytes currently used on the heap after a best-effort GC. */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.datastructures.tree.AVLTree;
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.List;
+
+/**
+ * Compares loading sorted roots one insert at a time against the bulk build
+ * on an empty tree and the merge-rebuild on a half-filled tree.
+ */
+public class BulkLoadBenchmark {
+
+    private static final int ROOTS = 20_000;
+
+    public static void main(String[] args) {
+        List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+        List<Root> firstHalf = roots.subList(0, ROOTS / 2);
+
+        System.out.println("== " + roots.size() + " sorted roots ==");
+        BenchmarkSupport.measure("insert one by one", roots.size(), 10, 50, () -> {
+            AVLTree<Root> tree = new AVLTree<>();
+            for (Root root : roots) {
+                tree.insert(root);
+            }
+            BenchmarkSupport.sink = tree;
+        });
+        BenchmarkSupport.measure("addAll on empty tree (bulk build)", roots.size(), 10, 50, () -> {
+            AVLTree<Root> tree = new AVLTree<>();
+            tree.addAll(roots);
+            BenchmarkSupport.sink = tree;
+        });
+        BenchmarkSupport.measure("addAll on half-filled tree (merge)", roots.size(), 10, 50, () -> {
+            AVLTree<Root> tree = new AVLTree<>();
+            tree.addAll(firstHalf);
+            tree.addAll(roots);
+            BenchmarkSupport.sink = tree;
+        });
+    }
+}
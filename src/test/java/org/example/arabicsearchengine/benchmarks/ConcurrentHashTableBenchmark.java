@@ -0,0 +1,108 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.datastructures.hashtable.ConcurrentHashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mixed read/write throughput (7 in 8 operations are gets) over a shared table, comparing
+ * ConcurrentHashTable with java.util.concurrent.ConcurrentHashMap and with the
+ * plain HashTable behind one lock.
+ */
+public class ConcurrentHashTableBenchmark {
+
+    private static final int KEYS = 20_000;
+    private static final long DURATION_MS = 2_000;
+
+    /** The operations a run needs, so each table can be plugged in the same way. */
+    private interface Table {
+        Object get(String key);
+
+        void put(String key, Object value);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> keys = new ArrayList<>(KEYS);
+        for (Root root : BenchmarkSupport.syntheticRoots(KEYS)) {
+            keys.add(root.getRootLetters());
+        }
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        System.out.println(threads + " threads, " + DURATION_MS + " ms per run");
+
+        ConcurrentHashTable<String, Object> striped = new ConcurrentHashTable<>();
+        run("ConcurrentHashTable", new Table() {
+            public Object get(String key) {
+                return striped.get(key);
+            }
+
+            public void put(String key, Object value) {
+                striped.put(key, value);
+            }
+        }, keys, threads);
+
+        ConcurrentHashMap<String, Object> map = new ConcurrentHashMap<>();
+        run("ConcurrentHashMap", new Table() {
+            public Object get(String key) {
+                return map.get(key);
+            }
+
+            public void put(String key, Object value) {
+                map.put(key, value);
+            }
+        }, keys, threads);
+
+        HashTable<String, Object> plain = new HashTable<>();
+        run("HashTable + one lock", new Table() {
+            public synchronized Object get(String key) {
+                return plain.get(key);
+            }
+
+            public synchronized void put(String key, Object value) {
+                plain.put(key, value);
+            }
+        }, keys, threads);
+    }
+
+    private static void run(String label, Table table, List<String> keys, int threads) throws InterruptedException {
+        // Half the keys are present up front; puts add the rest and overwrite
+        for (int i = 0; i < keys.size(); i += 2) {
+            table.put(keys.get(i), keys.get(i));
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder ops = new LongAdder();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int seed = t * 7919 + 1;
+            new Thread(() -> {
+                int x = seed;
+                long local = 0;
+                while (!stop.get()) {
+                    // xorshift: cheap per-thread random index
+                    x ^= x << 13;
+                    x ^= x >>> 17;
+                    x ^= x << 5;
+                    String key = keys.get((x & Integer.MAX_VALUE) % keys.size());
+                    if ((x & 15) < 14) {
+                        BenchmarkSupport.sink = table.get(key);
+                    } else {
+                        table.put(key, key);
+                    }
+                    local++;
+                }
+                ops.add(local);
+                finished.countDown();
+            }).start();
+        }
+        Thread.sleep(DURATION_MS);
+        stop.set(true);
+        finished.await();
+        System.out.printf("%-24s %12.0f ops/s%n", label, ops.sum() / (DURATION_MS / 1000.0));
+    }
+}
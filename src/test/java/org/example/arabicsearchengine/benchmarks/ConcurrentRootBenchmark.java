@@ -0,0 +1,98 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.repositories.RootRepository.StorageType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read throughput while one writer keeps loading and removing root batches.
+ * The persistent AVL storage is read without locks; the mutable AVL storage
+ * needs a read-write lock to be used safely from several threads.
+ */
+public class ConcurrentRootBenchmark {
+
+    private static final int ROOTS = 20_000;
+    private static final int BATCH = 2_000;
+    private static final long DURATION_MS = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+        List<Root> base = new ArrayList<>(roots.subList(0, ROOTS - BATCH));
+        List<Root> batch = new ArrayList<>(roots.subList(ROOTS - BATCH, ROOTS));
+        int readers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        System.out.println(readers + " reader thread(s), 1 writer, " + DURATION_MS + " ms per run");
+        run("PERSISTENT_AVL (lock-free)", StorageType.PERSISTENT_AVL, null, base, batch, readers);
+        run("AVL_TREE (read-write lock)", StorageType.AVL_TREE, new ReentrantReadWriteLock(), base, batch, readers);
+    }
+
+    private static void run(String label, StorageType type, ReadWriteLock lock,
+                            List<Root> base, List<Root> batch, int readers) throws InterruptedException {
+        RootRepository repository = new RootRepository(type);
+        repository.saveAll(base);
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        CountDownLatch finished = new CountDownLatch(readers + 1);
+
+        for (int t = 0; t < readers; t++) {
+            int offset = t * 7919;
+            new Thread(() -> {
+                int i = offset;
+                long local = 0;
+                while (!stop.get()) {
+                    String letters = base.get(i++ % base.size()).getRootLetters();
+                    if (lock != null) {
+                        lock.readLock().lock();
+                        try {
+                            BenchmarkSupport.sink = repository.findByLetters(letters);
+                        } finally {
+                            lock.readLock().unlock();
+                        }
+                    } else {
+                        BenchmarkSupport.sink = repository.findByLetters(letters);
+                    }
+                    local++;
+                }
+                reads.add(local);
+                finished.countDown();
+            }).start();
+        }
+
+        new Thread(() -> {
+            while (!stop.get()) {
+                if (lock != null) {
+                    lock.writeLock().lock();
+                }
+                try {
+                    repository.saveAll(batch);
+                    for (Root root : batch) {
+                        repository.delete(root.getRootLetters());
+                    }
+                } finally {
+                    if (lock != null) {
+                        lock.writeLock().unlock();
+                    }
+                }
+                writes.add(2L * batch.size());
+            }
+            finished.countDown();
+        }).start();
+
+        Thread.sleep(DURATION_MS);
+        stop.set(true);
+        finished.await();
+
+        double seconds = DURATION_MS / 1000.0;
+        System.out.printf("%-30s reads %10.0f /s   writes %10.0f /s%n",
+                label, reads.sum() / seconds, writes.sum() / seconds);
+    }
+}
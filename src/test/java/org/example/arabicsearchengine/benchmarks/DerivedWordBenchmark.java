@@ -0,0 +1,51 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
+import org.example.arabicsearchengine.services.MorphologyService;
+
+import java.util.List;
+
+/**
+ * Compares per-root DerivedWord lists with the compact DerivedWordStore:
+ * retained heap after generating every word of every root, and the cost of
+ * generating a word again (the validation path, which bumps its frequency).
+ */
+public class DerivedWordBenchmark {
+
+    private static final int ROOTS = 5_000;
+
+    public static void main(String[] args) {
+        List<Pattern> patterns = BenchmarkSupport.defaultPatterns();
+        run("per-root lists", new MorphologyService(), patterns);
+        run("DerivedWordStore", new MorphologyService(new DerivedWordStore()), patterns);
+    }
+
+    private static void run(String label, MorphologyService service, List<Pattern> patterns) {
+        long before = BenchmarkSupport.usedHeap();
+        List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+        long rootsOnly = BenchmarkSupport.usedHeap() - before;
+        for (Root root : roots) {
+            service.generateAllWords(root, patterns);
+        }
+        long heap = BenchmarkSupport.usedHeap() - before - rootsOnly;
+        int words = roots.size() * patterns.size();
+        System.out.printf("== %s (%d words, ~%d bytes/word) ==%n", label, words, heap / words);
+
+        BenchmarkSupport.measure("generateWord (repeat)", words, 5, 50, () -> {
+            for (Root root : roots) {
+                for (Pattern pattern : patterns) {
+                    BenchmarkSupport.sink = service.generateWord(root, pattern);
+                }
+            }
+        });
+        BenchmarkSupport.measure("getDerivedWords + read one", roots.size(), 5, 50, () -> {
+            int total = 0;
+            for (Root root : roots) {
+                total += service.getDerivedWords(root).get(0).getFrequency();
+            }
+            BenchmarkSupport.sink = total;
+        });
+    }
+}
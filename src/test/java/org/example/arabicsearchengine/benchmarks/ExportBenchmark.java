@@ -0,0 +1,99 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.services.ExportService;
+import org.example.arabicsearchengine.services.MorphologyService;
+import org.example.arabicsearchengine.services.RootService;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Every synthetic root with every bundled pattern generated, exported the
+ * way the views used to (all rows collected, then a PrintWriter) and with
+ * ExportService in each format.
+ */
+public class ExportBenchmark {
+
+    private static final int ROOTS = 22_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException, ExecutionException, InterruptedException {
+        RootService rootService = new RootService(new RootRepository());
+        MorphologyService morphologyService = new MorphologyService();
+        List<Pattern> patterns = BenchmarkSupport.defaultPatterns();
+        for (Root root : BenchmarkSupport.syntheticRoots(ROOTS)) {
+            rootService.addRoot(root.getRootLetters());
+            morphologyService.generateAllWords(rootService.searchRoot(root.getRootLetters()), patterns);
+        }
+        ExportService exportService = new ExportService(rootService, morphologyService);
+        Path file = Files.createTempFile("export", ".out");
+        System.out.printf("== %d roots x %d patterns ==%n", rootService.getRootCount(), patterns.size());
+
+        long rows = 0;
+        long heapBefore = BenchmarkSupport.usedHeap();
+        List<String> collected = collect(rootService, morphologyService);
+        long collectedHeap = BenchmarkSupport.usedHeap() - heapBefore;
+        BenchmarkSupport.sink = collected;
+        collected = null;
+
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS + 1; i++) {
+            long start = System.nanoTime();
+            List<String> lines = collect(rootService, morphologyService);
+            try (PrintWriter writer = new PrintWriter(new FileWriter(file.toFile(), StandardCharsets.UTF_8))) {
+                for (String line : lines) {
+                    writer.println(line);
+                }
+            }
+            rows = lines.size();
+            if (i > 0) {
+                nanos[i - 1] = System.nanoTime() - start;
+            }
+        }
+        report("collect + PrintWriter", rows, Files.size(file), nanos);
+        System.out.printf("%-22s %7.1f MB of rows held on the heap%n", "", collectedHeap / 1e6);
+
+        for (ExportService.Format format : ExportService.Format.values()) {
+            ExportService.ExportJob job = null;
+            for (int i = 0; i < ROUNDS + 1; i++) {
+                job = exportService.start(file, format, null).getCompletion().get();
+                if (i > 0) {
+                    nanos[i - 1] = job.getNanos();
+                }
+            }
+            report("ExportService " + format.getExtension(), job.getRows(), job.getBytes(), nanos);
+        }
+        Files.delete(file);
+    }
+
+    private static List<String> collect(RootService rootService, MorphologyService morphologyService) {
+        List<String> lines = new ArrayList<>();
+        for (Root root : rootService.getAllRoots()) {
+            for (DerivedWord word : morphologyService.getDerivedWords(root)) {
+                lines.add(root.getRootLetters() + "," + word.getWord() + ","
+                        + word.getPattern().getPatternId() + "," + word.getFrequency());
+            }
+        }
+        return lines;
+    }
+
+    private static void report(String label, long rows, long bytes, long[] nanos) {
+        long best = Long.MAX_VALUE;
+        for (long n : nanos) {
+            best = Math.min(best, n);
+        }
+        System.out.printf("%-22s %8d rows %7.1f MB %8.1f ms %6.2f M rows/s %7.1f MB/s%n", label, rows, bytes / 1e6,
+                best / 1e6, rows / (best / 1e3), bytes / (best / 1e3));
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.services.FrequencyAnalyticsService;
+import org.example.arabicsearchengine.services.MorphologyService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares answering "top 50 words" from the Space-Saving tracker against
+ * walking every root's word list and sorting, times the windowed queries, and
+ * measures what the tracker adds to generateWord.
+ */
+public class FrequencyAnalyticsBenchmark {
+
+    private static final int ROOTS = 5_000;
+    private static final int TOP = 50;
+
+    public static void main(String[] args) {
+        List<Pattern> patterns = BenchmarkSupport.defaultPatterns();
+        List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+        FrequencyAnalyticsService analytics = new FrequencyAnalyticsService();
+        MorphologyService tracked = new MorphologyService(null, analytics);
+        for (Root root : roots) {
+            tracked.generateAllWords(root, patterns);
+        }
+        // Skewed repeats, like validations of common words: word ranks are log-uniform
+        Random random = new Random(1);
+        int words = roots.size() * patterns.size();
+        for (int i = 0; i < 200_000; i++) {
+            int rank = (int) Math.pow(words, random.nextDouble()) - 1;
+            tracked.generateWord(roots.get(rank / patterns.size()), patterns.get(rank % patterns.size()));
+        }
+
+        System.out.println("== Top " + TOP + " words (" + words + " words, "
+                + analytics.getTotal() + " occurrences) ==");
+        BenchmarkSupport.measure("walk all roots + sort", 1, 5, 50,
+                () -> BenchmarkSupport.sink = topByScan(roots, tracked));
+        BenchmarkSupport.measure("SpaceSaving.top", 1, 1_000, 20_000,
+                () -> BenchmarkSupport.sink = analytics.getTopWords(TOP));
+        System.out.println("tracker top 3: " + analytics.getTopWords(3));
+        System.out.println("scan top 3:    " + topByScan(roots, tracked).subList(0, 3));
+        String hot = analytics.getTopWords(1).get(0).getKey();
+        BenchmarkSupport.measure("frequency over the last hour", 1, 10_000, 1_000_000,
+                () -> BenchmarkSupport.sink = analytics.getWordFrequencyLastHour(hot));
+        BenchmarkSupport.measure("trending words (" + analytics.getTrackedWordCount() + " tracked)", 1, 5, 50,
+                () -> BenchmarkSupport.sink = analytics.getTrendingWords(TOP));
+
+        System.out.println("== generateWord (repeat) ==");
+        MorphologyService untracked = new MorphologyService();
+        for (Root root : roots) {
+            untracked.generateAllWords(root, patterns);
+        }
+        for (MorphologyService service : List.of(untracked, tracked)) {
+            String label = service.getFrequencyAnalytics() == null ? "untracked" : "tracked";
+            BenchmarkSupport.measure(label, roots.size() * patterns.size(), 5, 30, () -> {
+                for (Root root : roots) {
+                    for (Pattern pattern : patterns) {
+                        BenchmarkSupport.sink = service.generateWord(root, pattern);
+                    }
+                }
+            });
+        }
+    }
+
+    private static List<String> topByScan(List<Root> roots, MorphologyService service) {
+        List<DerivedWord> all = new ArrayList<>();
+        for (Root root : roots) {
+            all.addAll(service.getDerivedWords(root));
+        }
+        all.sort(Comparator.comparingInt(DerivedWord::getFrequency).reversed());
+        List<String> top = new ArrayList<>(TOP);
+        for (int i = 0; i < TOP && i < all.size(); i++) {
+            top.add(all.get(i).getWord() + "=" + all.get(i).getFrequency());
+        }
+        return top;
+    }
+}
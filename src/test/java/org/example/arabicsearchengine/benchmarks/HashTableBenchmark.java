@@ -0,0 +1,80 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.OpenAddressingHashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.SymbolTable;
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the chained and open-addressing hash tables on get (hits and misses),
+ * put, remove + re-put, and retained heap per entry.
+ */
+public class HashTableBenchmark {
+
+    private static final int ENTRIES = 20_000;
+
+    public static void main(String[] args) {
+        List<String> keys = new ArrayList<>();
+        for (Root root : BenchmarkSupport.syntheticRoots(ENTRIES)) {
+            keys.add(root.getRootLetters());
+        }
+        List<String> misses = new ArrayList<>();
+        for (String key : keys) {
+            misses.add(key + "ة");
+        }
+
+        run("CHAINED", HashTable::new, keys, misses);
+        run("OPEN_ADDRESSING", OpenAddressingHashTable::new, keys, misses);
+    }
+
+    private static void run(String label, Supplier<SymbolTable<String, Object>> factory,
+                            List<String> keys, List<String> misses) {
+        Object value = new Object();
+        long before = BenchmarkSupport.usedHeap();
+        SymbolTable<String, Object> table = factory.get();
+        for (String key : keys) {
+            table.put(key, value);
+        }
+        long heap = BenchmarkSupport.usedHeap() - before;
+        // Keys and the value are shared with the other table, so this is the table's own cost
+        System.out.printf("== %s (%d entries, capacity %d, ~%d bytes/entry) ==%n",
+                label, table.getSize(), table.getCapacity(), heap / table.getSize());
+
+        BenchmarkSupport.measure("get (hit)", keys.size(), 20, 200, () -> {
+            int hits = 0;
+            for (String key : keys) {
+                if (table.get(key) != null) {
+                    hits++;
+                }
+            }
+            BenchmarkSupport.sink = hits;
+        });
+        BenchmarkSupport.measure("get (miss)", misses.size(), 20, 200, () -> {
+            int hits = 0;
+            for (String key : misses) {
+                if (table.get(key) != null) {
+                    hits++;
+                }
+            }
+            BenchmarkSupport.sink = hits;
+        });
+        BenchmarkSupport.measure("put (fresh table)", keys.size(), 10, 100, () -> {
+            SymbolTable<String, Object> fresh = factory.get();
+            for (String key : keys) {
+                fresh.put(key, value);
+            }
+            BenchmarkSupport.sink = fresh;
+        });
+        BenchmarkSupport.measure("remove + put", 2_000, 20, 200, () -> {
+            for (int i = 0; i < 2_000; i++) {
+                String key = keys.get(i);
+                table.remove(key);
+                table.put(key, value);
+            }
+        });
+    }
+}
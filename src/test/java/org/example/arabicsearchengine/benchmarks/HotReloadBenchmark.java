@@ -0,0 +1,89 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.services.DataReloadService;
+import org.example.arabicsearchengine.services.PatternService;
+import org.example.arabicsearchengine.services.RootService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A root file of every synthetic root with one line changed per reload:
+ * importing the whole file again into a fresh repository, against a
+ * DataReloadService diff. The apply step (the part that would run on the FX
+ * thread) is timed apart from parsing.
+ */
+public class HotReloadBenchmark {
+
+    private static final int ROOTS = 22_000;
+    private static final int RELOADS = 21;
+
+    public static void main(String[] args) throws IOException, ExecutionException, InterruptedException {
+        List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+        Path file = Files.createTempFile("roots", ".txt");
+        System.out.printf("== %d roots, one line changed per reload ==%n", roots.size());
+
+        for (RootRepository.StorageType storage : List.of(RootRepository.StorageType.AVL_TREE,
+                RootRepository.StorageType.PERSISTENT_AVL)) {
+            RootService rootService = new RootService(new RootRepository(storage));
+            write(file, roots, -1);
+            rootService.loadRootsFromFile(file.toString());
+
+            long[] applyNanos = new long[1];
+            Executor timed = task -> {
+                long start = System.nanoTime();
+                task.run();
+                applyNanos[0] = System.nanoTime() - start;
+            };
+            DataReloadService reloader = new DataReloadService(rootService,
+                    new PatternService(new PatternRepository()), timed);
+            // Records what the file lists, so later reloads diff against it
+            reloader.reloadRoots(file).get();
+            long[] full = new long[RELOADS];
+            long[] diff = new long[RELOADS];
+            long[] apply = new long[RELOADS];
+            for (int i = 0; i < RELOADS; i++) {
+                write(file, roots, i);
+                long start = System.nanoTime();
+                RootService fresh = new RootService(new RootRepository(storage));
+                fresh.loadRootsFromFile(file.toString());
+                full[i] = System.nanoTime() - start;
+                BenchmarkSupport.sink = fresh;
+
+                start = System.nanoTime();
+                BenchmarkSupport.sink = reloader.reloadRoots(file).get();
+                diff[i] = System.nanoTime() - start;
+                apply[i] = applyNanos[0];
+            }
+            System.out.printf("%-16s full re-import %7.2f ms, diff reload %7.2f ms (apply %6.2f ms)%n", storage,
+                    median(full), median(diff), median(apply));
+        }
+        Files.delete(file);
+    }
+
+    /** Writes every root except the one at index skip. */
+    private static void write(Path file, List<Root> roots, int skip) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < roots.size(); i++) {
+            if (i != skip) {
+                text.append(roots.get(i).getRootLetters()).append('\n');
+            }
+        }
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1e6;
+    }
+}
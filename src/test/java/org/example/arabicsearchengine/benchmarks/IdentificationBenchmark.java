@@ -0,0 +1,73 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DerivationIndex;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.services.MorphologyService;
+import org.example.arabicsearchengine.services.ValidationService;
+import org.example.arabicsearchengine.services.ValidationService.IdentificationStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the identifyWord strategies (reverse index, pattern templates,
+ * brute force) for growing dictionary sizes.
+ */
+public class IdentificationBenchmark {
+
+    private static final int[] ROOT_COUNTS = {100, 1_000, 10_000};
+    private static final int QUERIES = 200;
+
+    public static void main(String[] args) {
+        List<Pattern> patterns = BenchmarkSupport.defaultPatterns();
+
+        for (int rootCount : ROOT_COUNTS) {
+            RootRepository rootRepository = new RootRepository();
+            PatternRepository patternRepository = new PatternRepository();
+            BenchmarkSupport.syntheticRoots(rootCount).forEach(rootRepository::save);
+            patterns.forEach(patternRepository::save);
+
+            List<String> words = queryWords(rootRepository.findAll(), patterns);
+            ValidationService service = new ValidationService(rootRepository, patternRepository,
+                    new MorphologyService(), IdentificationStrategy.TEMPLATE);
+
+            System.out.println("== " + rootCount + " roots × " + patterns.size() + " patterns ==");
+            for (IdentificationStrategy strategy : IdentificationStrategy.values()) {
+                long before = BenchmarkSupport.usedHeap();
+                service.setIdentificationStrategy(strategy);
+                long indexBytes = BenchmarkSupport.usedHeap() - before;
+
+                int rounds = strategy == IdentificationStrategy.BRUTE_FORCE ? Math.max(1, 20_000 / rootCount) : 200;
+                BenchmarkSupport.measure(strategy.name(), words.size(), Math.max(1, rounds / 4), rounds, () -> {
+                    for (String word : words) {
+                        BenchmarkSupport.sink = service.identifyWord(word);
+                    }
+                });
+
+                DerivationIndex index = service.getDerivationIndex();
+                if (index != null) {
+                    System.out.printf("  index: %d words, %d entries, ~%d KB estimated, ~%d KB measured%n",
+                            index.getWordCount(), index.getEntryCount(),
+                            index.estimateMemoryBytes() / 1024, indexBytes / 1024);
+                }
+            }
+        }
+    }
+
+    /** Mix of derivable words and near misses. */
+    private static List<String> queryWords(List<Root> roots, List<Pattern> patterns) {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            Root root = roots.get(random.nextInt(roots.size()));
+            Pattern pattern = patterns.get(random.nextInt(patterns.size()));
+            String word = pattern.applyToRoot(root);
+            words.add(i % 4 == 0 ? word + "ة" : word);
+        }
+        return words;
+    }
+}
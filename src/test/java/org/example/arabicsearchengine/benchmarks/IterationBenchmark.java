@@ -0,0 +1,58 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+
+import java.util.List;
+
+/**
+ * Compares walking a hash table through a values() copy against the in-place
+ * iterator and forEach, and PatternRepository.findAll with its cached list
+ * against a fresh copy per call.
+ */
+public class IterationBenchmark {
+
+    private static final int ENTRIES = 20_000;
+
+    public static void main(String[] args) {
+        HashTable<String, Root> table = new HashTable<>();
+        for (Root root : BenchmarkSupport.syntheticRoots(ENTRIES)) {
+            table.put(root.getRootLetters(), root);
+        }
+
+        System.out.println("== HashTable walk (" + table.getSize() + " entries) ==");
+        BenchmarkSupport.measure("values() copy", ENTRIES, 20, 200, () -> {
+            int total = 0;
+            for (Root root : table.values()) {
+                total += root.getR1();
+            }
+            BenchmarkSupport.sink = total;
+        });
+        BenchmarkSupport.measure("iterator", ENTRIES, 20, 200, () -> {
+            int total = 0;
+            for (Root root : table) {
+                total += root.getR1();
+            }
+            BenchmarkSupport.sink = total;
+        });
+        int[] total = new int[1];
+        BenchmarkSupport.measure("forEach", ENTRIES, 20, 200, () -> {
+            table.forEach((key, root) -> total[0] += root.getR1());
+            BenchmarkSupport.sink = total[0];
+        });
+
+        PatternRepository repository = new PatternRepository();
+        BenchmarkSupport.defaultPatterns().forEach(repository::save);
+        HashTable<String, Pattern> patternTable = new HashTable<>();
+        BenchmarkSupport.defaultPatterns().forEach(pattern -> patternTable.put(pattern.getPatternId(), pattern));
+        System.out.println("== Pattern list (" + repository.count() + " patterns) ==");
+        BenchmarkSupport.measure("values() copy per call", 1, 10_000, 200_000,
+                () -> BenchmarkSupport.sink = patternTable.values());
+        BenchmarkSupport.measure("findAll (cached)", 1, 10_000, 200_000, () -> {
+            List<Pattern> patterns = repository.findAll();
+            BenchmarkSupport.sink = patterns;
+        });
+    }
+}
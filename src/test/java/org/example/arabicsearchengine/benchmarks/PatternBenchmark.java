@@ -0,0 +1,91 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+
+import java.util.List;
+
+/**
+ * Compares the compiled Pattern operations against the original
+ * toCharArray/StringBuilder implementation of applyToRoot.
+ */
+public class PatternBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 2_000;
+
+    public static void main(String[] args) {
+        List<Pattern> patterns = BenchmarkSupport.defaultPatterns();
+        List<Root> roots = BenchmarkSupport.syntheticRoots(500);
+        String[] words = new String[roots.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = patterns.get(i % patterns.size()).applyToRoot(roots.get(i));
+        }
+        int ops = roots.size() * patterns.size();
+        char[] buffer = new char[32];
+
+        System.out.println("== " + roots.size() + " roots × " + patterns.size() + " patterns ==");
+        BenchmarkSupport.measure("legacy applyToRoot (StringBuilder)", ops, WARMUP_ROUNDS, ROUNDS, () -> {
+            for (Root root : roots) {
+                for (Pattern pattern : patterns) {
+                    BenchmarkSupport.sink = legacyApplyToRoot(pattern.getStructure(), root);
+                }
+            }
+        });
+        BenchmarkSupport.measure("compiled applyToRoot", ops, WARMUP_ROUNDS, ROUNDS, () -> {
+            for (Root root : roots) {
+                for (Pattern pattern : patterns) {
+                    BenchmarkSupport.sink = pattern.applyToRoot(root);
+                }
+            }
+        });
+        BenchmarkSupport.measure("writeTo (caller buffer)", ops, WARMUP_ROUNDS, ROUNDS, () -> {
+            int total = 0;
+            for (Root root : roots) {
+                for (Pattern pattern : patterns) {
+                    total += pattern.writeTo(root, buffer, 0);
+                }
+            }
+            BenchmarkSupport.sink = total;
+        });
+        BenchmarkSupport.measure("legacy match (applyToRoot + equals)", ops, WARMUP_ROUNDS, ROUNDS, () -> {
+            int hits = 0;
+            for (int i = 0; i < roots.size(); i++) {
+                for (Pattern pattern : patterns) {
+                    if (legacyApplyToRoot(pattern.getStructure(), roots.get(i)).equals(words[i])) {
+                        hits++;
+                    }
+                }
+            }
+            BenchmarkSupport.sink = hits;
+        });
+        BenchmarkSupport.measure("compiled matches", ops, WARMUP_ROUNDS, ROUNDS, () -> {
+            int hits = 0;
+            for (int i = 0; i < roots.size(); i++) {
+                for (Pattern pattern : patterns) {
+                    if (pattern.matches(words[i], roots.get(i))) {
+                        hits++;
+                    }
+                }
+            }
+            BenchmarkSupport.sink = hits;
+        });
+    }
+
+    /** The applyToRoot implementation before patterns were compiled. */
+    private static String legacyApplyToRoot(String structure, Root root) {
+        StringBuilder result = new StringBuilder();
+        for (char c : structure.toCharArray()) {
+            if (c == Pattern.FA) {
+                result.append(root.getR1());
+            } else if (c == Pattern.AIN) {
+                result.append(root.getR2());
+            } else if (c == Pattern.LAM) {
+                result.append(root.getR3());
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
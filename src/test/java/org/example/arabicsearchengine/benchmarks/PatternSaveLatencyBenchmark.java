@@ -0,0 +1,67 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.models.Pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tail latency of single puts during a bulk pattern import, with the table
+ * resized all at once versus incrementally. Reports latency percentiles over
+ * many fresh imports, so every resize point is sampled repeatedly, and the
+ * median over imports of the slowest put (a single max is usually a GC pause).
+ */
+public class PatternSaveLatencyBenchmark {
+
+    private static final int PATTERNS = 200_000;
+    private static final int RUNS = 20;
+
+    public static void main(String[] args) {
+        List<Pattern> patterns = new ArrayList<>(PATTERNS);
+        for (int i = 0; i < PATTERNS; i++) {
+            patterns.add(new Pattern("مفعول" + i, "مفعول"));
+        }
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            run(patterns, false);
+            run(patterns, true);
+        }
+        report("stop-the-world resize", patterns, false);
+        report("incremental resize", patterns, true);
+    }
+
+    private static long[] run(List<Pattern> patterns, boolean incremental) {
+        HashTable<String, Pattern> table = new HashTable<>(16, incremental);
+        long[] latencies = new long[patterns.size()];
+        for (int i = 0; i < patterns.size(); i++) {
+            Pattern pattern = patterns.get(i);
+            long start = System.nanoTime();
+            table.put(pattern.getPatternId(), pattern);
+            latencies[i] = System.nanoTime() - start;
+        }
+        BenchmarkSupport.sink = table;
+        return latencies;
+    }
+
+    private static void report(String label, List<Pattern> patterns, boolean incremental) {
+        long[] all = new long[patterns.size() * RUNS];
+        long[] runMax = new long[RUNS];
+        long total = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long[] latencies = run(patterns, incremental);
+            System.arraycopy(latencies, 0, all, run * latencies.length, latencies.length);
+            for (long latency : latencies) {
+                total += latency;
+                runMax[run] = Math.max(runMax[run], latency);
+            }
+        }
+        Arrays.sort(all);
+        Arrays.sort(runMax);
+        System.out.printf("%-24s mean %5.0f  p50 %5d  p99 %6d  p99.9 %7d  p99.99 %8d  median max %9d ns%n",
+                label, (double) total / all.length,
+                all[all.length / 2], all[(int) (all.length * 0.99)], all[(int) (all.length * 0.999)],
+                all[(int) (all.length * 0.9999)], runMax[RUNS / 2]);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.datastructures.hashtable.HashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.PerfectHashTable;
+import org.example.arabicsearchengine.datastructures.hashtable.SymbolLookup;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the frozen (minimal perfect hash) pattern index: build time, bits per
+ * key and lookups against the chained hash table, on the default pattern
+ * catalogue and on a large synthetic key set.
+ */
+public class PerfectHashBenchmark {
+
+    private static final int ENTRIES = 20_000;
+
+    public static void main(String[] args) {
+        List<Pattern> patterns = BenchmarkSupport.defaultPatterns();
+        PatternRepository repository = new PatternRepository();
+        patterns.forEach(repository::save);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(patterns.get(i % patterns.size()).getPatternId());
+        }
+
+        System.out.println("== Pattern catalogue (" + repository.count() + " patterns) ==");
+        lookups(repository, ids);
+        repository.freeze();
+        repository.getFrozenTable().printStats();
+        lookups(repository, ids);
+        BenchmarkSupport.measure("freeze (build)", 1, 1_000, 10_000, repository::freeze);
+
+        List<String> keys = new ArrayList<>();
+        for (Root root : BenchmarkSupport.syntheticRoots(ENTRIES)) {
+            keys.add(root.getRootLetters());
+        }
+        List<String> misses = new ArrayList<>();
+        for (String key : keys) {
+            misses.add(key + "ة");
+        }
+        Object value = new Object();
+        HashTable<String, Object> chained = new HashTable<>();
+        keys.forEach(key -> chained.put(key, value));
+
+        long before = BenchmarkSupport.usedHeap();
+        PerfectHashTable<String, Object> perfect = PerfectHashTable.of(chained);
+        long heap = BenchmarkSupport.usedHeap() - before;
+        System.out.printf("== Synthetic keys (%d entries, ~%d bytes/entry) ==%n", perfect.getSize(), heap / perfect.getSize());
+        perfect.printStats();
+        BenchmarkSupport.measure("build", 1, 5, 50, () -> BenchmarkSupport.sink = PerfectHashTable.of(chained));
+        for (SymbolLookup<String, Object> table : List.<SymbolLookup<String, Object>>of(chained, perfect)) {
+            String name = table.getClass().getSimpleName();
+            BenchmarkSupport.measure(name + " get (hit)", keys.size(), 20, 200, () -> BenchmarkSupport.sink = count(table, keys));
+            BenchmarkSupport.measure(name + " get (miss)", misses.size(), 20, 200, () -> BenchmarkSupport.sink = count(table, misses));
+        }
+    }
+
+    private static void lookups(PatternRepository repository, List<String> ids) {
+        BenchmarkSupport.measure("findById (frozen=" + repository.isFrozen() + ")", ids.size(), 200, 2_000, () -> {
+            int hits = 0;
+            for (String id : ids) {
+                if (repository.findById(id) != null) {
+                    hits++;
+                }
+            }
+            BenchmarkSupport.sink = hits;
+        });
+    }
+
+    private static int count(SymbolLookup<String, Object> table, List<String> keys) {
+        int hits = 0;
+        for (String key : keys) {
+            if (table.get(key) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.utils.ChunkedRootLoader;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Loading a large research root list (every synthetic root repeated, with
+ * comments and a few invalid lines) into an empty RootRepository: the former
+ * BufferedReader loop against ChunkedRootLoader on one chunk and on as many
+ * chunks as it picks for this machine. Reports MB/s of file read.
+ */
+public class RootFileLoadBenchmark {
+
+    private static final int TARGET_BYTES = 64 << 20;
+    private static final int LOADS = 7;
+
+    public static void main(String[] args) throws IOException {
+        List<Root> roots = BenchmarkSupport.syntheticRoots(22_000);
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder("# synthetic research root list\n");
+        while (text.length() * 2L < TARGET_BYTES) {
+            text.append(roots.get(random.nextInt(roots.size())).getRootLetters()).append('\n');
+            if (random.nextInt(1000) == 0) {
+                text.append(random.nextBoolean() ? "# section\n" : "كلمة\n");
+            }
+        }
+        Path file = Files.createTempFile("roots", ".txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        long bytes = Files.size(file);
+        System.out.printf("== %.1f MB, %d distinct roots, %d cores ==%n", bytes / (1024.0 * 1024.0),
+                roots.size(), Runtime.getRuntime().availableProcessors());
+
+        report("BufferedReader, line by line", bytes, () -> {
+            RootRepository repository = new RootRepository();
+            repository.saveAll(readLines(file));
+            return repository.count();
+        });
+        report("ChunkedRootLoader, 1 chunk", bytes, () -> {
+            RootRepository repository = new RootRepository();
+            repository.saveAll(ChunkedRootLoader.load(file, 1).getRoots());
+            return repository.count();
+        });
+        ChunkedRootLoader.Result parallel = ChunkedRootLoader.load(file);
+        report("ChunkedRootLoader, " + parallel.getChunks() + " chunks", bytes, () -> {
+            RootRepository repository = new RootRepository();
+            repository.saveAll(ChunkedRootLoader.load(file).getRoots());
+            return repository.count();
+        });
+        System.out.printf("%-40s %d lines, %d skipped, %d distinct%n", "", parallel.getLines(),
+                parallel.getSkippedLines(), parallel.getRoots().size());
+        Files.delete(file);
+    }
+
+    /** The loop FileLoader.loadRoots used before ChunkedRootLoader. */
+    private static List<Root> readLines(Path file) throws IOException {
+        List<Root> result = new ArrayList<>();
+        try (InputStream in = new FileInputStream(file.toFile());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#") && line.length() == 3) {
+                    result.add(new Root(line));
+                }
+            }
+        }
+        return result;
+    }
+
+    private interface Load {
+        int run() throws IOException;
+    }
+
+    private static void report(String label, long bytes, Load load) throws IOException {
+        long[] times = new long[LOADS];
+        for (int i = 0; i < LOADS; i++) {
+            long begin = System.nanoTime();
+            BenchmarkSupport.sink = load.run();
+            times[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(times);
+        double median = times[LOADS / 2];
+        System.out.printf("%-40s median %8.1f ms, %7.1f MB/s%n", label, median / 1e6,
+                (bytes / (1024.0 * 1024.0)) / (median / 1e9));
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.repositories.RootRepository.StorageType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the AVL tree and direct-address root storages:
+ * lookups (hits and misses), delete + re-insert, sorted iteration, prefix paging
+ * (order statistics) against a full-scan filter, and heap use.
+ */
+public class RootStorageBenchmark {
+
+    private static final int ROOTS = 20_000;
+
+    public static void main(String[] args) {
+        List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+        List<String> queries = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            Root root = roots.get(random.nextInt(roots.size()));
+            // One query in four targets a root that is not stored
+            queries.add(i % 4 == 0 ? "" + root.getR1() + root.getR2() + 'ى' : root.getRootLetters());
+        }
+        List<Root> shuffled = new ArrayList<>(roots);
+        Collections.shuffle(shuffled, random);
+
+        for (StorageType type : StorageType.values()) {
+            long before = BenchmarkSupport.usedHeap();
+            RootRepository repository = new RootRepository(type);
+            shuffled.forEach(repository::save);
+            long heap = BenchmarkSupport.usedHeap() - before;
+
+            System.out.println("== " + type + " (" + repository.count() + " roots, ~" + heap / 1024 + " KB) ==");
+            BenchmarkSupport.measure("findByLetters", queries.size(), 20, 200, () -> {
+                int hits = 0;
+                for (String letters : queries) {
+                    if (repository.findByLetters(letters) != null) {
+                        hits++;
+                    }
+                }
+                BenchmarkSupport.sink = hits;
+            });
+            BenchmarkSupport.measure("delete + save", 1_000, 20, 200, () -> {
+                for (int i = 0; i < 1_000; i++) {
+                    Root root = shuffled.get(i);
+                    repository.delete(root.getRootLetters());
+                    repository.save(root);
+                }
+            });
+            BenchmarkSupport.measure("findAll (sorted)", repository.count(), 5, 50,
+                    () -> BenchmarkSupport.sink = repository.findAll());
+            // Third page of 50 roots starting with one letter, as the root list view requests it
+            BenchmarkSupport.measure("findByPrefix page", 1, 1_000, 20_000,
+                    () -> BenchmarkSupport.sink = repository.findByPrefix("س", 100, 50));
+            BenchmarkSupport.measure("scan + filter page", 1, 50, 1_000,
+                    () -> BenchmarkSupport.sink = repository.stream()
+                            .filter(root -> root.getRootLetters().startsWith("س"))
+                            .skip(100).limit(50).toList());
+        }
+    }
+}
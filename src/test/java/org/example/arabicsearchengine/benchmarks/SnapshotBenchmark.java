@@ -0,0 +1,114 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
+import org.example.arabicsearchengine.repositories.DictionarySnapshot;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.services.MorphologyService;
+import org.example.arabicsearchengine.services.PatternService;
+import org.example.arabicsearchengine.services.RootService;
+import org.example.arabicsearchengine.services.SnapshotService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cold start on a large dictionary: parsing roots.txt and patterns.txt and
+ * rebuilding the repositories, against opening a binary snapshot (read and
+ * validated, then looked up in place) and restoring everything from it,
+ * including every derived word and its frequency. Each start uses fresh
+ * repositories. Also times the pause a compaction causes on the writer
+ * thread: the capture plus the next word generated, which copies a page.
+ */
+public class SnapshotBenchmark {
+
+    private static final int ROOTS = 20_000;
+    private static final int STARTS = 15;
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("snapshot-benchmark");
+        List<Pattern> patterns = BenchmarkSupport.defaultPatterns();
+        List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+
+        Path rootsFile = dir.resolve("roots.txt");
+        StringBuilder text = new StringBuilder();
+        roots.forEach(root -> text.append(root.getRootLetters()).append('\n'));
+        Files.writeString(rootsFile, text, StandardCharsets.UTF_8);
+        Path patternsFile = dir.resolve("patterns.txt");
+        StringBuilder patternText = new StringBuilder();
+        patterns.forEach(p -> patternText.append(p.getPatternId()).append('|').append(p.getStructure())
+                .append('|').append(p.getDescription()).append('\n'));
+        Files.writeString(patternsFile, patternText, StandardCharsets.UTF_8);
+
+        // Build the dictionary once, with every word generated and some validated again
+        Path snapshotFile = dir.resolve("dictionary.snapshot");
+        Session source = new Session(snapshotFile);
+        source.rootService.loadRootsFromFile(rootsFile.toString());
+        source.patternService.loadPatternsFromFile(patternsFile.toString());
+        for (Root root : source.rootService.getAllRoots()) {
+            source.morphologyService.generateAllWords(root, source.patternService.getAllPatterns());
+        }
+        long start = System.nanoTime();
+        source.snapshotService.save();
+        System.out.printf("== %d roots, %d words, snapshot %d KB (save %.1f ms) ==%n", roots.size(),
+                source.morphologyService.getWordStore().getSize(), Files.size(snapshotFile) / 1024,
+                (System.nanoTime() - start) / 1e6);
+
+        report("text files (roots + patterns only)", () -> {
+            Session session = new Session(snapshotFile);
+            session.rootService.loadRootsFromFile(rootsFile.toString());
+            session.patternService.loadPatternsFromFile(patternsFile.toString());
+            BenchmarkSupport.sink = session;
+        });
+        report("snapshot open + lookups", () -> {
+            DictionarySnapshot snapshot = DictionarySnapshot.open(snapshotFile);
+            BenchmarkSupport.sink = snapshot.getFrequency("كتب", 0) + (snapshot.containsRoot("درس") ? 1 : 0);
+        });
+        report("snapshot full restore (with words)", () -> {
+            Session session = new Session(snapshotFile);
+            BenchmarkSupport.sink = session.snapshotService.load();
+        });
+        Root first = source.rootService.getAllRoots().get(0);
+        Pattern pattern = source.patternService.getAllPatterns().get(0);
+        report("compaction capture + next word", () -> {
+            BenchmarkSupport.sink = source.snapshotService.capture();
+            source.morphologyService.generateWord(first, pattern);
+        });
+        Files.walk(dir).sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+    }
+
+    private interface Start {
+        void run() throws IOException;
+    }
+
+    private static void report(String label, Start start) throws IOException {
+        long[] times = new long[STARTS];
+        for (int i = 0; i < STARTS; i++) {
+            BenchmarkSupport.usedHeap();
+            long begin = System.nanoTime();
+            start.run();
+            times[i] = System.nanoTime() - begin;
+        }
+        // The first (coldest) start is usually the slowest
+        Arrays.sort(times);
+        System.out.printf("%-40s slowest %8.2f ms, median %8.2f ms%n", label,
+                times[STARTS - 1] / 1e6, times[STARTS / 2] / 1e6);
+    }
+
+    private static final class Session {
+        final RootService rootService = new RootService(new RootRepository());
+        final PatternService patternService = new PatternService(new PatternRepository());
+        final MorphologyService morphologyService = new MorphologyService(new DerivedWordStore());
+        final SnapshotService snapshotService;
+
+        Session(Path snapshotFile) {
+            snapshotService = new SnapshotService(rootService, patternService, morphologyService, snapshotFile);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.arabicsearchengine.benchmarks;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.example.arabicsearchengine.repositories.WriteAheadLog;
+import org.example.arabicsearchengine.services.MorphologyService;
+import org.example.arabicsearchengine.services.PatternService;
+import org.example.arabicsearchengine.services.PersistenceService;
+import org.example.arabicsearchengine.services.RootService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cost of making every change durable.
+ * Append latency with group commit against an fsync per record, then
+ * generateWord with and without PersistenceService logging, and finally a
+ * simulated crash: the session is abandoned without close() and a new one
+ * restores it by replaying the log.
+ */
+public class WalBenchmark {
+
+    private static final int SYNCED_RECORDS = 500;
+    private static final int GROUPED_RECORDS = 200_000;
+    private static final int ROOTS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("wal-benchmark");
+
+        System.out.println("== Append latency ==");
+        try (WriteAheadLog log = WriteAheadLog.open(dir.resolve("synced"), WriteAheadLog.DEFAULT_GROUP_COMMIT_MILLIS)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < SYNCED_RECORDS; i++) {
+                log.awaitDurable(log.appendWordCounted("كتب", "فاعل", i + 1));
+            }
+            System.out.printf("%-45s %12.1f ns/op  (%d fsyncs)%n", "append + fsync per record",
+                    (double) (System.nanoTime() - start) / SYNCED_RECORDS, log.getSyncCount());
+        }
+        try (WriteAheadLog log = WriteAheadLog.open(dir.resolve("grouped"), WriteAheadLog.DEFAULT_GROUP_COMMIT_MILLIS)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < GROUPED_RECORDS; i++) {
+                log.appendWordCounted("كتب", "فاعل", i + 1);
+            }
+            long appended = System.nanoTime() - start;
+            log.sync();
+            long total = System.nanoTime() - start;
+            System.out.printf("%-45s %12.1f ns/op  (%.1f ns/op until durable)%n", "append, group commit",
+                    (double) appended / GROUPED_RECORDS, (double) total / GROUPED_RECORDS);
+            System.out.printf("%-45s %12d fsyncs, %.0f records/fsync%n", "", log.getSyncCount(),
+                    (double) GROUPED_RECORDS / log.getSyncCount());
+        }
+        long start = System.nanoTime();
+        WriteAheadLog.ReplayResult replayed = WriteAheadLog.replay(dir.resolve("grouped"), new Discard());
+        System.out.printf("%-45s %12.1f ns/record (%d records)%n", "replay",
+                (double) (System.nanoTime() - start) / replayed.getRecords(), replayed.getRecords());
+
+        System.out.println("== generateWord, " + ROOTS + " roots x all patterns, repeated ==");
+        Session plain = new Session();
+        plain.generateAll();
+        BenchmarkSupport.measure("generateWord, not logged", plain.words(), 3, 10, plain::generateAll);
+
+        Path dictionary = dir.resolve("dictionary");
+        Session logged = new Session();
+        PersistenceService persistence = logged.persist(dictionary);
+        persistence.start();
+        logged.load();
+        logged.generateAll();
+        BenchmarkSupport.measure("generateWord, logged (group commit)", logged.words(), 3, 10, logged::generateAll);
+        persistence.sync();
+        WriteAheadLog log = persistence.getLog();
+        System.out.printf("%-45s %12d records, %d fsyncs, segment %d%n", "", log.getAppendedCount(),
+                log.getSyncCount(), log.getGeneration());
+
+        // Crash: no close(), so no final compaction. The running session keeps the
+        // directory locked, so the restart reads a copy of what is on disk now
+        Path crashed = dir.resolve("crashed");
+        copyAsCrashed(dictionary, crashed);
+        Session recovered = new Session();
+        PersistenceService recovery = recovered.persist(crashed);
+        recovery.start();
+        Root root = recovered.rootService.getRepository().findByLetters(logged.roots.get(7).getRootLetters());
+        Pattern pattern = recovered.patternService.getAllPatterns().get(0);
+        int expected = logged.morphologyService.generateWord(logged.roots.get(7), pattern).getFrequency() - 1;
+        int actual = recovered.morphologyService.generateWord(root, pattern).getFrequency() - 1;
+        System.out.printf("%-45s %12.1f ms (%d records replayed, frequency %d, expected %d)%n",
+                "restart after crash", recovery.getStartNanos() / 1e6, recovery.getLastReplay().getRecords(),
+                actual, expected);
+        start = System.nanoTime();
+        recovery.compact();
+        System.out.printf("%-45s %12.1f ms%n", "compaction into a snapshot", (System.nanoTime() - start) / 1e6);
+        recovery.close();
+        persistence.close();
+
+        Files.walk(dir).sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+    }
+
+    /**
+     * Copies the log before the snapshot: a compaction finishing meanwhile
+     * writes its snapshot before deleting segments, so the copy never misses
+     * both.
+     */
+    private static void copyAsCrashed(Path dictionary, Path crashed) throws IOException {
+        Files.createDirectories(crashed.resolve("wal"));
+        try (Stream<Path> segments = Files.list(dictionary.resolve("wal"))) {
+            for (Path segment : segments.toList()) {
+                try {
+                    Files.copy(segment, crashed.resolve("wal").resolve(segment.getFileName()));
+                } catch (NoSuchFileException e) {
+                    // Deleted by a compaction; its snapshot is copied below
+                }
+            }
+        }
+        Path snapshot = dictionary.resolve("dictionary.snapshot");
+        if (Files.exists(snapshot)) {
+            Files.copy(snapshot, crashed.resolve("dictionary.snapshot"));
+        }
+    }
+
+    private static final class Session {
+        final RootService rootService = new RootService(new RootRepository());
+        final PatternService patternService = new PatternService(new PatternRepository());
+        final MorphologyService morphologyService = new MorphologyService(new DerivedWordStore());
+        final List<Root> roots = BenchmarkSupport.syntheticRoots(ROOTS);
+
+        Session() {
+        }
+
+        PersistenceService persist(Path dictionary) {
+            return new PersistenceService(rootService, patternService, morphologyService, dictionary);
+        }
+
+        void load() {
+            for (Root root : roots) {
+                rootService.getRepository().save(root);
+            }
+            for (Pattern pattern : BenchmarkSupport.defaultPatterns()) {
+                patternService.getRepository().save(pattern);
+            }
+        }
+
+        void generateAll() {
+            if (rootService.getRepository().isEmpty()) {
+                load();
+            }
+            for (Root root : roots) {
+                morphologyService.generateAllWords(root, patternService.getAllPatterns());
+            }
+        }
+
+        int words() {
+            return roots.size() * patternService.getAllPatterns().size();
+        }
+    }
+
+    private static final class Discard implements WriteAheadLog.RecordVisitor {
+        @Override public void rootSaved(String letters) { }
+        @Override public void rootDeleted(String letters) { }
+        @Override public void patternSaved(String id, String structure, String description) { }
+        @Override public void patternDeleted(String id) { }
+        @Override public void patternsCleared() { }
+        @Override public void wordCounted(String rootLetters, String patternId, int frequency) { }
+    }
+}
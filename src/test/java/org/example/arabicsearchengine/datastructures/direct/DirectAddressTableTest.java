@@ -0,0 +1,102 @@
+package org.example.arabicsearchengine.datastructures.direct;
+
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.utils.RootCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectAddressTableTest {
+
+    private DirectAddressTable<Root> table;
+
+    @BeforeEach
+    void setUp() {
+        table = new DirectAddressTable<>(RootCodec.CODE_SPACE);
+    }
+
+    private void put(String letters) {
+        Root root = new Root(letters);
+        table.put(root.getCode(), root);
+    }
+
+    @Test
+    @DisplayName("Root codes round-trip and keep letter order")
+    void testCodec() {
+        int code = RootCodec.encode("كتب");
+        assertEquals("كتب", RootCodec.decode(code));
+        assertTrue(RootCodec.encode("درس") < RootCodec.encode("علم"));
+        assertEquals(RootCodec.INVALID, RootCodec.encode("abc"));
+        assertEquals(RootCodec.INVALID, RootCodec.encode("كت"));
+    }
+
+    @Test
+    @DisplayName("Put, get and remove by code")
+    void testPutGetRemove() {
+        put("كتب");
+
+        assertEquals(1, table.getSize());
+        assertEquals("كتب", table.get(RootCodec.encode("كتب")).getRootLetters());
+        assertNull(table.get(RootCodec.encode("درس")));
+        assertNull(table.get(RootCodec.INVALID));
+
+        assertNotNull(table.remove(RootCodec.encode("كتب")));
+        assertTrue(table.isEmpty());
+        assertNull(table.remove(RootCodec.encode("كتب")));
+    }
+
+    @Test
+    @DisplayName("Putting an existing code replaces without growing")
+    void testReplace() {
+        assertTrue(table.put(5, new Root("كتب")));
+        assertFalse(table.put(5, new Root("درس")));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    @DisplayName("Iteration is in sorted letter order")
+    void testSortedIteration() {
+        put("كتب");
+        put("درس");
+        put("علم");
+        put("أخذ");
+
+        List<Root> expected = List.of(new Root("أخذ"), new Root("درس"), new Root("علم"), new Root("كتب"));
+        assertEquals(expected, table.values());
+    }
+
+    @Test
+    @DisplayName("ceiling maps prefixes onto code ranges")
+    void testCeiling() {
+        int kaf = RootCodec.ceiling("ك");
+        assertEquals(RootCodec.encode('ك', RootCodec.FIRST_LETTER, RootCodec.FIRST_LETTER), kaf);
+        assertEquals(RootCodec.ceiling("ل"), RootCodec.ceiling("ك" + Character.MAX_VALUE));
+        assertEquals(RootCodec.encode("كتب"), RootCodec.ceiling("كتب"));
+        assertEquals(RootCodec.encode("كتب") + 1, RootCodec.ceiling("كتبا"));
+        assertEquals(0, RootCodec.ceiling(""));
+        assertEquals(RootCodec.CODE_SPACE, RootCodec.ceiling("" + Character.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("rank and selectKey follow the occupancy bitmap")
+    void testRankSelect() {
+        List<String> sorted = List.of("أخذ", "درس", "علم", "كتب", "كسر", "لعب");
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            put(sorted.get(i));
+        }
+        for (int k = 0; k < sorted.size(); k++) {
+            int code = RootCodec.encode(sorted.get(k));
+            assertEquals(code, table.selectKey(k));
+            assertEquals(k, table.rank(code));
+        }
+        assertEquals(2, table.rank(RootCodec.ceiling("ك" + Character.MAX_VALUE)) - table.rank(RootCodec.ceiling("ك")));
+
+        table.remove(RootCodec.encode("درس"));
+        assertEquals(RootCodec.encode("علم"), table.selectKey(1));
+        assertEquals(table.getSize(), table.rank(RootCodec.CODE_SPACE));
+    }
+}
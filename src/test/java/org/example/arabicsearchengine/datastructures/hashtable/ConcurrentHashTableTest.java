@@ -0,0 +1,107 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentHashTableTest {
+
+    private static final int THREADS = 4;
+    private static final int KEYS_PER_THREAD = 5_000;
+
+    private ConcurrentHashTable<String, String> hashTable;
+
+    @BeforeEach
+    void setUp() {
+        hashTable = new ConcurrentHashTable<>(2);
+    }
+
+    @Test
+    void testPutGetRemove() {
+        hashTable.put("مفعول", "Pattern1");
+        hashTable.put("فاعل", "Pattern2");
+        hashTable.put("مفعول", "UpdatedPattern");
+
+        assertEquals("UpdatedPattern", hashTable.get("مفعول"));
+        assertEquals(2, hashTable.getSize());
+        assertEquals("Pattern2", hashTable.remove("فاعل"));
+        assertNull(hashTable.get("فاعل"));
+        assertNull(hashTable.remove("فاعل"));
+        assertEquals(List.of("مفعول"), hashTable.keys());
+
+        hashTable.clear();
+        assertTrue(hashTable.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent writers through many resizes lose no entries")
+    void testConcurrentWritersAndReaders() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        // Present from the start and never removed: readers must always find it
+        hashTable.put("ثابت", "stable");
+
+        Thread[] writers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            writers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                        hashTable.put("فعل" + thread + "_" + i, "v" + i);
+                        // Every third key is removed again, racing with resizes
+                        if (i % 3 == 0) {
+                            hashTable.remove("فعل" + thread + "_" + i);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            writers[t].start();
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                start.await();
+                while (writing.get()) {
+                    if (!"stable".equals(hashTable.get("ثابت"))) {
+                        failure.compareAndSet(null, new AssertionError("stable key missing"));
+                    }
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        reader.start();
+
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+        int expected = 1 + THREADS * (KEYS_PER_THREAD - (KEYS_PER_THREAD + 2) / 3);
+        assertEquals(expected, hashTable.getSize());
+        Set<String> keys = new HashSet<>(hashTable.keys());
+        assertEquals(expected, keys.size());
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                String value = hashTable.get("فعل" + t + "_" + i);
+                assertEquals(i % 3 == 0 ? null : "v" + i, value);
+            }
+        }
+        assertTrue(hashTable.getCapacity() >= expected);
+    }
+}
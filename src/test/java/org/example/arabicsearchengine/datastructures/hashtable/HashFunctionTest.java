@@ -1,8 +1,16 @@
 package org.example.arabicsearchengine.datastructures.hashtable;
 
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.utils.FileLoader;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HashFunctionTest {
@@ -97,4 +105,44 @@ class HashFunctionTest {
         assertTrue(result >= 1 && result <= TABLE_SIZE - 1,
                 "hash2 must be in range [1, tableSize-1]");
     }
+
+    @Test
+    @DisplayName("hash(key) is stable and matches for String and other CharSequence keys")
+    void testFullHashConsistency() {
+        assertEquals(HashFunction.hash("فاعل"), HashFunction.hash(new StringBuilder("فاعل")));
+        assertEquals(0, HashFunction.hash(null));
+        assertEquals(HashFunction.indexFor(HashFunction.hash("فاعل"), 64), HashFunction.hash("فاعل") & 63);
+    }
+
+    @Test
+    @DisplayName("Pattern IDs and derived words spread evenly over power-of-two buckets")
+    void testCollisionQualityOnArabicPatterns() throws IOException {
+        List<Pattern> patterns = FileLoader.loadPatternsFromResource("/org/example/arabicsearchengine/data/patterns.txt");
+        List<Root> roots = FileLoader.loadRootsFromResource("/org/example/arabicsearchengine/data/roots.txt");
+        Set<String> keys = new LinkedHashSet<>();
+        for (Pattern pattern : patterns) {
+            keys.add(pattern.getPatternId());
+            for (Root root : roots) {
+                keys.add(pattern.applyToRoot(root));
+            }
+        }
+
+        int n = keys.size();
+        int capacity = Integer.highestOneBit(2 * n - 1) << 1;   // Load factor <= 0.5
+        int[] buckets = new int[capacity];
+        for (String key : keys) {
+            buckets[HashFunction.indexFor(HashFunction.hash(key), capacity)]++;
+        }
+
+        int used = 0;
+        int longest = 0;
+        for (int count : buckets) {
+            used += count > 0 ? 1 : 0;
+            longest = Math.max(longest, count);
+        }
+        // A uniform hash fills m * (1 - (1 - 1/m)^n) buckets on average
+        double expectedUsed = capacity * (1 - Math.pow(1 - 1.0 / capacity, n));
+        assertTrue(used >= 0.95 * expectedUsed, "used " + used + " of expected " + expectedUsed);
+        assertTrue(longest <= 5, "longest chain " + longest);
+    }
 }
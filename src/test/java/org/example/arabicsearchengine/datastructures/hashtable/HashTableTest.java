@@ -3,7 +3,13 @@ package org.example.arabicsearchengine.datastructures.hashtable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,4 +99,141 @@ class HashTableTest {
         hashTable.put("فاعل", "Pattern2");
         hashTable.printStats(); // Just to see the output, no assertions needed
     }
-}
\ No newline at end of file
+
+    @Test
+    void testResizeKeepsEntriesAndPowerOfTwoCapacity() {
+        for (int i = 0; i < 1_000; i++) {
+            hashTable.put("فعل" + i, "Value" + i);
+        }
+        int capacity = hashTable.getCapacity();
+        assertEquals(0, capacity & (capacity - 1));
+        assertEquals(1_000, hashTable.getSize());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals("Value" + i, hashTable.get("فعل" + i));
+        }
+        assertEquals(32, new HashTable<String, String>(20).getCapacity());
+    }
+
+    @Test
+    void testIncrementalResize() {
+        HashTable<String, String> table = new HashTable<>(16, true);
+        boolean sawResize = false;
+        for (int i = 0; i < 2_000; i++) {
+            table.put("فعل" + i, "Value" + i);
+            if (table.isResizing()) {
+                sawResize = true;
+                // Entries stay reachable whether their bucket has moved or not
+                assertEquals("Value0", table.get("فعل0"));
+                assertEquals("Value" + i, table.get("فعل" + i));
+            }
+            if (i % 7 == 0) {
+                assertEquals("Value" + (i / 2), table.remove("فعل" + (i / 2)));
+                table.put("فعل" + (i / 2), "Value" + (i / 2));
+            }
+        }
+        assertTrue(sawResize);
+        assertEquals(2_000, table.getSize());
+        assertEquals(2_000, table.keys().size());
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals("Value" + i, table.get("فعل" + i));
+        }
+        assertFalse(table.isResizing());
+    }
+
+    @Test
+    void testConcurrentGetsDuringResize() throws InterruptedException {
+        HashTable<String, String> table = new HashTable<>(16, true);
+        int entries = 0;
+        while (!table.isResizing() || entries < 100) {
+            table.put("فعل" + entries, "Value" + entries);
+            entries++;
+        }
+        int count = entries;
+        // Readers never move buckets, so the resize is still pending afterwards
+        List<Thread> readers = new ArrayList<>();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    for (int round = 0; round < 50; round++) {
+                        for (int i = 0; i < count; i++) {
+                            assertEquals("Value" + i, table.get("فعل" + i));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(List.of(), failures);
+        assertTrue(table.isResizing());
+        assertEquals(4L * 50 * count, table.getStats().getGets().getCount());
+    }
+
+    @Test
+    void testInPlaceIteration() {
+        HashTable<String, String> table = new HashTable<>(16, true);
+        for (int i = 0; i < 100; i++) {
+            table.put("فعل" + i, "Value" + i);
+        }
+        // Iteration finishes a pending incremental resize, then walks every entry once
+        Set<String> seen = new HashSet<>();
+        for (String value : table) {
+            assertTrue(seen.add(value));
+        }
+        assertEquals(100, seen.size());
+        assertFalse(table.isResizing());
+
+        Set<String> pairs = new HashSet<>();
+        table.forEach((key, value) -> pairs.add(key + "=" + value));
+        assertTrue(pairs.contains("فعل42=Value42"));
+        assertEquals(100, pairs.size());
+
+        assertEquals(100, table.spliterator().estimateSize());
+        assertEquals(100, table.stream().count());
+        assertEquals(100, table.stream().parallel().distinct().count());
+
+        Iterator<String> iterator = table.iterator();
+        iterator.next();
+        table.remove("فعل0");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void testStats() {
+        HashTable<String, String> table = new HashTable<>(4);
+        for (int i = 0; i < 100; i++) {
+            table.put("فعل" + i, "Value" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            table.get("فعل" + i);
+        }
+        table.remove("فعل0");
+
+        HashTableStats stats = table.getStats();
+        assertEquals(99, stats.getSize());
+        assertEquals(table.getCapacity(), stats.getCapacity());
+        int[] chainLengths = stats.getChainLengths();
+        int buckets = 0;
+        int entries = 0;
+        for (int length = 0; length < chainLengths.length; length++) {
+            buckets += chainLengths[length];
+            entries += length * chainLengths[length];
+        }
+        assertEquals(stats.getCapacity(), buckets);
+        assertEquals(99, entries);
+        assertTrue(chainLengths[stats.getMaxChainLength()] > 0);
+        assertTrue(stats.getAverageProbeLength() >= 1.0);
+        // 4 -> 8 -> ... -> 256 buckets
+        assertEquals(6, stats.getResizeCount());
+        assertEquals(100, stats.getPuts().getCount());
+        assertEquals(100, stats.getGets().getCount());
+        assertEquals(1, stats.getRemoves().getCount());
+        assertTrue(stats.getGets().getCollisions() >= 0);
+    }
+}
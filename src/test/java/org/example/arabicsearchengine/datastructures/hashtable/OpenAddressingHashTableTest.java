@@ -0,0 +1,86 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAddressingHashTableTest {
+
+    private OpenAddressingHashTable<String, String> hashTable;
+
+    @BeforeEach
+    void setUp() {
+        hashTable = new OpenAddressingHashTable<>();
+    }
+
+    @Test
+    void testPutGetAndUpdate() {
+        hashTable.put("مفعول", "Pattern1");
+        hashTable.put("فاعل", "Pattern2");
+        hashTable.put("مفعول", "UpdatedPattern");
+
+        assertEquals("UpdatedPattern", hashTable.get("مفعول"));
+        assertEquals("Pattern2", hashTable.get("فاعل"));
+        assertNull(hashTable.get("غير موجود"));
+        assertEquals(2, hashTable.getSize());
+    }
+
+    @Test
+    @DisplayName("Removed keys leave tombstones that do not break later probes")
+    void testRemoveWithTombstones() {
+        for (int i = 0; i < 6; i++) {
+            hashTable.put("key" + i, "v" + i);
+        }
+        assertEquals("v2", hashTable.remove("key2"));
+        assertNull(hashTable.remove("key2"));
+        assertEquals(1, hashTable.getTombstones());
+        for (int i = 0; i < 6; i++) {
+            if (i != 2) {
+                assertEquals("v" + i, hashTable.get("key" + i));
+            }
+        }
+
+        // Re-inserting a removed key may reuse its tombstone
+        hashTable.put("key2", "again");
+        assertEquals("again", hashTable.get("key2"));
+        assertEquals(6, hashTable.getSize());
+    }
+
+    @Test
+    @DisplayName("Growth keeps a prime capacity and every entry reachable")
+    void testResize() {
+        for (int i = 0; i < 1_000; i++) {
+            hashTable.put("فعل" + i, "v" + i);
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            hashTable.remove("فعل" + i);
+        }
+        assertEquals(500, hashTable.getSize());
+        assertTrue(hashTable.getLoadFactor() <= 0.5);
+        int capacity = hashTable.getCapacity();
+        for (int d = 2; d * d <= capacity; d++) {
+            assertNotEquals(0, capacity % d);
+        }
+        for (int i = 1; i < 1_000; i += 2) {
+            assertEquals("v" + i, hashTable.get("فعل" + i));
+        }
+    }
+
+    @Test
+    void testKeysValuesAndClear() {
+        hashTable.put("مفعول", "Pattern1");
+        hashTable.put("فاعل", "Pattern2");
+        hashTable.remove("فاعل");
+
+        assertEquals(List.of("مفعول"), hashTable.keys());
+        assertEquals(List.of("Pattern1"), hashTable.values());
+
+        hashTable.clear();
+        assertTrue(hashTable.isEmpty());
+        assertNull(hashTable.get("مفعول"));
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.arabicsearchengine.datastructures.hashtable;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerfectHashTableTest {
+
+    @Test
+    void testGetHitsAndMisses() {
+        PerfectHashTable<String, String> table = new PerfectHashTable<>(
+                List.of("فاعل", "مفعول", "افتعل", "تفعيل", "استفعال"),
+                List.of("p1", "p2", "p3", "p4", "p5"));
+
+        assertEquals("p1", table.get("فاعل"));
+        assertEquals("p5", table.get("استفعال"));
+        assertTrue(table.contains("تفعيل"));
+        assertNull(table.get("فعيل"));
+        assertNull(table.get(null));
+        assertEquals(5, table.getSize());
+        assertEquals(5, table.getCapacity());
+    }
+
+    @Test
+    @DisplayName("Every key gets its own slot, so n keys fill exactly n slots")
+    void testMinimalAndPerfect() {
+        HashTable<String, Integer> source = new HashTable<>();
+        for (int i = 0; i < 5_000; i++) {
+            source.put("وزن" + i, i);
+        }
+        PerfectHashTable<String, Integer> table = PerfectHashTable.of(source);
+
+        assertEquals(5_000, table.getCapacity());
+        assertEquals(5_000, new HashSet<>(table.keys()).size());
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(Integer.valueOf(i), table.get("وزن" + i));
+            assertNull(table.get("وزن" + (i + 5_000)));
+        }
+        assertTrue(table.getBitsPerKey() <= 8.0 + 1e-9);
+        assertTrue(table.getBuildTimeNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Keys sharing a hashCode are still separated")
+    void testSharedHashCodes() {
+        // "Aa" and "BB" have the same String.hashCode, and so do their concatenations
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (String a : List.of("Aa", "BB")) {
+            for (String b : List.of("Aa", "BB")) {
+                keys.add(a + b);
+                values.add("v" + a + b);
+            }
+        }
+        PerfectHashTable<String, String> table = new PerfectHashTable<>(keys, values);
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(values.get(i), table.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    void testEmptyAndReadOnly() {
+        PerfectHashTable<String, String> empty = new PerfectHashTable<>(List.of(), List.of());
+        assertTrue(empty.isEmpty());
+        assertNull(empty.get("فاعل"));
+
+        PerfectHashTable<String, String> table = new PerfectHashTable<>(List.of("فاعل"), List.of("p1"));
+        assertEquals("p1", table.get("فاعل"));
+        assertFalse(SymbolTable.class.isAssignableFrom(PerfectHashTable.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PerfectHashTable<>(List.of("فاعل", "فاعل"), List.of("p1", "p2")));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.arabicsearchengine.datastructures.sketch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+    @Test
+    @DisplayName("Counts are exact while fewer keys than the capacity were seen")
+    void testExactBelowCapacity() {
+        SpaceSaving<String> counter = new SpaceSaving<>(10);
+        for (int i = 0; i < 5; i++) counter.offer("كاتب");
+        for (int i = 0; i < 3; i++) counter.offer("مكتوب");
+        counter.offer("كتاب");
+
+        List<SpaceSaving.Entry<String>> top = counter.top(2);
+        assertEquals(2, top.size());
+        assertEquals("كاتب", top.get(0).getKey());
+        assertEquals(5, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals("مكتوب", top.get(1).getKey());
+        assertEquals(3, top.get(1).getCount());
+        assertEquals(1, counter.getCount("كتاب"));
+        assertEquals(9, counter.getTotal());
+        assertEquals(3, counter.top(50).size());
+    }
+
+    @Test
+    @DisplayName("Heavy hitters survive a long tail of rare keys")
+    void testHeavyHittersWithEviction() {
+        SpaceSaving<String> counter = new SpaceSaving<>(20);
+        Random random = new Random(42);
+        int[] trueCounts = new int[5];
+        for (int i = 0; i < 50_000; i++) {
+            if (random.nextInt(4) == 0) {
+                int hot = random.nextInt(5);
+                trueCounts[hot]++;
+                counter.offer("hot" + hot);
+            } else {
+                counter.offer("rare" + random.nextInt(10_000));
+            }
+        }
+
+        assertEquals(20, counter.getSize());
+        List<SpaceSaving.Entry<String>> top = counter.top(5);
+        long bound = counter.getTotal() / counter.getCapacity();
+        for (SpaceSaving.Entry<String> entry : top) {
+            assertTrue(entry.getKey().startsWith("hot"), entry.toString());
+            int trueCount = trueCounts[entry.getKey().charAt(3) - '0'];
+            assertTrue(entry.getCount() >= trueCount);
+            assertTrue(entry.getGuaranteedCount() <= trueCount);
+            assertTrue(entry.getCount() - trueCount <= bound);
+        }
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getCount() >= top.get(i).getCount());
+        }
+    }
+
+    @Test
+    void testClearAndInvalidArguments() {
+        SpaceSaving<String> counter = new SpaceSaving<>(2);
+        counter.offer("a");
+        counter.offer("b");
+        counter.offer("c");
+        assertEquals(2, counter.getSize());
+        counter.clear();
+        assertTrue(counter.isEmpty());
+        assertTrue(counter.top(10).isEmpty());
+        counter.offer("a");
+        assertEquals(1, counter.getCount("a"));
+
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSaving<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> counter.offer(null));
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.arabicsearchengine.datastructures.sketch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedCounterTest {
+
+    private static final long MINUTE = WindowedCounter.MINUTE_MILLIS;
+    private static final long HOUR = 60 * MINUTE;
+
+    @Test
+    @DisplayName("Events leave the hour window after 60 minutes and the day window after 24 hours")
+    void testSlidingWindows() {
+        long start = 1_000 * HOUR;
+        WindowedCounter counter = new WindowedCounter(start);
+        counter.increment(start);
+        counter.increment(start + 10 * MINUTE);
+        counter.increment(start + 10 * MINUTE);
+
+        assertEquals(3, counter.getLastHour(start + 30 * MINUTE));
+        assertEquals(2, counter.getLastHour(start + 60 * MINUTE));
+        assertEquals(0, counter.getLastHour(start + 70 * MINUTE));
+        assertEquals(3, counter.getLastDay(start + 70 * MINUTE));
+        assertEquals(3, counter.getLastDay(start + 23 * HOUR));
+        assertEquals(0, counter.getLastDay(start + 24 * HOUR));
+        assertTrue(counter.isIdle(start + 24 * HOUR));
+    }
+
+    @Test
+    @DisplayName("A long gap clears every slot, and later events count again")
+    void testLongGap() {
+        long start = 5 * HOUR;
+        WindowedCounter counter = new WindowedCounter(start);
+        for (int i = 0; i < 100; i++) {
+            counter.increment(start + i * MINUTE);
+        }
+        assertEquals(60, counter.getLastHour(start + 99 * MINUTE));
+        assertEquals(100, counter.getLastDay(start + 99 * MINUTE));
+
+        long later = start + 30 * 24 * HOUR;
+        counter.increment(later);
+        assertEquals(1, counter.getLastHour(later));
+        assertEquals(1, counter.getLastDay(later));
+
+        // Time never moves backwards: an older timestamp counts in the current slot
+        counter.increment(later - HOUR);
+        assertEquals(2, counter.getLastHour(later));
+    }
+}
@@ -5,7 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -148,4 +155,185 @@ public class AVLTreeTest {
         assertEquals(0, tree.getSize());
         assertNull(tree.search(new Root("كتب")));
     }
+
+    @Test
+    @DisplayName("Search and delete by key without building a Root")
+    void testKeyBasedOperations() {
+        tree.insert(new Root("كتب"));
+        tree.insert(new Root("درس"));
+        tree.insert(new Root("علم"));
+
+        Root found = tree.searchByKey("علم", Root::getRootLetters, String::compareTo);
+        assertNotNull(found);
+        assertEquals("علم", found.getRootLetters());
+        assertNull(tree.searchByKey("قرأ", Root::getRootLetters, String::compareTo));
+
+        Root byCode = tree.searchByIntKey(new Root("درس").getCode(), Root::getCode);
+        assertNotNull(byCode);
+        assertEquals("درس", byCode.getRootLetters());
+
+        Root removed = tree.deleteByKey("كتب", Root::getRootLetters, String::compareTo);
+        assertEquals(new Root("كتب"), removed);
+        assertEquals(2, tree.getSize());
+        assertNull(tree.deleteByKey("كتب", Root::getRootLetters, String::compareTo));
+    }
+
+    @Test
+    @DisplayName("Random inserts and deletes keep order and balance")
+    void testRandomInsertDelete() {
+        String letters = "ابتثجحخدذرزسشصضطظعغفقكلمنهوي";
+        List<Root> roots = new ArrayList<>();
+        for (int i = 0; i < letters.length(); i++) {
+            for (int j = 0; j < letters.length(); j += 3) {
+                roots.add(new Root("" + letters.charAt(i) + letters.charAt(j) + "ب"));
+            }
+        }
+        Collections.shuffle(roots, new Random(1));
+        roots.forEach(tree::insert);
+        assertEquals(roots.size(), tree.getSize());
+
+        List<Root> removed = roots.subList(0, roots.size() / 2);
+        removed.forEach(tree::delete);
+        assertEquals(roots.size() - removed.size(), tree.getSize());
+
+        List<Root> sorted = tree.toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i - 1).compareTo(sorted.get(i)) < 0);
+        }
+        assertFalse(tree.contains(removed.get(0)));
+        assertTrue(tree.getTreeHeight() <= 1.45 * Math.log(tree.getSize() + 2) / Math.log(2));
+    }
+
+    @Test
+    @DisplayName("Bulk build sorts, removes duplicates and balances perfectly")
+    void testBuildFrom() {
+        List<Root> roots = new ArrayList<>();
+        String letters = "ابتثجحخدذرزسشصضطظعغفقكلمنهوي";
+        for (int i = 0; i < letters.length(); i++) {
+            roots.add(new Root(letters.charAt(i) + "كب"));
+        }
+        roots.add(new Root("بكب"));
+        Collections.reverse(roots);
+
+        tree.buildFrom(roots);
+
+        assertEquals(letters.length(), tree.getSize());
+        // 28 nodes fit in a perfectly balanced tree of height 5
+        assertEquals(5, tree.getTreeHeight());
+        List<Root> sorted = tree.toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i - 1).compareTo(sorted.get(i)) < 0);
+        }
+    }
+
+    @Test
+    @DisplayName("addAll merges into a non-empty tree and keeps existing elements")
+    void testAddAllMerge() {
+        Root existing = new Root("كتب");
+        tree.insert(existing);
+        tree.insert(new Root("درس"));
+
+        List<Root> added = tree.addAll(List.of(new Root("علم"), new Root("كتب"), new Root("أخذ")));
+
+        assertEquals(List.of(new Root("أخذ"), new Root("علم")), added);
+        assertEquals(4, tree.getSize());
+        assertSame(existing, tree.search(new Root("كتب")));
+    }
+
+    @Test
+    @DisplayName("Lazy iterator walks in order and fails fast on modification")
+    void testIterator() {
+        tree.insert(new Root("علم"));
+        tree.insert(new Root("كتب"));
+        tree.insert(new Root("درس"));
+
+        List<Root> iterated = new ArrayList<>();
+        for (Root root : tree) {
+            iterated.add(root);
+        }
+        assertEquals(tree.toList(), iterated);
+
+        Iterator<Root> iterator = tree.iterator();
+        iterator.next();
+        tree.insert(new Root("قرأ"));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    @DisplayName("Parallel stream over subtrees sees every element once, in order")
+    void testParallelStream() {
+        String letters = "ابتثجحخدذرزسشصضطظعغفقكلمنهوي";
+        List<Root> roots = new ArrayList<>();
+        for (int i = 0; i < letters.length(); i++) {
+            for (int j = 0; j < letters.length(); j++) {
+                roots.add(new Root("" + letters.charAt(i) + letters.charAt(j) + "ب"));
+            }
+        }
+        tree.buildFrom(roots);
+
+        assertEquals(roots.size(), tree.stream().count());
+        List<Root> collected = tree.parallelStream().collect(Collectors.toList());
+        assertEquals(tree.toList(), collected);
+        assertEquals("ااب", tree.stream().findFirst().orElseThrow().getRootLetters());
+    }
+
+    @Test
+    @DisplayName("rank and select agree with sorted order after inserts and deletes")
+    void testRankSelect() {
+        String letters = "ابتثجحخدذرزسشصضطظعغفقكلمنهوي";
+        List<Root> roots = new ArrayList<>();
+        for (int i = 0; i < letters.length(); i++) {
+            for (int j = 0; j < letters.length(); j += 2) {
+                roots.add(new Root("" + letters.charAt(i) + letters.charAt(j) + "ب"));
+            }
+        }
+        Collections.shuffle(roots, new Random(7));
+        roots.forEach(tree::insert);
+        roots.subList(0, roots.size() / 3).forEach(tree::delete);
+
+        List<Root> sorted = tree.toList();
+        assertEquals(sorted.size(), tree.getRoot().getSize());
+        for (int k = 0; k < sorted.size(); k++) {
+            assertEquals(sorted.get(k), tree.select(k));
+            assertEquals(k, tree.rank(sorted.get(k)));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(sorted.size()));
+    }
+
+    @Test
+    @DisplayName("range, slice and iteratorFrom return contiguous sorted runs")
+    void testRangeQueries() {
+        tree.insert(new Root("أخذ"));
+        tree.insert(new Root("درس"));
+        tree.insert(new Root("علم"));
+        tree.insert(new Root("كتب"));
+        tree.insert(new Root("كسر"));
+        tree.insert(new Root("لعب"));
+
+        assertEquals(List.of(new Root("علم"), new Root("كتب"), new Root("كسر")),
+                tree.range(new Root("علم"), new Root("لعب")));
+        assertEquals(List.of(new Root("كتب"), new Root("كسر")),
+                tree.rangeByKey("ك", "ك" + Character.MAX_VALUE, Root::getRootLetters, String::compareTo));
+        assertEquals(List.of(new Root("درس"), new Root("علم")), tree.slice(1, 2));
+        assertEquals(List.of(new Root("لعب")), tree.slice(5, 10));
+        assertTrue(tree.slice(6, 1).isEmpty());
+
+        Iterator<Root> iterator = tree.iteratorFrom(4);
+        assertEquals(new Root("كسر"), iterator.next());
+        assertEquals(new Root("لعب"), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    @DisplayName("Spliterator sizes stay exact after splitting")
+    void testSpliteratorExactSize() {
+        for (String letters : List.of("أخذ", "درس", "علم", "كتب", "كسر", "لعب", "قرأ")) {
+            tree.insert(new Root(letters));
+        }
+        Spliterator<Root> suffix = tree.spliterator();
+        Spliterator<Root> prefix = suffix.trySplit();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(tree.getSize(), prefix.estimateSize() + suffix.estimateSize());
+        assertEquals(prefix.estimateSize(), prefix.getExactSizeIfKnown());
+    }
 }
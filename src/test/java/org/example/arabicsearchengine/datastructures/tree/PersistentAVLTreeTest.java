@@ -0,0 +1,153 @@
+package org.example.arabicsearchengine.datastructures.tree;
+
+import org.example.arabicsearchengine.models.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the persistent (path-copying) AVL tree.
+ */
+class PersistentAVLTreeTest {
+
+    private static final String LETTERS = "ابتثجحخدذرزسشصضطظعغفقكلمنهوي";
+
+    private PersistentAVLTree<Root> tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new PersistentAVLTree<>();
+    }
+
+    private static List<Root> roots(int stride) {
+        List<Root> roots = new ArrayList<>();
+        for (int i = 0; i < LETTERS.length(); i++) {
+            for (int j = 0; j < LETTERS.length(); j += stride) {
+                roots.add(new Root("" + LETTERS.charAt(i) + LETTERS.charAt(j) + "ب"));
+            }
+        }
+        return roots;
+    }
+
+    @Test
+    @DisplayName("Random inserts and deletes keep order, size and balance")
+    void testRandomInsertDelete() {
+        List<Root> roots = roots(2);
+        Collections.shuffle(roots, new Random(5));
+        roots.forEach(tree::insert);
+        assertFalse(tree.insert(roots.get(0)));
+        assertEquals(roots.size(), tree.getSize());
+
+        List<Root> removed = roots.subList(0, roots.size() / 2);
+        removed.forEach(tree::delete);
+        assertEquals(roots.size() - removed.size(), tree.getSize());
+        assertNull(tree.search(removed.get(0)));
+
+        List<Root> sorted = tree.toList();
+        for (int k = 0; k < sorted.size(); k++) {
+            assertEquals(sorted.get(k), tree.select(k));
+            if (k > 0) {
+                assertTrue(sorted.get(k - 1).compareTo(sorted.get(k)) < 0);
+            }
+        }
+        // AVL bound: height < 1.45 * log2(n + 2)
+        assertTrue(tree.getTreeHeight() < 1.45 * (Math.log(sorted.size() + 2) / Math.log(2)));
+    }
+
+    @Test
+    @DisplayName("Snapshots are isolated from later writes")
+    void testSnapshotIsolation() {
+        tree.insert(new Root("كتب"));
+        tree.insert(new Root("درس"));
+        PersistentAVLTree<Root> snapshot = tree.snapshot();
+
+        tree.insert(new Root("علم"));
+        tree.delete(new Root("كتب"));
+        snapshot.insert(new Root("أخذ"));
+
+        assertEquals(List.of(new Root("درس"), new Root("علم")), tree.toList());
+        assertEquals(List.of(new Root("أخذ"), new Root("درس"), new Root("كتب")), snapshot.toList());
+    }
+
+    @Test
+    @DisplayName("addAll publishes one version and keeps existing elements")
+    void testAddAll() {
+        Root existing = new Root("كتب");
+        tree.insert(existing);
+        List<Root> added = tree.addAll(List.of(new Root("علم"), new Root("كتب"), new Root("علم")));
+        assertEquals(List.of(new Root("علم")), added);
+        assertSame(existing, tree.search(new Root("كتب")));
+
+        List<Root> all = roots(1);
+        tree.addAll(all);
+        // all contains كتب but not علم
+        assertEquals(all.size() + 1, tree.getSize());
+        assertEquals(tree.getSize(), tree.stream().count());
+    }
+
+    @Test
+    @DisplayName("update removes and adds as one version")
+    void testUpdate() {
+        List<Root> all = roots(1);
+        tree.addAll(all);
+        PersistentAVLTree<Root> before = tree.snapshot();
+
+        List<Root> removed = new ArrayList<>();
+        List<Root> added = new ArrayList<>();
+        tree.update(List.of(new Root("ااب"), new Root("زرع")), List.of(new Root("زرع"), all.get(5)),
+                removed, added);
+
+        // زرع is removed before it is added, so it stays absent before and present after
+        assertEquals(List.of(all.get(0)), removed);
+        assertSame(all.get(0), removed.get(0));
+        assertEquals(List.of(new Root("زرع")), added);
+        assertEquals(all.size(), tree.getSize());
+        assertNull(tree.search(new Root("ااب")));
+        assertNotNull(tree.search(new Root("زرع")));
+        assertEquals(all, before.toList());
+        assertTrue(tree.getTreeHeight() < 1.45 * (Math.log(tree.getSize() + 2) / Math.log(2)));
+    }
+
+    @Test
+    @DisplayName("Readers see complete versions while a writer is running")
+    void testConcurrentReaders() throws InterruptedException {
+        List<Root> batch = roots(1);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                PersistentAVLTree<Root> snapshot = tree.snapshot();
+                int size = snapshot.getSize();
+                int iterated = 0;
+                for (Root ignored : snapshot) {
+                    iterated++;
+                }
+                if (iterated != size) {
+                    failure.set("iterated " + iterated + " of " + size);
+                }
+            }
+        });
+        reader.start();
+        for (Root root : batch) {
+            tree.insert(root);
+        }
+        for (int i = 0; i < batch.size(); i += 2) {
+            tree.delete(batch.get(i));
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(batch.size() / 2, tree.getSize());
+    }
+}
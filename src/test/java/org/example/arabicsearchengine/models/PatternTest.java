@@ -23,6 +23,38 @@ class PatternTest {
         assertEquals("كاتب", derivedWord);
     }
 
+    @Test
+    @DisplayName("Write derived word into a caller buffer")
+    void writeTo() {
+        Pattern p2 = new Pattern("مفعول", "مفعول");
+        char[] buffer = new char[10];
+        int length = p2.writeTo(new Root("كتب"), buffer, 2);
+
+        assertEquals(5, length);
+        assertEquals("مكتوب", new String(buffer, 2, length));
+    }
+
+    @Test
+    @DisplayName("Match a word without building it")
+    void matches() {
+        Root r = new Root("كتب");
+
+        assertTrue(p.matches("كاتب", r));
+        assertFalse(p.matches("كتاب", r));
+        assertFalse(p.matches("كاتبة", r));
+        assertFalse(p.matches("كاتب", new Root("درس")));
+    }
+
+    @Test
+    @DisplayName("Extract root letters from a derived word")
+    void extractRootLetters() {
+        char[] letters = new char[3];
+
+        assertTrue(new Pattern("استفعال", "استفعال").extractRootLetters("استخدام", letters));
+        assertEquals("خدم", new String(letters));
+        assertFalse(p.extractRootLetters("مكتوب", letters));
+    }
+
     @Test
     @DisplayName("Get Pattern Id")
     void getPatternId() {
@@ -0,0 +1,81 @@
+package org.example.arabicsearchengine.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RootTest {
+
+    @Test
+    @DisplayName("Repeated words increment the existing entry and keep insertion order")
+    void addDerivedWord() {
+        Root root = new Root("كتب");
+        Pattern faa3il = new Pattern("فاعل", "فاعل");
+        Pattern maf3ool = new Pattern("مفعول", "مفعول");
+
+        root.addDerivedWord(new DerivedWord("كاتب", root, faa3il));
+        root.addDerivedWord(new DerivedWord("مكتوب", root, maf3ool));
+        root.addDerivedWord(new DerivedWord("كاتب", root, faa3il));
+        root.addDerivedWord(new DerivedWord("كاتب", root, faa3il));
+
+        List<DerivedWord> words = root.getDerivedWords();
+        assertEquals(2, words.size());
+        assertEquals("كاتب", words.get(0).getWord());
+        assertEquals(2, words.get(0).getFrequency());
+        assertEquals("مكتوب", words.get(1).getWord());
+        assertEquals(0, words.get(1).getFrequency());
+        assertThrows(UnsupportedOperationException.class, () -> words.add(words.get(0)));
+    }
+
+    @Test
+    @DisplayName("Concurrent adds of the same words lose no increments")
+    void concurrentAddDerivedWord() throws InterruptedException {
+        Root root = new Root("كتب");
+        Pattern faa3il = new Pattern("فاعل", "فاعل");
+        Pattern maf3ool = new Pattern("مفعول", "مفعول");
+        int threads = 4;
+        int perThread = 10_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    root.addDerivedWord(new DerivedWord("كاتب", root, faa3il));
+                    root.addDerivedWord(new DerivedWord("مكتوب", root, maf3ool));
+                    for (DerivedWord word : root.getDerivedWords()) {
+                        assertNotNull(word.getWord());
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<DerivedWord> words = root.getDerivedWords();
+        assertEquals(2, words.size());
+        // The first add of each word creates the entry at frequency 0
+        assertEquals(threads * perThread - 1, words.get(0).getFrequency());
+        assertEquals(threads * perThread - 1, words.get(1).getFrequency());
+    }
+
+    @Test
+    void setDerivedWordsRebuildsIndex() {
+        Root root = new Root("كتب");
+        Pattern faa3il = new Pattern("فاعل", "فاعل");
+        DerivedWord kaatib = new DerivedWord("كاتب", root, faa3il);
+        root.addDerivedWord(new DerivedWord("كتب", root, faa3il));
+
+        root.setDerivedWords(List.of(kaatib));
+        root.addDerivedWord(new DerivedWord("كاتب", root, faa3il));
+
+        assertEquals(1, root.getDerivedWords().size());
+        assertEquals(1, kaatib.getFrequency());
+    }
+}
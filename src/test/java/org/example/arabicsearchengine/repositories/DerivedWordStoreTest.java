@@ -0,0 +1,181 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.services.MorphologyService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DerivedWordStoreTest {
+
+    private final Pattern faIl = new Pattern("فاعل", "فاعل");
+    private final Pattern mafUl = new Pattern("مفعول", "مفعول");
+
+    @Test
+    void testRecordCountsRepeatGenerations() {
+        DerivedWordStore store = new DerivedWordStore();
+        Root ktb = new Root("كتب");
+
+        int entry = store.record(ktb, faIl);
+        assertEquals(0, store.getFrequency(entry));
+        assertEquals(entry, store.record(ktb, faIl));
+        assertEquals(entry, store.record(ktb, new Pattern("فاعل", "فاعل")));
+        assertEquals(2, store.getFrequency(entry));
+
+        assertEquals("كاتب", store.getWord(entry));
+        assertEquals("كتب", store.getRootLetters(entry));
+        assertEquals(entry, store.find(new Root("كتب"), faIl));
+        assertEquals(-1, store.find(ktb, mafUl));
+        assertEquals(1, store.getSize());
+    }
+
+    @Test
+    @DisplayName("wordsOf lists a root's words in first-generated order with live frequencies")
+    void testWordsView() {
+        DerivedWordStore store = new DerivedWordStore();
+        Root ktb = new Root("كتب");
+        Root drs = new Root("درس");
+        store.record(ktb, mafUl);
+        store.record(drs, faIl);
+        store.record(ktb, faIl);
+        store.record(ktb, mafUl);
+
+        List<DerivedWord> words = store.wordsOf(ktb);
+        assertEquals(2, words.size());
+        assertEquals("مكتوب", words.get(0).getWord());
+        assertEquals(1, words.get(0).getFrequency());
+        assertEquals("كاتب", words.get(1).getWord());
+        assertSame(ktb, words.get(1).getRoot());
+        assertEquals(faIl, words.get(1).getPattern());
+
+        store.record(ktb, faIl);
+        assertEquals(1, words.get(1).getFrequency());
+        assertTrue(store.wordsOf(new Root("علم")).isEmpty());
+    }
+
+    @Test
+    void testManyEntriesAndRootsOutsideCodec() {
+        DerivedWordStore store = new DerivedWordStore();
+        Root latin = new Root("abc");
+        store.record(latin, faIl);
+        assertEquals("aاbc", store.getWord(store.find(latin, faIl)));
+
+        char[] letters = {'ب', 'ت', 'ث', 'ج', 'ح', 'خ', 'د', 'ذ', 'ر', 'ز'};
+        int roots = 0;
+        for (char a : letters) {
+            for (char b : letters) {
+                for (char c : letters) {
+                    Root root = new Root("" + a + b + c);
+                    store.record(root, faIl);
+                    store.record(root, mafUl);
+                    roots++;
+                }
+            }
+        }
+        assertEquals(1 + 2 * roots, store.getSize());
+        Root last = new Root("زذد");
+        assertEquals("زاذد", store.wordsOf(last).get(0).getWord());
+        assertEquals("مزذود", store.wordsOf(last).get(1).getWord());
+
+        store.clear();
+        assertTrue(store.isEmpty());
+        assertEquals(-1, store.find(last, faIl));
+    }
+
+    @Test
+    @DisplayName("A snapshot keeps the words and counts it was taken with")
+    void testSnapshotIsolation() {
+        DerivedWordStore store = new DerivedWordStore();
+        char[] letters = {'ب', 'ت', 'ث', 'ج', 'ح', 'خ', 'د', 'ذ', 'ر', 'ز'};
+        for (char a : letters) {
+            for (char b : letters) {
+                for (char c : letters) {
+                    Root root = new Root("" + a + b + c);
+                    store.record(root, faIl);
+                    store.record(root, faIl);
+                    store.record(root, mafUl);
+                }
+            }
+        }
+        Root latin = new Root("abc");
+        store.record(latin, mafUl);
+        DerivedWordStore.Snapshot snapshot = store.snapshot();
+
+        // Touches entries on the first and last pages, frees some and reuses them
+        store.record(new Root("ببب"), faIl);
+        store.record(latin, mafUl);
+        store.removeRoot(new Root("تتت"));
+        store.record(new Root("xyz"), mafUl);
+        store.restore(new Root("ززز"), faIl, 99);
+
+        assertEquals(2001, snapshot.getSize());
+        List<String> words = new ArrayList<>();
+        snapshot.forEach((rootLetters, pattern, frequency) ->
+                words.add(rootLetters + ":" + pattern.getPatternId() + ":" + frequency));
+        assertEquals(2001, words.size());
+        assertTrue(words.contains("ببب:فاعل:1"));
+        assertTrue(words.contains("تتت:فاعل:1"));
+        assertTrue(words.contains("ززز:فاعل:1"));
+        assertTrue(words.contains("زذد:مفعول:0"));
+        assertTrue(words.contains("abc:مفعول:0"));
+
+        assertEquals(2, store.getFrequency(store.find(new Root("ببب"), faIl)));
+        assertEquals(99, store.getFrequency(store.find(new Root("ززز"), faIl)));
+        List<String> current = new ArrayList<>();
+        store.snapshot().forEach((rootLetters, pattern, frequency) -> current.add(rootLetters));
+        assertFalse(current.contains("تتت"));
+        assertTrue(current.contains("xyz"));
+        assertEquals(2000, current.size());
+    }
+
+    @Test
+    @DisplayName("Deleting a root forgets its words, so re-adding it starts empty")
+    void testRemoveRootOnDelete() {
+        DerivedWordStore store = new DerivedWordStore();
+        MorphologyService morphologyService = new MorphologyService(store);
+        RootRepository repository = new RootRepository();
+        morphologyService.trackDeletedRoots(repository);
+
+        char[] letters = {'ب', 'ت', 'ث', 'ج', 'ح', 'خ', 'د', 'ذ', 'ر', 'ز'};
+        for (char a : letters) {
+            for (char b : letters) {
+                Root root = new Root("" + a + b + 'ك');
+                repository.save(root);
+                morphologyService.generateWord(root, faIl);
+                morphologyService.generateWord(root, mafUl);
+                morphologyService.generateWord(root, mafUl);
+            }
+        }
+        repository.save(new Root("abc"));
+        morphologyService.generateWord(repository.findByLetters("abc"), faIl);
+        int before = store.getSize();
+
+        for (char a : letters) {
+            repository.delete("" + a + 'ب' + 'ك');
+        }
+        repository.delete("abc");
+        assertEquals(before - 2 * letters.length - 1, store.getSize());
+
+        Root readded = new Root("ببك");
+        repository.save(readded);
+        assertTrue(morphologyService.getDerivedWords(readded).isEmpty());
+        assertTrue(morphologyService.getDerivedWords(new Root("abc")).isEmpty());
+        assertEquals(0, morphologyService.generateWord(readded, mafUl).getFrequency());
+
+        // Untouched roots keep their words and counts after the freed entries are reused
+        for (char a : letters) {
+            Root kept = repository.findByLetters("" + a + 'ت' + 'ك');
+            List<DerivedWord> words = morphologyService.getDerivedWords(kept);
+            assertEquals(2, words.size());
+            assertEquals(1, words.get(1).getFrequency());
+            assertEquals(mafUl.applyToRoot(kept), words.get(1).getWord());
+        }
+        assertEquals(before - 2 * letters.length, store.getSize());
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.models.DerivedWord;
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionarySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Roots, patterns and word frequencies survive a write and open")
+    void testRoundTrip() throws IOException {
+        Root ktb = new Root("كتب");
+        Root drs = new Root("درس");
+        Root latin = new Root("abc");   // outside the RootCodec range
+        Pattern faa3il = new Pattern("فاعل", "فاعل", "Active Participle");
+        Pattern maf3ool = new Pattern("مفعول", "مفعول", "");
+        List<DerivedWord> words = new ArrayList<>();
+        words.add(new DerivedWord("كاتب", ktb, faa3il, 3));
+        words.add(new DerivedWord("مدروس", drs, maf3ool, 1));
+        words.add(new DerivedWord("aabc", latin, faa3il, 7));
+        words.add(new DerivedWord("x", new Root("زرع"), faa3il, 9));   // root not saved: skipped
+
+        Path path = dir.resolve("dictionary.snapshot");
+        DictionarySnapshot.write(path, List.of(ktb, drs, latin), List.of(faa3il, maf3ool), words);
+        DictionarySnapshot snapshot = DictionarySnapshot.open(path);
+
+        assertEquals(3, snapshot.getRootCount());
+        assertEquals(3, snapshot.getEntryCount());
+        assertEquals(Files.size(path), snapshot.getSizeBytes());
+        assertTrue(snapshot.containsRoot("كتب"));
+        assertTrue(snapshot.containsRoot("abc"));
+        assertFalse(snapshot.containsRoot("زرع"));
+        assertEquals(3, snapshot.getFrequency("كتب", 0));
+        assertEquals(1, snapshot.getFrequency("درس", 1));
+        assertEquals(7, snapshot.getFrequency("abc", 0));
+        assertEquals(-1, snapshot.getFrequency("كتب", 1));
+
+        List<Pattern> patterns = snapshot.getPatterns();
+        assertEquals("فاعل", patterns.get(0).getPatternId());
+        assertEquals("Active Participle", patterns.get(0).getDescription());
+        assertEquals("مفعول", patterns.get(1).getStructure());
+        assertEquals("درس", snapshot.getRoots().get(0).getRootLetters());
+
+        List<String> visited = new ArrayList<>();
+        snapshot.forEachEntry((rootIndex, patternIndex, frequency) ->
+                visited.add(snapshot.getRootLetters(rootIndex) + ":" + patternIndex + ":" + frequency));
+        assertEquals(List.of("درس:1:1", "كتب:0:3", "abc:0:7"), visited);
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path text = dir.resolve("roots.txt");
+        Files.writeString(text, "كتب\nدرس\nعلم\nفهم\nقرأ\nجلس\nخرج\nدخل\nشرب\nأكل\nسمع\n");
+        assertThrows(IOException.class, () -> DictionarySnapshot.open(text));
+
+        Path path = dir.resolve("dictionary.snapshot");
+        DictionarySnapshot.write(path, List.of(new Root("كتب")), List.of(), List.of());
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putShort(4, (short) (DictionarySnapshot.VERSION + 1));
+        Files.write(path, bytes);
+        IOException e = assertThrows(IOException.class, () -> DictionarySnapshot.open(path));
+        assertTrue(e.getMessage().contains("version"));
+    }
+
+    @Test
+    @DisplayName("A damaged or truncated snapshot fails to open with an IOException")
+    void testRejectsCorruption() throws IOException {
+        Path path = dir.resolve("dictionary.snapshot");
+        Root ktb = new Root("كتب");
+        Pattern doer = new Pattern("فاعل", "فاعل");
+        DictionarySnapshot.write(path, List.of(ktb), List.of(doer), List.of(new DerivedWord("كاتب", ktb, doer, 2)));
+        byte[] bytes = Files.readAllBytes(path);
+
+        // Damages the root index of the last entry
+        byte[] damaged = bytes.clone();
+        damaged[damaged.length - 10] = 0x7F;
+        Files.write(path, damaged);
+        IOException e = assertThrows(IOException.class, () -> DictionarySnapshot.open(path));
+        assertTrue(e.getMessage().contains("Corrupt"));
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> DictionarySnapshot.open(path));
+    }
+}
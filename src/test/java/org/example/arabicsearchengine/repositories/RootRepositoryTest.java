@@ -0,0 +1,58 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.example.arabicsearchengine.models.Root;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RootRepositoryTest {
+
+    @Test
+    @DisplayName("The direct table keeps Persian and Latin roots in sorted order with the Arabic ones")
+    void testDirectTableOverflow() {
+        RootRepository repository = new RootRepository(RootRepository.StorageType.DIRECT_TABLE);
+        List<String> saved = new ArrayList<>();
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(Root root) { saved.add(root.getRootLetters()); }
+
+            @Override
+            public void onDeleted(Root root) { }
+        });
+
+        List<String> letters = List.of("كتب", "abc", "پرس", "درس", "بکت", "علم");
+        List<Root> roots = new ArrayList<>();
+        letters.forEach(l -> roots.add(new Root(l)));
+        assertEquals(letters.size(), repository.saveAll(roots));
+        assertEquals(letters, saved);
+        assertEquals(0, repository.saveAll(List.of(new Root("پرس"))));
+
+        List<String> sorted = new ArrayList<>(letters);
+        sorted.sort(null);
+        assertEquals(sorted, names(repository.findAll()));
+        assertEquals(sorted, names(repository.stream().toList()));
+        for (int k = 0; k < sorted.size(); k++) {
+            assertEquals(sorted.get(k), repository.select(k).getRootLetters());
+            assertEquals(k, repository.rank(sorted.get(k)));
+            assertEquals(sorted.subList(k, sorted.size()), names(repository.findByPrefix("", k, sorted.size())));
+        }
+        assertEquals(List.of("بکت"), names(repository.findByPrefix("ب", 0, 10)));
+        assertEquals(1, repository.countByPrefix("پ"));
+
+        RootRepository snapshot = repository.snapshot();
+        repository.delete("بکت");
+        assertNull(repository.findByLetters("بکت"));
+        assertNotNull(snapshot.findByLetters("بکت"));
+        assertEquals(sorted.size() - 1, repository.count());
+    }
+
+    private static List<String> names(List<Root> roots) {
+        List<String> names = new ArrayList<>();
+        roots.forEach(root -> names.add(root.getRootLetters()));
+        return names;
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.arabicsearchengine.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    /** Records every visited record as one line. */
+    private static final class Recorder implements WriteAheadLog.RecordVisitor {
+        final List<String> records = new ArrayList<>();
+
+        @Override
+        public void rootSaved(String letters) { records.add("+root " + letters); }
+
+        @Override
+        public void rootDeleted(String letters) { records.add("-root " + letters); }
+
+        @Override
+        public void patternSaved(String id, String structure, String description) {
+            records.add("+pattern " + id + "|" + structure + "|" + description);
+        }
+
+        @Override
+        public void patternDeleted(String id) { records.add("-pattern " + id); }
+
+        @Override
+        public void patternsCleared() { records.add("clear"); }
+
+        @Override
+        public void wordCounted(String rootLetters, String patternId, int frequency) {
+            records.add("word " + rootLetters + "/" + patternId + "=" + frequency);
+        }
+    }
+
+    @Test
+    @DisplayName("Every record type survives a close and replay, in order")
+    void testRoundTrip() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_GROUP_COMMIT_MILLIS)) {
+            log.appendRootSaved("كتب");
+            log.appendPatternSaved("فاعل", "فاعل", "Active Participle");
+            log.appendWordCounted("كتب", "فاعل", 2);
+            log.appendPatternDeleted("فاعل");
+            log.appendPatternsCleared();
+            log.appendRootDeleted("كتب");
+        }
+
+        Recorder recorder = new Recorder();
+        WriteAheadLog.ReplayResult result = WriteAheadLog.replay(dir, recorder);
+        assertEquals(List.of("+root كتب", "+pattern فاعل|فاعل|Active Participle", "word كتب/فاعل=2",
+                "-pattern فاعل", "clear", "-root كتب"), recorder.records);
+        assertEquals(6, result.getRecords());
+        assertEquals(1, result.getSegments());
+        assertEquals(0, result.getDiscardedBytes());
+    }
+
+    @Test
+    @DisplayName("Replay stops at a torn or corrupted record")
+    void testTornAndCorruptTail() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_GROUP_COMMIT_MILLIS)) {
+            log.appendRootSaved("كتب");
+            log.appendRootSaved("درس");
+            log.appendRootSaved("علم");
+        }
+        Path segment = onlySegment();
+        long size = Files.size(segment);
+
+        // A crash in the middle of the last record
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(size - 3);
+        }
+        Recorder torn = new Recorder();
+        WriteAheadLog.ReplayResult result = WriteAheadLog.replay(dir, torn);
+        assertEquals(List.of("+root كتب", "+root درس"), torn.records);
+        assertTrue(result.getDiscardedBytes() > 0);
+
+        // A flipped bit in the second record's payload
+        byte[] bytes = Files.readAllBytes(segment);
+        int recordBytes = (int) size / 3;
+        bytes[recordBytes + recordBytes - 1] ^= 0x01;
+        Files.write(segment, bytes);
+        Recorder corrupt = new Recorder();
+        WriteAheadLog.replay(dir, corrupt);
+        assertEquals(List.of("+root كتب"), corrupt.records);
+    }
+
+    @Test
+    @DisplayName("Appends from many threads share fsyncs and all become durable")
+    void testGroupCommit() throws Exception {
+        int threads = 4;
+        int perThread = 2_000;
+        try (WriteAheadLog log = WriteAheadLog.open(dir, 5)) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.appendWordCounted("كتب", "p" + id, i + 1);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            long last = log.getAppendedCount();
+            log.awaitDurable(last);
+
+            assertEquals(threads * perThread, last);
+            assertTrue(log.getSyncCount() < last / 10,
+                    "expected batched fsyncs, got " + log.getSyncCount() + " for " + last + " records");
+        }
+
+        Recorder recorder = new Recorder();
+        WriteAheadLog.replay(dir, recorder);
+        assertEquals(threads * perThread, recorder.records.size());
+        for (int t = 0; t < threads; t++) {
+            assertTrue(recorder.records.contains("word كتب/p" + t + "=" + perThread));
+        }
+    }
+
+    @Test
+    @DisplayName("Rotating starts a new segment; older segments can be deleted")
+    void testRotateAndDelete() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_GROUP_COMMIT_MILLIS)) {
+            log.appendRootSaved("كتب");
+            assertEquals(1, log.getRecordsInSegment());
+            int generation = log.rotate();
+            assertEquals(2, generation);
+            assertEquals(0, log.getRecordsInSegment());
+            log.appendRootSaved("درس");
+            log.sync();
+
+            Recorder both = new Recorder();
+            assertEquals(2, WriteAheadLog.replay(dir, both).getSegments());
+            assertEquals(List.of("+root كتب", "+root درس"), both.records);
+
+            log.deleteSegmentsBefore(generation);
+            Recorder latest = new Recorder();
+            WriteAheadLog.replay(dir, latest);
+            assertEquals(List.of("+root درس"), latest.records);
+        }
+
+        // Reopening never appends to an old (possibly torn) segment
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_GROUP_COMMIT_MILLIS)) {
+            assertEquals(3, log.getGeneration());
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RepositoryListener;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataReloadServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final RootService rootService =
+            new RootService(new RootRepository(RootRepository.StorageType.PERSISTENT_AVL));
+    private final PatternService patternService = new PatternService(new PatternRepository());
+
+    @Test
+    @DisplayName("A root reload applies only the difference and keeps untouched roots")
+    void testRootDiff() throws Exception {
+        Path file = dir.resolve("roots.txt");
+        Files.writeString(file, "كتب\nدرس\nعلم\n");
+        rootService.loadRootsFromFile(file.toString());
+        Root untouched = rootService.searchRoot("كتب");
+
+        List<String> saved = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        rootService.getRepository().addListener(new RepositoryListener<>() {
+            @Override
+            public void onSaved(Root root) { saved.add(root.getRootLetters()); }
+
+            @Override
+            public void onDeleted(Root root) { deleted.add(root.getRootLetters()); }
+        });
+
+        try (DataReloadService reloader = new DataReloadService(rootService, patternService, Runnable::run)) {
+            // The first reload only records what the file lists
+            assertTrue(reloader.reloadRoots(file).get().isEmpty());
+            Files.writeString(file, "# edited\nكتب\nعلم\nفهم\nفهم\n");
+            DataReloadService.ChangeEvent event = reloader.reloadRoots(file).get();
+
+            assertEquals(List.of("فهم"), event.getAdded());
+            assertEquals(List.of("درس"), event.getRemoved());
+            assertEquals(List.of("فهم"), saved);
+            assertEquals(List.of("درس"), deleted);
+            assertEquals(3, rootService.getRootCount());
+            assertSame(untouched, rootService.searchRoot("كتب"));
+
+            assertTrue(reloader.reloadRoots(file).get().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("A pattern reload adds, updates and removes by ID")
+    void testPatternDiff() throws Exception {
+        Path file = dir.resolve("patterns.txt");
+        Files.writeString(file, "فاعل|فاعل|Active Participle\nمفعول|مفعول|Passive Participle\n");
+        patternService.loadPatternsFromFile(file.toString());
+
+        try (DataReloadService reloader = new DataReloadService(rootService, patternService, Runnable::run)) {
+            assertTrue(reloader.reloadPatterns(file).get().isEmpty());
+            Files.writeString(file, "فاعل|فاعل|Doer\nفعّال|فعّال|Intensive\n");
+            DataReloadService.ChangeEvent event = reloader.reloadPatterns(file).get();
+
+            assertEquals(List.of("فعّال"), event.getAdded());
+            assertEquals(List.of("مفعول"), event.getRemoved());
+            assertEquals(List.of("فاعل"), event.getUpdated());
+            assertEquals("Doer", patternService.getPattern("فاعل").getDescription());
+            assertTrue(patternService.getRepository().isFrozen());
+        }
+    }
+
+    @Test
+    @DisplayName("Editing a watched file publishes a change event")
+    void testWatch() throws Exception {
+        Path file = dir.resolve("roots.txt");
+        Files.writeString(file, "كتب\n");
+        rootService.loadRootsFromFile(file.toString());
+
+        BlockingQueue<DataReloadService.ChangeEvent> events = new LinkedBlockingQueue<>();
+        try (DataReloadService reloader = new DataReloadService(rootService, patternService, Runnable::run, 50)) {
+            reloader.addChangeListener(events::add);
+            reloader.watchRoots(file, rootService.getLastLoad().getRoots());
+            Files.writeString(dir.resolve("other.txt"), "درس\n");
+            Files.writeString(file, "كتب\nدرس\n");
+
+            DataReloadService.ChangeEvent event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event, "no reload within 10 s");
+            assertEquals(DataReloadService.ChangeEvent.Kind.ROOTS, event.getKind());
+            assertEquals(List.of("درس"), event.getAdded());
+            assertTrue(rootService.rootExists("درس"));
+        }
+    }
+
+    @Test
+    @DisplayName("Editing one file leaves the roots of other files and hand-added roots alone")
+    void testReloadKeepsOtherRoots() throws Exception {
+        Path first = dir.resolve("first.txt");
+        Path second = dir.resolve("second.txt");
+        Files.writeString(first, "كتب\nدرس\nعلم\n");
+        Files.writeString(second, "فهم\nعلم\n");
+
+        BlockingQueue<DataReloadService.ChangeEvent> events = new LinkedBlockingQueue<>();
+        try (DataReloadService reloader = new DataReloadService(rootService, patternService, Runnable::run, 50)) {
+            reloader.addChangeListener(events::add);
+            rootService.loadRootsFromFile(first.toString());
+            reloader.watchRoots(first, rootService.getLastLoad().getRoots());
+            rootService.loadRootsFromFile(second.toString());
+            reloader.watchRoots(second, rootService.getLastLoad().getRoots());
+            rootService.addRoot("شرب");
+
+            Files.writeString(first, "كتب\n");
+            DataReloadService.ChangeEvent event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event, "no reload within 10 s");
+
+            assertEquals(List.of("درس"), event.getRemoved());
+            assertTrue(event.getAdded().isEmpty());
+            // علم is still listed by the second file
+            for (String kept : List.of("كتب", "علم", "فهم", "شرب")) {
+                assertTrue(rootService.rootExists(kept), kept);
+            }
+            assertFalse(rootService.rootExists("درس"));
+        }
+    }
+}
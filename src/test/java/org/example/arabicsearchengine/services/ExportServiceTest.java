@@ -0,0 +1,125 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final RootService rootService = new RootService(new RootRepository());
+    private final MorphologyService morphologyService = new MorphologyService();
+    private final ExportService exportService = new ExportService(rootService, morphologyService);
+
+    @BeforeEach
+    void setUp() {
+        rootService.addRoot("كتب");
+        rootService.addRoot("درس");
+        Pattern doer = new Pattern("فاعل", "فاعل");
+        Pattern quoted = new Pattern("a,\"b\"", "مفعول");
+        Root ktb = rootService.searchRoot("كتب");
+        morphologyService.generateWord(ktb, doer);
+        morphologyService.generateWord(ktb, doer);
+        morphologyService.generateWord(ktb, quoted);
+        morphologyService.generateWord(rootService.searchRoot("درس"), doer);
+    }
+
+    @Test
+    @DisplayName("CSV export has a BOM, a header and quotes fields as RFC 4180")
+    void testCsv() throws Exception {
+        Path file = dir.resolve("words.csv");
+        ExportService.ExportJob job = exportService.start(file, ExportService.Format.CSV, null);
+        job.getCompletion().get();
+
+        assertEquals(List.of(
+                "\uFEFFroot,word,pattern,frequency",
+                "درس,دارس,فاعل,0",
+                "كتب,كاتب,فاعل,1",
+                "كتب,مكتوب,\"a,\"\"b\"\"\",0"
+        ), Files.readAllLines(file));
+        assertEquals(3, job.getRows());
+        assertEquals(Files.size(file), job.getBytes());
+        assertEquals(1.0, job.getProgress());
+        assertFalse(Files.exists(dir.resolve("words.csv.tmp")));
+    }
+
+    @Test
+    @DisplayName("JSON Lines export writes one escaped object per row")
+    void testJsonLines() throws Exception {
+        Path file = dir.resolve("words.jsonl");
+        exportService.start(file, ExportService.Format.JSON_LINES, null).getCompletion().get();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals("{\"root\":\"كتب\",\"word\":\"مكتوب\",\"pattern\":\"a,\\\"b\\\"\",\"frequency\":0}", lines.get(2));
+    }
+
+    @Test
+    @DisplayName("A binary export reads back to the same rows")
+    void testBinaryRoundTrip() throws Exception {
+        Path file = dir.resolve("words.bin");
+        assertEquals(ExportService.Format.BINARY, ExportService.Format.forFile(file));
+        exportService.start(file, ExportService.Format.BINARY, null).getCompletion().get();
+
+        List<String> rows = new ArrayList<>();
+        long count = ExportService.readBinary(file, (root, word, pattern, frequency) ->
+                rows.add(root + " " + word + " " + pattern + " " + frequency));
+        assertEquals(3, count);
+        assertEquals(List.of("درس دارس فاعل 0", "كتب كاتب فاعل 1", "كتب مكتوب a,\"b\" 0"), rows);
+    }
+
+    @Test
+    @DisplayName("A cancelled export leaves neither the target nor a temporary file")
+    void testCancel() throws Exception {
+        Path file = dir.resolve("words.csv");
+        Files.writeString(file, "previous");
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Root ktb = rootService.searchRoot("كتب");
+        // Hands out one root, then waits until the test has cancelled
+        Iterable<Root> roots = () -> new Iterator<>() {
+            private int given;
+
+            @Override
+            public boolean hasNext() {
+                if (given == 1) {
+                    try {
+                        cancelled.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return given < 2;
+            }
+
+            @Override
+            public Root next() {
+                given++;
+                return ktb;
+            }
+        };
+
+        ExportService.ExportJob job = exportService.start(file, ExportService.Format.CSV, roots, 2, null);
+        job.cancel();
+        cancelled.countDown();
+
+        assertThrows(CancellationException.class, () -> job.getCompletion().join());
+        assertEquals("previous", Files.readString(file));
+        assertFalse(Files.exists(dir.resolve("words.csv.tmp")));
+    }
+}
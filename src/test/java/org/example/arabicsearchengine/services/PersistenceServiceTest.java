@@ -0,0 +1,102 @@
+package org.example.arabicsearchengine.services;
+
+import org.example.arabicsearchengine.models.Pattern;
+import org.example.arabicsearchengine.models.Root;
+import org.example.arabicsearchengine.repositories.DerivedWordStore;
+import org.example.arabicsearchengine.repositories.PatternRepository;
+import org.example.arabicsearchengine.repositories.RootRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceServiceTest {
+
+    private static final String LETTERS = "بتثجحخدذرز";
+
+    @TempDir
+    Path dir;
+
+    private final RootService rootService = new RootService(new RootRepository());
+    private final PatternService patternService = new PatternService(new PatternRepository());
+    private final MorphologyService morphologyService = new MorphologyService(new DerivedWordStore());
+
+    private PersistenceService persist(RootService roots, PatternService patterns, MorphologyService morphology) {
+        return new PersistenceService(roots, patterns, morphology, dir, 5, 50);
+    }
+
+    @Test
+    @DisplayName("Background compactions while roots are added lose nothing")
+    void testCompactionWhileWriting() throws IOException {
+        PersistenceService persistence = persist(rootService, patternService, morphologyService);
+        assertFalse(persistence.start());
+        Pattern doer = new Pattern("فاعل", "فاعل");
+        patternService.getRepository().save(doer);
+        for (char a : LETTERS.toCharArray()) {
+            for (char b : LETTERS.toCharArray()) {
+                for (char c : LETTERS.toCharArray()) {
+                    rootService.addRoot("" + a + b + c);
+                }
+                morphologyService.generateWord(rootService.searchRoot("" + a + b + 'ب'), doer);
+                morphologyService.generateWord(rootService.searchRoot("" + a + b + 'ب'), doer);
+            }
+        }
+        assertTrue(persistence.getLog().getGeneration() > 1, "no compaction ran");
+        persistence.close();
+
+        RootService restoredRoots = new RootService(new RootRepository());
+        PatternService restoredPatterns = new PatternService(new PatternRepository());
+        MorphologyService restoredMorphology = new MorphologyService(new DerivedWordStore());
+        try (PersistenceService restored = persist(restoredRoots, restoredPatterns, restoredMorphology)) {
+            assertTrue(restored.start());
+            assertEquals(1000, restoredRoots.getRootCount());
+            Root root = restoredRoots.searchRoot("زذب");
+            assertEquals(1, restoredMorphology.getDerivedWords(root).get(0).getFrequency());
+        }
+    }
+
+    @Test
+    @DisplayName("A second service cannot use a directory that is in use")
+    void testDirectoryLock() throws IOException {
+        PersistenceService first = persist(rootService, patternService, morphologyService);
+        first.start();
+        PersistenceService second = persist(new RootService(new RootRepository()),
+                new PatternService(new PatternRepository()), new MorphologyService());
+        assertThrows(IOException.class, second::start);
+        assertNull(second.getLog());
+
+        first.close();
+        second.start();
+        assertNotNull(second.getLog());
+        second.close();
+    }
+
+    @Test
+    @DisplayName("A corrupt snapshot fails start with an IOException and releases the directory")
+    void testCorruptSnapshot() throws IOException {
+        PersistenceService first = persist(rootService, patternService, morphologyService);
+        first.start();
+        rootService.addRoot("كتب");
+        first.close();
+        Path snapshot = dir.resolve("dictionary.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(snapshot, bytes);
+
+        RootService restoredRoots = new RootService(new RootRepository());
+        PersistenceService second = persist(restoredRoots, new PatternService(new PatternRepository()),
+                new MorphologyService());
+        assertThrows(IOException.class, second::start);
+        assertEquals(0, restoredRoots.getRootCount());
+
+        Files.delete(snapshot);
+        second.start();
+        assertNotNull(second.getLog());
+        second.close();
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.arabicsearchengine.utils;
+
+import org.example.arabicsearchengine.models.Root;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedRootLoaderTest {
+
+    private static final String ROOTS_RESOURCE = "/org/example/arabicsearchengine/data/roots.txt";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Bundled roots load the same as the line-by-line reader")
+    void testMatchesLineReader() throws IOException {
+        TreeSet<String> expected = new TreeSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ChunkedRootLoader.class.getResourceAsStream(ROOTS_RESOURCE), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#") && line.length() == 3) {
+                    expected.add(line);
+                }
+            }
+        }
+
+        List<Root> roots;
+        try (InputStream in = ChunkedRootLoader.class.getResourceAsStream(ROOTS_RESOURCE)) {
+            roots = ChunkedRootLoader.load(in).getRoots();
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(List.copyOf(expected), roots.stream().map(Root::getRootLetters).toList());
+    }
+
+    @Test
+    @DisplayName("Comments, blanks, CRLF, BOM, duplicates and invalid lines")
+    void testLineHandling() throws IOException {
+        String text = "\uFEFFكتب\r\n# comment\n\n  درس \t\nكتب\nكاتب\nabc\nx\nعلم";
+        ChunkedRootLoader.Result result = ChunkedRootLoader.load(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("درس", "علم", "كتب", "abc"),
+                result.getRoots().stream().map(Root::getRootLetters).toList());
+        assertEquals(9, result.getLines());
+        assertEquals(5, result.getRootLines());
+        assertEquals(2, result.getSkippedLines());
+        assertEquals(1, result.getChunks());
+    }
+
+    @Test
+    @DisplayName("Chunk boundaries never lose or split a line")
+    void testChunkBoundaries() throws IOException {
+        String letters = "ابتثجحخدذرزسشصضطظعغفقكلمنهوي";
+        StringBuilder text = new StringBuilder();
+        TreeSet<String> expected = new TreeSet<>();
+        int lines = 0;
+        // Lines of varying lengths so chunk cuts land everywhere, including inside letters
+        while (text.length() < 3 * ChunkedRootLoader.MIN_CHUNK_BYTES / 2) {
+            int n = lines++;
+            String root = "" + letters.charAt(n % 28) + letters.charAt(n / 28 % 28) + letters.charAt(n / 784 % 28);
+            expected.add(root);
+            text.append(root).append(n % 7 == 0 ? "\r\n" : "\n");
+            if (n % 13 == 0) {
+                text.append("# ").append("ـ".repeat(n % 50)).append('\n');
+                lines++;
+            }
+            if (n % 17 == 0) {
+                text.append("كلمة طويلة\n");
+                lines++;
+            }
+        }
+        Path file = dir.resolve("roots.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        ChunkedRootLoader.Result single = ChunkedRootLoader.load(file, 1);
+        ChunkedRootLoader.Result parallel = ChunkedRootLoader.load(file, 64);
+        assertEquals(1, single.getChunks());
+        assertTrue(parallel.getChunks() > 1);
+        for (ChunkedRootLoader.Result result : List.of(single, parallel)) {
+            assertEquals(List.copyOf(expected), result.getRoots().stream().map(Root::getRootLetters).toList());
+            assertEquals(lines, result.getLines());
+            assertEquals(Files.size(file), result.getBytes());
+        }
+        assertEquals(single.getSkippedLines(), parallel.getSkippedLines());
+        assertEquals(single.getRootLines(), parallel.getRootLines());
+    }
+}